@@ -0,0 +1,80 @@
+package pt.feup.tvvs.soulknight.benchmark;
+
+import pt.feup.tvvs.soulknight.model.dataStructs.Position;
+import pt.feup.tvvs.soulknight.model.dataStructs.Vector;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.IdleState;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+    private Scene scene;
+    private Knight knight;
+    private ExposedState state;
+    private Position knightSize;
+    private Position position;
+    private Vector fallingVelocity;
+
+    @Setup
+    public void setUp() throws IOException {
+        knight = new Knight(0, 0, 50, 10, 1);
+        scene = new SceneLoader(0).createScene(knight);
+        state = new ExposedState(knight);
+        knightSize = new Position(knight.getWidth(), knight.getHeight());
+        position = knight.getPosition();
+        fallingVelocity = new Vector(1.5, 4.0);
+    }
+
+    @Benchmark
+    public boolean collidesDown() {
+        return scene.collidesDown(position, knightSize);
+    }
+
+    @Benchmark
+    public boolean collidesUp() {
+        return scene.collidesUp(position, knightSize);
+    }
+
+    @Benchmark
+    public boolean collidesLeft() {
+        return scene.collidesLeft(position, knightSize);
+    }
+
+    @Benchmark
+    public boolean collidesRight() {
+        return scene.collidesRight(position, knightSize);
+    }
+
+    @Benchmark
+    public boolean collideSpike() {
+        return scene.collideSpike();
+    }
+
+    @Benchmark
+    public Vector applyCollisions() {
+        return state.collide(fallingVelocity);
+    }
+
+    /**
+     * Exposes the protected {@code KnightState.applyCollisions} to the benchmark.
+     */
+    private static class ExposedState extends IdleState {
+        ExposedState(Knight knight) {
+            super(knight);
+        }
+
+        Vector collide(Vector velocity) {
+            return applyCollisions(velocity);
+        }
+    }
+}
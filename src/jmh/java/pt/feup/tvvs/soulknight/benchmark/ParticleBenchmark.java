@@ -0,0 +1,48 @@
+package pt.feup.tvvs.soulknight.benchmark;
+
+import pt.feup.tvvs.soulknight.controller.game.ParticleController;
+import pt.feup.tvvs.soulknight.gui.GUI;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Per-tick cost of a respawn burst averaged over its whole fade, from a fresh burst every invocation
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParticleBenchmark {
+    private static final int BURST_SIZE = 450;
+    // Ticks until a particle has faded out at Particle's fade rate of 0.00675 per tick
+    private static final int BURST_TICKS = 149;
+
+    private Scene scene;
+    private Knight knight;
+    private ParticleController controller;
+    private long tick;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        knight = new Knight(0, 0, 50, 10, 1);
+        scene = new SceneLoader(0).createScene(knight);
+        controller = new ParticleController(scene);
+    }
+
+    @Setup(Level.Invocation)
+    public void burst() {
+        scene.setRespawnParticles(knight.createRespawnParticles(BURST_SIZE));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST_TICKS)
+    public void moveRespawnBurst() throws IOException {
+        for (int i = 0; i < BURST_TICKS; i++)
+            controller.move(null, GUI.ACTION.NULL, tick++);
+    }
+}
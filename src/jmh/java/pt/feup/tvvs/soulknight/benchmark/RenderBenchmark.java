@@ -0,0 +1,68 @@
+package pt.feup.tvvs.soulknight.benchmark;
+
+import pt.feup.tvvs.soulknight.OffscreenGUI;
+import pt.feup.tvvs.soulknight.gui.GUI;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+import pt.feup.tvvs.soulknight.view.sprites.GameSpriteLoader;
+import pt.feup.tvvs.soulknight.view.sprites.Sprite;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
+import pt.feup.tvvs.soulknight.view.sprites.ViewerProvider;
+import pt.feup.tvvs.soulknight.view.states.GameViewer;
+import pt.feup.tvvs.soulknight.view.text.GameTextViewer;
+import pt.feup.tvvs.soulknight.view.text.TextViewer;
+import com.googlecode.lanterna.TextColor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+    private static final TextColor.RGB TEXT_COLOR = new TextColor.RGB(0, 225, 75);
+
+    private GUI gui;
+    private Sprite tileSprite;
+    private Sprite logoSprite;
+    private TextViewer textViewer;
+    private GameViewer gameViewer;
+    private long tick;
+
+    @Setup
+    public void setUp() throws IOException {
+        SpriteLoader spriteLoader = new GameSpriteLoader();
+        gui = new OffscreenGUI();
+        tileSprite = spriteLoader.get("sprites/Tiles/ground_grass.png");
+        logoSprite = spriteLoader.get("icon/gameIcon.png");
+        textViewer = new GameTextViewer();
+
+        Scene scene = new SceneLoader(0).createScene(new Knight(0, 0, 50, 10, 1));
+        gameViewer = new GameViewer(scene, new ViewerProvider(spriteLoader));
+    }
+
+    @Benchmark
+    public void spriteDrawTile() {
+        tileSprite.draw(gui, 40, 40);
+    }
+
+    @Benchmark
+    public void spriteDrawLogo() {
+        logoSprite.draw(gui, 10, 10);
+    }
+
+    @Benchmark
+    public void textViewerDraw() {
+        textViewer.draw("hp 50 fps 30 Orbs 3", 4, 8, TEXT_COLOR, gui);
+    }
+
+    @Benchmark
+    public void gameViewerDraw() throws IOException {
+        gameViewer.draw(gui, tick++);
+    }
+}
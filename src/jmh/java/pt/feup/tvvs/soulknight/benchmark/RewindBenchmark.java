@@ -0,0 +1,62 @@
+package pt.feup.tvvs.soulknight.benchmark;
+
+import pt.feup.tvvs.soulknight.model.dataStructs.Position;
+import pt.feup.tvvs.soulknight.model.game.elements.enemies.Enemies;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.RewindBuffer;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Per-tick cost of recording the scene for rewinding, on its own; run with -prof gc to check it allocates nothing
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RewindBenchmark {
+    @Param({"1", "3"})
+    public int level;
+
+    @Param({"15"})
+    public int keyframeInterval;
+
+    private Scene scene;
+    private RewindBuffer rewind;
+    private Position[] knightPositions;
+    private int tick;
+
+    @Setup
+    public void setUp() throws IOException {
+        scene = new SceneLoader(level).createScene(new Knight(0, 0, 50, 10, 1), 1L);
+        rewind = new RewindBuffer(scene, RewindBuffer.DEFAULT_FRAMES, keyframeInterval);
+        // Positions made ahead of time so the benchmark measures the capture, not the scene changing
+        knightPositions = new Position[64];
+        for (int i = 0; i < knightPositions.length; i++)
+            knightPositions[i] = new Position(10 + i, 40 + (i % 7));
+        for (Enemies monster : scene.getMonsters())
+            monster.setPosition(monster.moveMonster());
+    }
+
+    @Benchmark
+    public int capture() {
+        scene.getPlayer().setPosition(knightPositions[tick++ & 63]);
+        rewind.capture();
+        return rewind.size();
+    }
+
+    @Benchmark
+    public boolean stepBack() {
+        if (!rewind.stepBack()) {
+            for (int i = 0; i < rewind.getCapacity(); i++) {
+                scene.getPlayer().setPosition(knightPositions[i & 63]);
+                rewind.capture();
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+package pt.feup.tvvs.soulknight.benchmark;
+
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.LevelBinary;
+import pt.feup.tvvs.soulknight.model.game.scene.LevelTemplate;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SceneLoaderBenchmark {
+    @Param({"0", "1", "2", "3"})
+    public int level;
+
+    @Benchmark
+    public LevelTemplate parseText() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getClassLoader().getResourceAsStream("levels/level" + level + ".lvl"), UTF_8))) {
+            return LevelTemplate.parse(level, reader);
+        }
+    }
+
+    @Benchmark
+    public LevelTemplate readCompiled() throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("levels/level" + level + LevelBinary.EXTENSION)) {
+            return LevelBinary.read(level, in);
+        }
+    }
+
+    // Reads the level every time
+    @Benchmark
+    public SceneLoader constructUncached() throws IOException {
+        SceneLoader.clearCache();
+        return new SceneLoader(level);
+    }
+
+    @Benchmark
+    public SceneLoader construct() throws IOException {
+        return new SceneLoader(level);
+    }
+
+    @Benchmark
+    public Scene constructAndCreateScene() throws IOException {
+        return new SceneLoader(level).createScene(new Knight(0, 0, 50, 10, 1));
+    }
+}
@@ -6,63 +6,279 @@ import pt.feup.tvvs.soulknight.gui.LanternaGUI;
 import pt.feup.tvvs.soulknight.gui.LanternaScreenGenerator;
 import pt.feup.tvvs.soulknight.gui.RescalableGUI;
 import pt.feup.tvvs.soulknight.gui.ScreenGenerator;
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
+import pt.feup.tvvs.soulknight.metrics.GameMetrics;
+import pt.feup.tvvs.soulknight.metrics.StartupTimeline;
+import pt.feup.tvvs.soulknight.metrics.StateTransitionEvent;
+import pt.feup.tvvs.soulknight.metrics.TickEvent;
+import pt.feup.tvvs.soulknight.metrics.TraceRecorder;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
 import pt.feup.tvvs.soulknight.model.menu.MainMenu;
-import pt.feup.tvvs.soulknight.sound.MenuSoundPlayer;
-import pt.feup.tvvs.soulknight.sound.SoundLoader;
+import pt.feup.tvvs.soulknight.model.menu.SettingsMenu;
+import pt.feup.tvvs.soulknight.simulation.InputRecording;
+import pt.feup.tvvs.soulknight.sound.AudioMixer;
+import pt.feup.tvvs.soulknight.sound.LineAudioOutput;
+import pt.feup.tvvs.soulknight.sound.NullSoundPlayer;
+import pt.feup.tvvs.soulknight.sound.SoundEffect;
+import pt.feup.tvvs.soulknight.sound.SoundPlayer;
+import pt.feup.tvvs.soulknight.state.GameState;
+import pt.feup.tvvs.soulknight.state.LevelHotReloader;
+import pt.feup.tvvs.soulknight.state.LevelPrefetcher;
 import pt.feup.tvvs.soulknight.state.MainMenuState;
+import pt.feup.tvvs.soulknight.state.SettingsMenuState;
 import pt.feup.tvvs.soulknight.state.State;
 import pt.feup.tvvs.soulknight.view.sprites.GameSpriteLoader;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteAtlas;
 import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
+import pt.feup.tvvs.soulknight.view.sprites.ViewerProvider;
 import com.googlecode.lanterna.TerminalSize;
-import com.googlecode.lanterna.terminal.DefaultTerminalFactory;
 
-import javax.sound.sampled.AudioSystem;
+import javax.management.ObjectName;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
 import java.awt.*;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
 import java.net.URISyntaxException;
-import java.util.Objects;
+import java.net.URL;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class Game {
     public static final int PIXEL_WIDTH = 230;
     public static final int PIXEL_HEIGHT = 130;
-    private final MenuSoundPlayer menuSoundPlayer;
-    private final SpriteLoader spriteLoader;
+    private static final int FPS = 30;
+    private static final int LEVELS = 4;
+    private static final int DEFAULT_TRACE_FRAMES = 300;
+    // Four mixer blocks, about 46 ms ahead of the speakers
+    private static final int AUDIO_BUFFER_BYTES = 4 * AudioMixer.BLOCK_FRAMES * 2;
+    private static final int STARTUP_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final Logger LOGGER = Logger.getLogger(Game.class.getName());
+    private final SoundPlayer menuSoundPlayer;
+    private final GameSpriteLoader spriteLoader;
+    private final ViewerProvider viewerProvider;
+    private final FrameProfiler profiler;
+    private final GameMetrics metrics;
+    private final LevelPrefetcher levelPrefetcher;
+    private final long seed;
+    private final SplittableRandom levelSeeds;
+    private final SplittableRandom menuSeeds;
+    private final StartupTimeline startup;
+    private AudioMixer audio;
+    private LevelHotReloader hotReloader;
 
     private long fpsLastUpdate = System.currentTimeMillis();
     private int frames = 0;
     private int currentFps = 0;
+    private int tick = 0;
 
-    private final LanternaGUI gui;
+    private final RescalableGUI gui;
     private State<?> state;
+    private final MainMenuState mainMenuState;
+    private SettingsMenuState settingsMenuState;
 
-    private Game() throws Exception {
+    private Game(RescalableGUI gui, long seed, AudioMixer audio, GameSpriteLoader spriteLoader,
+                 ViewerProvider viewerProvider, StartupTimeline startup) throws Exception {
+        this(gui, audio != null ? audio.getMusicPlayer() : new NullSoundPlayer(), spriteLoader, viewerProvider, seed,
+                startup);
+        this.audio = audio;
+        this.profiler.setTraceRecorder(createTraceRecorder());
+        this.hotReloader = createHotReloader();
+    }
+
+    public Game(RescalableGUI gui, SoundPlayer menuSoundPlayer, GameSpriteLoader spriteLoader) throws IOException {
+        this(gui, menuSoundPlayer, spriteLoader, new SplittableRandom().nextLong());
+    }
+
+    // Each level started by this game is seeded from the game seed
+    public Game(RescalableGUI gui, SoundPlayer menuSoundPlayer, GameSpriteLoader spriteLoader, long seed) throws IOException {
+        this(gui, menuSoundPlayer, spriteLoader, new ViewerProvider(spriteLoader), seed, new StartupTimeline());
+    }
+
+    // Every state of the game draws with the same viewers, so the font and sprites are only loaded once
+    private Game(RescalableGUI gui, SoundPlayer menuSoundPlayer, GameSpriteLoader spriteLoader,
+                 ViewerProvider viewerProvider, long seed, StartupTimeline startup) throws IOException {
+        this.seed = seed;
+        this.startup = startup;
+        this.levelSeeds = new SplittableRandom(seed);
+        this.menuSeeds = new SplittableRandom(seed).split();
+        this.gui = gui;
+        this.profiler = new FrameProfiler(TimeUnit.SECONDS.toNanos(1) / FPS);
+        this.gui.setProfiler(profiler);
+        this.menuSoundPlayer = menuSoundPlayer;
+        this.spriteLoader = spriteLoader;
+        this.viewerProvider = viewerProvider;
+        this.metrics = new GameMetrics(FPS);
+        this.levelPrefetcher = new LevelPrefetcher(viewerProvider);
+        long menuStart = System.nanoTime();
+        this.mainMenuState = new MainMenuState(new MainMenu(menuSeeds.nextLong()), viewerProvider);
+        this.state = mainMenuState;
+        startup.record("menu", menuStart);
+    }
+
+    private static LanternaGUI createLanternaGUI() throws Exception {
         ScreenGenerator screenCreator = new LanternaScreenGenerator(
-                new DefaultTerminalFactory(),
                 new TerminalSize(PIXEL_WIDTH, PIXEL_HEIGHT),
                 GraphicsEnvironment.getLocalGraphicsEnvironment().getMaximumWindowBounds()
         );
-        this.gui = new LanternaGUI(screenCreator, "Soul Knight");
-        this.menuSoundPlayer = new MenuSoundPlayer(new SoundLoader().loadSound(AudioSystem
-                .getAudioInputStream(Objects.requireNonNull(getClass().getClassLoader().getResource("sound/demo.wav"))), AudioSystem.getClip()));
-        this.spriteLoader = new GameSpriteLoader();
-        this.state = new MainMenuState(new MainMenu(), spriteLoader);
+        return new LanternaGUI(screenCreator, "Soul Knight");
+    }
+
+    // The music is streamed from sound/demo.wav; without a sound card the game plays silently. Music the
+    // mixer cannot convert stops the game here instead of going quiet on the mixer thread
+    private static AudioMixer createAudio() throws IOException, UnsupportedAudioFileException {
+        URL music = Game.class.getClassLoader().getResource(AudioMixer.MUSIC);
+        if (music == null)
+            LOGGER.warning(AudioMixer.MUSIC + " is not on the classpath, playing without music");
+        LineAudioOutput output;
+        try {
+            output = new LineAudioOutput(AudioMixer.FORMAT, AUDIO_BUFFER_BYTES);
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            LOGGER.log(Level.INFO, "No audio line, playing without sound", e);
+            return null;
+        }
+        try {
+            AudioMixer audio = new AudioMixer(output, music);
+            audio.start();
+            return audio;
+        } catch (IOException | UnsupportedAudioFileException e) {
+            output.close();
+            throw e;
+        }
+    }
+
+    // F4 captures a trace in game; -Dsoulknight.trace.frames=N also captures the first N frames at startup
+    private static TraceRecorder createTraceRecorder() {
+        Integer frames = Integer.getInteger("soulknight.trace.frames");
+        TraceRecorder recorder = new TraceRecorder(frames != null ? frames : DEFAULT_TRACE_FRAMES,
+                Paths.get(System.getProperty("soulknight.trace.dir", ".")));
+        if (frames != null)
+            recorder.capture();
+        return recorder;
+    }
+
+    // -Dsoulknight.dev=true patches edits to the level files into the running game;
+    // -Dsoulknight.levels.dir=DIR says where they are when not run from the project directory
+    private static LevelHotReloader createHotReloader() throws IOException {
+        if (!Boolean.getBoolean("soulknight.dev"))
+            return null;
+        return new LevelHotReloader(Paths.get(System.getProperty("soulknight.levels.dir", "src/main/resources/levels")));
+    }
+
+    // Reads every level, so the ones after the first are parsed by the time they are prefetched
+    private static Void parseLevels() throws IOException {
+        for (int id = 0; id < LEVELS; id++)
+            SceneLoader.getTemplate(id);
+        return null;
+    }
+
+    // Platform threads even where ParallelSimulation.newExecutor would pick virtual ones: the startup work is
+    // decoding that keeps a core busy, and the named threads tell the phases apart in the startup report
+    private static ExecutorService createStartupExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(STARTUP_THREADS, task -> {
+            Thread thread = new Thread(task, "startup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // -Dsoulknight.seed=N fixes the seed, -Dsoulknight.record=FILE records this session's input
+    // and -Dsoulknight.replay=FILE plays a recorded session back with its seed.
+    // The window opens on this thread while the audio line, the levels and the sprite atlas load on the
+    // startup threads; only the menu waits for them, the level viewers finish behind it.
+    private static Game createGame(StartupTimeline startup) throws Exception {
+        ExecutorService executor = createStartupExecutor();
+        try {
+            Future<GameSpriteLoader> sprites = executor.submit(() ->
+                    startup.time("sprite atlas", () -> new GameSpriteLoader(SpriteAtlas.load())));
+            Future<AudioMixer> audio = executor.submit(() -> startup.time("audio", Game::createAudio));
+            executor.submit(() -> startup.time("levels", Game::parseLevels));
+            Future<ViewerProvider> viewers = executor.submit(() ->
+                    startup.time("menu viewers", () -> loadViewers(sprites.get(), executor, startup)));
+
+            RescalableGUI gui = startup.time("gui", Game::createLanternaGUI);
+            long seed;
+            String replay = System.getProperty("soulknight.replay");
+            if (replay != null) {
+                InputRecording recording = InputRecording.read(Paths.get(replay));
+                gui = new ReplayGUI(gui, recording);
+                seed = recording.getSeed();
+            } else {
+                seed = Long.getLong("soulknight.seed", new SplittableRandom().nextLong());
+                String record = System.getProperty("soulknight.record");
+                if (record != null)
+                    gui = new RecordingGUI(gui, seed, Paths.get(record));
+            }
+
+            long wait = System.nanoTime();
+            AudioMixer mixer = audio.get();
+            GameSpriteLoader spriteLoader = sprites.get();
+            ViewerProvider viewerProvider = viewers.get();
+            startup.record("wait for startup threads", wait);
+            return new Game(gui, seed, mixer, spriteLoader, viewerProvider, startup);
+        } catch (Exception e) {
+            executor.shutdownNow();
+            throw e;
+        }
+    }
+
+    // The menu viewers are loaded right away; each level viewer then picks its sprites on a startup thread
+    // of its own. That is the last work given to the startup threads, which go away once it is done
+    private static ViewerProvider loadViewers(GameSpriteLoader spriteLoader, ExecutorService executor,
+                                              StartupTimeline startup) throws IOException {
+        ViewerProvider viewerProvider = new ViewerProvider(spriteLoader);
+        long start = System.nanoTime();
+        viewerProvider.preload(executor).whenComplete((loaded, error) -> {
+            startup.record("level viewers", start);
+            executor.shutdown();
+        });
+        return viewerProvider;
     }
 
     public static void main(String[] args) {
-        Logger logger = Logger.getLogger(Game.class.getName());
+        StartupTimeline startup = new StartupTimeline();
+        startup.record("jvm", startup.getOriginNanos());
         try {
-            new Game().start();
+            createGame(startup).start();
         } catch (Exception e) {
-            logger.log(Level.INFO, "An error occurred while running Game.start()", e);
+            LOGGER.log(Level.INFO, "An error occurred while running Game.start()", e);
         }
     }
 
+    public State<?> getState() {
+        return state;
+    }
+
     public void setState(State<?> state) {
+        StateTransitionEvent event = new StateTransitionEvent();
+        if (event.isEnabled()) {
+            event.tick = tick;
+            event.from = stateName(this.state);
+            event.to = stateName(state);
+            event.sceneId = sceneId(state);
+            event.commit();
+        }
         this.state = state;
     }
 
+    private static String stateName(State<?> state) {
+        return state == null ? "none" : state.getClass().getSimpleName();
+    }
+
+    private static int sceneId(State<?> state) {
+        return state != null && state.getModel() instanceof Scene ? ((Scene) state.getModel()).getSceneID() : -1;
+    }
+
     public RescalableGUI.ResolutionScale getResolution() {
         return gui.getResolutionScale();
     }
@@ -73,49 +289,175 @@ public class Game {
     }
 
     public int getNumberOfLevels() {
-        return 4;
+        return LEVELS;
     }
     public SpriteLoader getSpriteLoader() {
         return spriteLoader;
     }
 
-    private void start() throws IOException, InterruptedException, URISyntaxException, FontFormatException {
-        int FPS = 30;
-        int frameTime = 1000 / FPS;
-        int tick = 0;
+    public ViewerProvider getViewerProvider() {
+        return viewerProvider;
+    }
 
-        Thread.sleep(100);
-        menuSoundPlayer.start();
-        while (this.state != null) {    // Game loop
-            long startTime = System.currentTimeMillis();
+    // The menus are built once and shown again as they were left, apart from the selected option
+    public MainMenuState getMainMenuState() {
+        mainMenuState.getModel().resetCurrentOption();
+        return mainMenuState;
+    }
 
-            if (tick == 0) {
-                Thread.sleep(100);
-            }
+    public SettingsMenuState getSettingsMenuState() throws IOException {
+        if (settingsMenuState == null)
+            settingsMenuState = new SettingsMenuState(new SettingsMenu(menuSeeds.nextLong()), viewerProvider);
+        settingsMenuState.getModel().resetCurrentOption();
+        return settingsMenuState;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public FrameProfiler getProfiler() {
+        return profiler;
+    }
+
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    public StartupTimeline getStartupTimeline() {
+        return startup;
+    }
+
+    // Never blocks; a game without audio ignores it
+    public void playSound(SoundEffect effect) {
+        if (audio != null)
+            audio.play(effect);
+    }
+
+    public LevelPrefetcher getLevelPrefetcher() {
+        return levelPrefetcher;
+    }
+
+    // The level was usually prefetched while the previous one was played; the next one starts loading now
+    public void startLevel(int sceneId, Knight knight) throws IOException {
+        long start = System.nanoTime();
+        LevelPrefetcher.PreparedLevel level = levelPrefetcher.take(sceneId);
+        Scene scene = new SceneLoader(level.getTemplate()).createScene(knight, levelSeeds.nextLong());
+        setState(new GameState(scene, level.getViewerProvider()));
+        metrics.recordLevelLoad(System.nanoTime() - start);
+        if (sceneId + 1 < getNumberOfLevels())
+            levelPrefetcher.prefetch(sceneId + 1);
+    }
+
+    private void start() throws Exception {
+        ObjectName metricsName = metrics.register(ManagementFactory.getPlatformMBeanServer());
+        try {
+            levelPrefetcher.prefetch(0);
+            menuSoundPlayer.start();
+            while (this.state != null) {    // Game loop
+                long startTime = System.currentTimeMillis();
+                int frameTime = 1000 / metrics.getTargetTickRate();
+                profiler.setFrameBudgetNanos(TimeUnit.MILLISECONDS.toNanos(frameTime));
+
+                TickEvent tickEvent = new TickEvent();
+                tickEvent.begin();
+                State<?> tickState = state;
+                profiler.beginFrame(tick, sceneId(tickState));
+
+                if (hotReloader != null)
+                    hotReloader.apply(this);
+                long frameStart = profiler.begin();
+                state.move(this, gui, tick);
+                profiler.end(FrameProfiler.Phase.FRAME, frameStart);
+                profiler.endFrame();
+                if (tick == 0)
+                    reportStartup();
+
+                tickEvent.end();
+                if (tickEvent.shouldCommit())
+                    commitTickEvent(tickEvent, tickState);
+
+                // Update the FPS counter
+                frames++;
+                long currentTime = System.currentTimeMillis();
+                if (currentTime - fpsLastUpdate >= 1000) {
+                    currentFps = frames;
+                    frames = 0;
+                    fpsLastUpdate = currentTime;
+                    metrics.sample(currentFps, state != null && state.getModel() instanceof Scene ? (Scene) state.getModel() : null,
+                            profiler, spriteLoader);
+                    if (LOGGER.isLoggable(Level.FINE))
+                        LOGGER.fine(profiler.getInputLatency().summary());
+                }
 
-            state.move(this, gui, tick);
+                gui.setFPS(currentFps);
 
-            // Update the FPS counter
-            frames++;
-            long currentTime = System.currentTimeMillis();
-            if (currentTime - fpsLastUpdate >= 1000) {
-                currentFps = frames;
-                frames = 0;
-                fpsLastUpdate = currentTime;
+                long elapsedTime = System.currentTimeMillis() - startTime;
+                long sleepTime = frameTime - elapsedTime;
+
+                if (sleepTime > 0) Thread.sleep(sleepTime);
+                tick++;
             }
 
-            gui.setFPS(currentFps);
+            LOGGER.info(profiler.getInputLatency().summary());
+        } finally {
+            shutdown(metricsName);
+        }
+    }
 
-            long elapsedTime = System.currentTimeMillis() - startTime;
-            long sleepTime = frameTime - elapsedTime;
+    // Runs however the loop ended; one thing failing to close does not keep the others open
+    private void shutdown(ObjectName metricsName) {
+        close("the screen", gui::close);
+        close("the trace recorder", profiler.getTraceRecorder()::close);
+        if (hotReloader != null)
+            close("the level hot reloader", hotReloader::close);
+        if (audio != null)
+            close("the audio", audio::close);
+        close("the metrics MBean", () -> ManagementFactory.getPlatformMBeanServer().unregisterMBean(metricsName));
+    }
 
-            if (sleepTime > 0) Thread.sleep(sleepTime);
-            tick++;
+    private interface Closer {
+        void close() throws Exception;
+    }
+
+    private static void close(String what, Closer closer) {
+        try {
+            closer.close();
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Could not close " + what, e);
         }
+    }
+
 
-        gui.close();
+    // -Dsoulknight.startup.report=FILE also writes the timeline to a file
+    private void reportStartup() {
+        if (!startup.markFirstFrame())
+            return;
+        metrics.recordTimeToFirstFrame(startup.getTimeToFirstFrameNanos());
+        LOGGER.info(startup.report());
+        String file = System.getProperty("soulknight.startup.report");
+        if (file != null) {
+            try {
+                startup.write(Paths.get(file));
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Could not write the startup timeline to " + file, e);
+            }
+        }
     }
 
+    private void commitTickEvent(TickEvent event, State<?> tickState) {
+        event.tick = tick;
+        event.state = stateName(tickState);
+        event.sceneId = sceneId(tickState);
+        if (tickState.getModel() instanceof Scene) {
+            Scene scene = (Scene) tickState.getModel();
+            event.particles = scene.getParticles().size() + scene.getDoubleJumpParticles().size()
+                    + scene.getJumpParticles().size() + scene.getRespawnParticles().size()
+                    + scene.getDashParticles().size();
+            event.enemies = scene.getMonsters().size();
+        }
+        event.commit();
+    }
 
     public Object getGUI() {
         return this.gui;
@@ -0,0 +1,254 @@
+package pt.feup.tvvs.soulknight.assets;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Prebuilt assets in one indexed file ({@code assets.skab}), written at build time by {@link AssetBundler}
+ * and mapped into memory at runtime, so an entry is a view of the file rather than a copy of it. The PNG,
+ * text and level files stay the editable sources: the bundle lists the hash of each file it was made from, and
+ * with {@code -Dsoulknight.dev=true} one older than any of them is not used. Otherwise the bundle is trusted
+ * as the build made it, so startup never opens the sources.
+ * <p>
+ * Layout, big-endian: magic {@code SKAB}, version byte, entry count int, then per entry its name (a short
+ * length and UTF-8 bytes), offset and length ints; the entries follow, each starting on a 4-byte boundary.
+ */
+public final class AssetBundle {
+    public static final String RESOURCE = "assets.skab";
+    public static final String SOURCES_ENTRY = "assets.sources";
+
+    private static final Logger LOGGER = Logger.getLogger(AssetBundle.class.getName());
+    private static final int MAGIC = 0x534B4142;
+    private static final int VERSION = 1;
+    private static final int ALIGNMENT = 4;
+
+    private static AssetBundle defaultBundle;
+    private static boolean defaultLoaded;
+
+    private final ByteBuffer data;
+    private final Map<String, int[]> entries;
+
+    private AssetBundle(ByteBuffer data, Map<String, int[]> entries) {
+        this.data = data;
+        this.entries = entries;
+    }
+
+    public static void write(Map<String, byte[]> entries, OutputStream out) throws IOException {
+        int headerSize = headerSize(entries);
+        int offset = align(headerSize);
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(entries.size());
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            data.writeShort(name.length);
+            data.write(name);
+            data.writeInt(offset);
+            data.writeInt(entry.getValue().length);
+            offset = align(offset + entry.getValue().length);
+        }
+        int written = headerSize;
+        for (byte[] bytes : entries.values()) {
+            data.write(new byte[align(written) - written]);
+            data.write(bytes);
+            written = align(written) + bytes.length;
+        }
+        data.flush();
+    }
+
+    private static int headerSize(Map<String, byte[]> entries) {
+        int size = 4 + 1 + 4;
+        for (String name : entries.keySet())
+            size += 2 + name.getBytes(StandardCharsets.UTF_8).length + 4 + 4;
+        return size;
+    }
+
+    private static int align(int offset) {
+        return (offset + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    public static AssetBundle read(ByteBuffer buffer) throws IOException {
+        try {
+            ByteBuffer index = buffer.duplicate();
+            if (index.getInt() != MAGIC)
+                throw new IOException("Not an asset bundle");
+            int version = index.get() & 0xFF;
+            if (version != VERSION)
+                throw new IOException("Unsupported asset bundle version " + version);
+            int count = index.getInt();
+            Map<String, int[]> entries = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = readUTF(index);
+                int offset = index.getInt(), length = index.getInt();
+                if (offset < 0 || length < 0 || (long) offset + length > buffer.limit())
+                    throw new IOException("Entry " + name + " lies outside the bundle");
+                entries.put(name, new int[]{offset, length});
+            }
+            return new AssetBundle(buffer, entries);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Corrupt asset bundle", e);
+        }
+    }
+
+    private static String readUTF(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Source count int, then per source its name (a short length and UTF-8 bytes) and the CRC-32 of its bytes
+    public static byte[] writeSources(Collection<String> names) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeInt(names.size());
+        for (String name : names) {
+            byte[] source = readResource(name);
+            if (source == null)
+                throw new FileNotFoundException(name);
+            byte[] utf = name.getBytes(StandardCharsets.UTF_8);
+            data.writeShort(utf.length);
+            data.write(utf);
+            data.writeInt(hash(source));
+        }
+        data.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] readResource(String name) throws IOException {
+        try (InputStream in = AssetBundle.class.getClassLoader().getResourceAsStream(name)) {
+            return in != null ? in.readAllBytes() : null;
+        }
+    }
+
+    private static int hash(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    // Whether every file the bundle was made from is still on the classpath as it was then
+    public boolean isCurrent() throws IOException {
+        ByteBuffer sources = get(SOURCES_ENTRY);
+        if (sources == null)
+            return false;
+        try {
+            for (int count = sources.getInt(); count > 0; count--) {
+                String name = readUTF(sources);
+                byte[] source = readResource(name);
+                if (source == null || hash(source) != sources.getInt())
+                    return false;
+            }
+            return true;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Corrupt asset bundle source list", e);
+        }
+    }
+
+    // Maps the file instead of copying it onto the heap
+    public static AssetBundle map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // The bundle the build put on the classpath: mapped from the build directory, read in one go from the jar,
+    // which cannot be mapped. null without one, in dev mode when it is older than its sources, or with
+    // -Dsoulknight.bundle=false to use the sources instead
+    public static synchronized AssetBundle getDefault() {
+        if (!defaultLoaded) {
+            defaultLoaded = true;
+            if (!"false".equals(System.getProperty("soulknight.bundle")))
+                defaultBundle = loadDefault();
+        }
+        return defaultBundle;
+    }
+
+    private static AssetBundle loadDefault() {
+        URL resource = AssetBundle.class.getClassLoader().getResource(RESOURCE);
+        if (resource == null)
+            return null;
+        try {
+            AssetBundle bundle;
+            if ("file".equals(resource.getProtocol())) {
+                bundle = map(Paths.get(resource.toURI()));
+            } else {
+                try (InputStream in = resource.openStream()) {
+                    bundle = read(ByteBuffer.wrap(in.readAllBytes()));
+                }
+            }
+            if (Boolean.getBoolean("soulknight.dev") && !bundle.isCurrent()) {
+                LOGGER.info(resource + " is older than the files it was made from, loading the assets one by one");
+                return null;
+            }
+            return bundle;
+        } catch (IOException | URISyntaxException e) {
+            LOGGER.log(Level.WARNING, "Could not read " + resource + ", loading the assets one by one", e);
+            return null;
+        }
+    }
+
+    // The entry from the default bundle when there is one, otherwise the classpath resource
+    public static InputStream openResource(String name) throws IOException {
+        AssetBundle bundle = getDefault();
+        ByteBuffer entry = bundle != null ? bundle.get(name) : null;
+        if (entry != null) {
+            byte[] bytes = new byte[entry.remaining()];
+            entry.get(bytes);
+            return new ByteArrayInputStream(bytes);
+        }
+        InputStream in = AssetBundle.class.getClassLoader().getResourceAsStream(name);
+        if (in == null)
+            throw new FileNotFoundException(name);
+        return in;
+    }
+
+    public boolean contains(String name) {
+        return entries.containsKey(name);
+    }
+
+    // A read-only view of the entry, or null when there is no such entry
+    public ByteBuffer get(String name) {
+        int[] entry = entries.get(name);
+        if (entry == null)
+            return null;
+        ByteBuffer view = data.duplicate();
+        view.limit(entry[0] + entry[1]).position(entry[0]);
+        return view.slice().asReadOnlyBuffer();
+    }
+
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    public boolean isMapped() {
+        return data.isDirect();
+    }
+
+    public int size() {
+        return data.limit();
+    }
+}
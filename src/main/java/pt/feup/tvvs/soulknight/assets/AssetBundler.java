@@ -0,0 +1,77 @@
+package pt.feup.tvvs.soulknight.assets;
+
+import pt.feup.tvvs.soulknight.model.game.scene.LevelBinary;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteAtlas;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Build step that decodes the sprites and the font bitmap into a {@link SpriteAtlas} and writes it, the font
+ * map, the compiled levels and the hashes of the files they came from into one {@link AssetBundle}. Run by Maven after the levels are compiled:
+ * {@code AssetBundler <compiled level dir> <bundle file>}.
+ */
+public class AssetBundler {
+    public static final String FONT_MAP = "fonts/font-map.txt";
+
+    public static Map<String, byte[]> collect(Path compiledLevels) throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        List<String> sprites = SpriteAtlas.findSprites(SpriteAtlas.DEFAULT_ROOTS);
+        SpriteAtlas atlas = SpriteAtlas.build(sprites);
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        atlas.writeIndex(index);
+        entries.put(SpriteAtlas.INDEX_ENTRY, index.toByteArray());
+        ByteArrayOutputStream page = new ByteArrayOutputStream();
+        atlas.writePage(page);
+        entries.put(SpriteAtlas.PAGE_ENTRY, page.toByteArray());
+
+        try (InputStream in = AssetBundler.class.getClassLoader().getResourceAsStream(FONT_MAP)) {
+            if (in == null)
+                throw new IOException(FONT_MAP + " is not on the classpath");
+            entries.put(FONT_MAP, in.readAllBytes());
+        }
+
+        // Compiled levels check their own text, so only the sprites and the font map are listed
+        List<String> sources = new ArrayList<>(sprites);
+        sources.add(FONT_MAP);
+        entries.put(AssetBundle.SOURCES_ENTRY, AssetBundle.writeSources(sources));
+
+        TreeSet<Path> levels = new TreeSet<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(compiledLevels, "*" + LevelBinary.EXTENSION)) {
+            files.forEach(levels::add);
+        }
+        for (Path level : levels)
+            entries.put("levels/" + level.getFileName(), Files.readAllBytes(level));
+        return entries;
+    }
+
+    public static int bundle(Path compiledLevels, Path output) throws IOException {
+        Map<String, byte[]> entries = collect(compiledLevels);
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null)
+            Files.createDirectories(parent);
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output))) {
+            AssetBundle.write(entries, out);
+        }
+        return entries.size();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path levels = Paths.get(args.length > 0 ? args[0] : "target/classes/levels");
+        Path output = Paths.get(args.length > 1 ? args[1] : "target/classes/" + AssetBundle.RESOURCE);
+        int entries = bundle(levels, output);
+        System.out.println("Bundled " + entries + " assets into " + output + " (" + Files.size(output) + " bytes)");
+    }
+}
@@ -1,6 +1,7 @@
 package pt.feup.tvvs.soulknight.controller;
 
 import pt.feup.tvvs.soulknight.Game;
+import pt.feup.tvvs.soulknight.gui.ActionSet;
 import pt.feup.tvvs.soulknight.gui.GUI;
 
 import java.awt.*;
@@ -19,4 +20,9 @@ public abstract class Controller<T> {
     }
 
     public abstract void move(Game game, GUI.ACTION action, long time) throws IOException, URISyntaxException, FontFormatException;
+
+    // Everything the player did this tick; controllers that react to a single action get the primary one
+    public void move(Game game, ActionSet actions, long time) throws IOException, URISyntaxException, FontFormatException {
+        move(game, actions.primary(), time);
+    }
 }
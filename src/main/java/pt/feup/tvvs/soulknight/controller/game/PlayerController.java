@@ -2,6 +2,7 @@ package pt.feup.tvvs.soulknight.controller.game;
 
 import pt.feup.tvvs.soulknight.Game;
 import pt.feup.tvvs.soulknight.controller.Controller;
+import pt.feup.tvvs.soulknight.gui.ActionSet;
 import pt.feup.tvvs.soulknight.gui.GUI;
 import pt.feup.tvvs.soulknight.model.game.elements.knight.IdleState;
 import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
@@ -11,33 +12,43 @@ import pt.feup.tvvs.soulknight.model.game.scene.Scene;
 import java.io.IOException;
 
 public class PlayerController extends Controller<Scene> {
+    private final ActionSet single = new ActionSet();
+
     public PlayerController(Scene scene) {
         super(scene);
     }
 
     @Override
     public void move(Game game, GUI.ACTION action, long time) throws IOException {
+        single.set(action);
+        move(game, single, time);
+    }
+
+    // Horizontal movement is applied before a jump or dash on the same tick, so a dash goes the way the knight now faces
+    @Override
+    public void move(Game game, ActionSet actions, long time) throws IOException {
         Knight knight = getModel().getPlayer();
 
-        switch (action) {
-            case LEFT:
-                knight.setVelocity(knight.moveLeft());
-                knight.setFacingRight(false);
-                break;
-            case RIGHT:
-                knight.setVelocity(knight.moveRight());
-                knight.setFacingRight(true);
-                break;
-            case JUMP:
+        if (actions.contains(GUI.ACTION.KILL)) {
+            knight.setState(new RespawnState(knight, 30));
+        } else {
+            boolean left = actions.contains(GUI.ACTION.LEFT);
+            boolean right = actions.contains(GUI.ACTION.RIGHT);
+            boolean moved = false;
+            if (left != right) {
+                knight.setVelocity(left ? knight.moveLeft() : knight.moveRight());
+                knight.setFacingRight(right);
+                moved = true;
+            }
+            if (actions.contains(GUI.ACTION.JUMP)) {
                 knight.setVelocity(knight.jump());
-                break;
-            case DASH:
+                moved = true;
+            }
+            if (actions.contains(GUI.ACTION.DASH)) {
                 knight.setVelocity(knight.dash());
-                break;
-            case KILL:
-                knight.setState(new RespawnState(knight, 30));
-                break;
-            default:
+                moved = true;
+            }
+            if (!moved)
                 knight.setVelocity(knight.updateVelocity());
         }
 
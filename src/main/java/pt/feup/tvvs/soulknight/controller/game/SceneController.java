@@ -2,15 +2,19 @@ package pt.feup.tvvs.soulknight.controller.game;
 
 import pt.feup.tvvs.soulknight.Game;
 import pt.feup.tvvs.soulknight.controller.Controller;
+import pt.feup.tvvs.soulknight.gui.ActionSet;
 import pt.feup.tvvs.soulknight.gui.GUI;
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
+import pt.feup.tvvs.soulknight.metrics.InputLatency;
 import pt.feup.tvvs.soulknight.model.credits.Credits;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.DashState;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.FallingState;
 import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.RespawnState;
+import pt.feup.tvvs.soulknight.model.game.scene.RewindBuffer;
 import pt.feup.tvvs.soulknight.model.game.scene.Scene;
-import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
-import pt.feup.tvvs.soulknight.model.menu.MainMenu;
+import pt.feup.tvvs.soulknight.sound.SoundEffect;
 import pt.feup.tvvs.soulknight.state.CreditsState;
-import pt.feup.tvvs.soulknight.state.GameState;
-import pt.feup.tvvs.soulknight.state.MainMenuState;
 
 import java.io.IOException;
 
@@ -18,43 +22,105 @@ public class SceneController extends Controller<Scene> {
     private final PlayerController playerController;
     private final ParticleController particleController;
     private final EnemieController enemieController;
+    private RewindBuffer rewind;
+    private boolean rewinding;
+    private int revision;
+
+    private final ActionSet single = new ActionSet();
 
     public SceneController(Scene scene, PlayerController playerController,
                            ParticleController particleController, EnemieController enemieController) {
+        this(scene, playerController, particleController, enemieController, null);
+    }
+
+    // With a rewind buffer every tick is recorded and holding REWIND steps the scene back through it
+    public SceneController(Scene scene, PlayerController playerController, ParticleController particleController,
+                           EnemieController enemieController, RewindBuffer rewind) {
         super(scene);
         this.playerController = playerController;
         this.particleController = particleController;
         this.enemieController = enemieController;
+        this.rewind = rewind;
+        this.revision = scene.getRevision();
     }
 
     @Override
     public void move(Game game, GUI.ACTION action, long time) throws IOException {
+        single.set(action);
+        move(game, single, time);
+    }
+
+    @Override
+    public void move(Game game, ActionSet actions, long time) throws IOException {
         Knight knight = getModel().getPlayer();
-        if (action == GUI.ACTION.QUIT)
-            game.setState(new MainMenuState(new MainMenu(), game.getSpriteLoader()));
+        FrameProfiler profiler = FrameProfiler.orDisabled(game.getProfiler());
+        long sceneStart = profiler.begin();
+        if (actions.contains(GUI.ACTION.PROFILER))
+            profiler.toggleOverlay();
+        if (actions.contains(GUI.ACTION.TRACE))
+            profiler.captureTrace();
+        if (rewind != null && getModel().getRevision() != revision) {
+            // The level was edited under the scene and the recorded frames no longer fit it
+            revision = getModel().getRevision();
+            rewind = new RewindBuffer(getModel(), rewind.getCapacity(), rewind.getKeyframeInterval());
+        }
+        if (actions.contains(GUI.ACTION.QUIT))
+            game.setState(game.getMainMenuState());
+        else if (rewind != null && actions.contains(GUI.ACTION.REWIND)) {
+            rewinding = true;
+            rewind.stepBack();
+        }
         else {
-
-            playerController.move(game, action, time);
+            if (rewinding) {
+                // Whatever the knight was doing when the rewind began, it picks up again from the air
+                rewinding = false;
+                knight.setState(new FallingState(knight));
+            }
+            int jumps = knight.getJumpCounter();
+            boolean dashing = knight.getState() instanceof DashState;
+            boolean dead = knight.getState() instanceof RespawnState;
+            long start = profiler.begin();
+            playerController.move(game, actions, time);
+            profiler.end(FrameProfiler.Phase.PLAYER, start);
+            profiler.getInputLatency().mark(InputLatency.Stage.APPLIED);
+            if (knight.getJumpCounter() > jumps)
+                game.playSound(SoundEffect.JUMP);
+            if (!dashing && knight.getState() instanceof DashState)
+                game.playSound(SoundEffect.DASH);
+            if (!dead && knight.getState() instanceof RespawnState)
+                game.playSound(SoundEffect.DEATH);
 
             if (getModel().isAtEndPosition() && knight.getOrbs() == 3 * (getModel().getSceneID() + 1)) {
                 if (getModel().getSceneID() + 1 >= game.getNumberOfLevels()) {
                     Credits credits = new Credits(getModel().getPlayer());
-                    game.setState(new CreditsState(credits, game.getSpriteLoader()));
+                    game.setState(new CreditsState(credits, game.getViewerProvider()));
                 } else {
-                    SceneLoader sceneLoader = new SceneLoader((getModel().getSceneID() + 1));
-                    Scene newScene = sceneLoader.createScene(knight);
-                    game.setState(new GameState(newScene, game.getSpriteLoader()));
+                    game.startLevel(getModel().getSceneID() + 1, knight);
                 }
             }
             else{
+                int orbs = knight.getOrbs();
                 getModel().collectOrbs(getModel().getOrbs());
+                if (knight.getOrbs() > orbs)
+                    game.playSound(SoundEffect.ORB);
+                if (!(knight.getState() instanceof RespawnState))
+                    getModel().reachCheckpoint();
 
+                boolean hit = knight.isGotHit();
                 getModel().collideMonsters(getModel().getMonsters());
+                if (!hit && knight.isGotHit())
+                    game.playSound(SoundEffect.HIT);
 
-                particleController.move(game, action,time);
-                enemieController.move(game,action,time);
+                start = profiler.begin();
+                particleController.move(game, actions.primary(), time);
+                start = profiler.end(FrameProfiler.Phase.PARTICLES, start);
+                enemieController.move(game, actions.primary(), time);
+                profiler.end(FrameProfiler.Phase.ENEMIES, start);
+                if (rewind != null)
+                    rewind.capture();
             }
         }
+        profiler.end(FrameProfiler.Phase.SCENE, sceneStart);
     }
 
 
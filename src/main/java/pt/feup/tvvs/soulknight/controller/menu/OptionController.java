@@ -5,13 +5,7 @@ import pt.feup.tvvs.soulknight.controller.Controller;
 import pt.feup.tvvs.soulknight.gui.GUI;
 import pt.feup.tvvs.soulknight.gui.RescalableGUI;
 import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
-import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
-import pt.feup.tvvs.soulknight.model.menu.MainMenu;
 import pt.feup.tvvs.soulknight.model.menu.Menu;
-import pt.feup.tvvs.soulknight.model.menu.SettingsMenu;
-import pt.feup.tvvs.soulknight.state.GameState;
-import pt.feup.tvvs.soulknight.state.MainMenuState;
-import pt.feup.tvvs.soulknight.state.SettingsMenuState;
 
 import java.awt.*;
 import java.io.IOException;
@@ -29,16 +23,12 @@ public class OptionController extends Controller<Menu> {
         switch (getModel().getCurrentOption().getType()) {
             case START_GAME:
                 if (action == GUI.ACTION.SELECT) {
-                    game.setState(new GameState(
-                            new SceneLoader(0)
-                                    .createScene(new Knight(0, 0, 50, 10, 1)),
-                            game.getSpriteLoader()
-                    ));
+                    game.startLevel(0, new Knight(0, 0, 50, 10, 1));
                 }
                 break;
             case SETTINGS:
                 if (action == GUI.ACTION.SELECT)
-                    game.setState(new SettingsMenuState(new SettingsMenu(), game.getSpriteLoader()));
+                    game.setState(game.getSettingsMenuState());
                 break;
             case EXIT:
                 if (action == GUI.ACTION.SELECT)
@@ -61,7 +51,7 @@ public class OptionController extends Controller<Menu> {
                 break;
             case TO_MAIN_MENU:
                 if (action == GUI.ACTION.SELECT)
-                    game.setState(new MainMenuState(new MainMenu(), game.getSpriteLoader()));
+                    game.setState(game.getMainMenuState());
         }
     }
 
@@ -11,24 +11,33 @@ import com.googlecode.lanterna.TextColor;
 import pt.feup.tvvs.soulknight.state.particle.*;
 
 import java.io.IOException;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class ParticleMenuController extends Controller<Menu> {
     private double windAngle = 0; // Current wind direction in radians
     private double windSpeed = 2; // Current wind speed
     private final int screenWidth = 220;
     private final int screenHeight = 110;
-    private final Random random = new Random();
+    private final SplittableRandom random;
 
     // Colors for the gradient
-    TextColor.RGB currentStartColor = randomColor();
-    TextColor.RGB currentEndColor = randomColor();
-    TextColor.RGB nextStartColor = randomColor();
-    TextColor.RGB nextEndColor = randomColor();
+    TextColor.RGB currentStartColor;
+    TextColor.RGB currentEndColor;
+    TextColor.RGB nextStartColor;
+    TextColor.RGB nextEndColor;
     private int transitionStartTick = -1; // Tick when the transition begins
 
     public ParticleMenuController(Menu menu) {
         super(menu);
+        this.random = menu != null ? menu.getRandom().split() : new SplittableRandom();
+        this.currentStartColor = randomColor();
+        this.currentEndColor = randomColor();
+        this.nextStartColor = randomColor();
+        this.nextEndColor = randomColor();
+    }
+
+    public SplittableRandom getRandom() {
+        return random;
     }
 
     public double getWindAngle() {
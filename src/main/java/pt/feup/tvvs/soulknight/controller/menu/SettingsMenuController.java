@@ -1,9 +1,7 @@
 package pt.feup.tvvs.soulknight.controller.menu;
 
 import pt.feup.tvvs.soulknight.Game;
-import pt.feup.tvvs.soulknight.model.menu.MainMenu;
 import pt.feup.tvvs.soulknight.model.menu.SettingsMenu;
-import pt.feup.tvvs.soulknight.state.MainMenuState;
 
 import java.io.IOException;
 
@@ -16,6 +14,6 @@ public class SettingsMenuController extends MenuController<SettingsMenu> {
 
     @Override
     protected void onQuit(Game game) throws IOException {
-        game.setState(new MainMenuState(new MainMenu(), game.getSpriteLoader()));
+        game.setState(game.getMainMenuState());
     }
 }
@@ -0,0 +1,100 @@
+package pt.feup.tvvs.soulknight.gui;
+
+/**
+ * The actions active during one tick, as a bit per {@link GUI.ACTION}. Reused from tick to tick.
+ * Also carries the {@link System#nanoTime()} of the oldest key press behind them, for latency measurements.
+ */
+public class ActionSet {
+    private static final GUI.ACTION[] ACTIONS = GUI.ACTION.values();
+    private static final int MOVEMENT = bit(GUI.ACTION.LEFT) | bit(GUI.ACTION.RIGHT);
+
+    private int mask;
+    private long inputNanos;
+
+    public static ActionSet of(GUI.ACTION... actions) {
+        ActionSet set = new ActionSet();
+        for (GUI.ACTION action : actions)
+            set.add(action);
+        return set;
+    }
+
+    private static int bit(GUI.ACTION action) {
+        return 1 << action.ordinal();
+    }
+
+    public void add(GUI.ACTION action) {
+        if (action != GUI.ACTION.NULL)
+            mask |= bit(action);
+    }
+
+    public void remove(GUI.ACTION action) {
+        mask &= ~bit(action);
+    }
+
+    public boolean contains(GUI.ACTION action) {
+        return (mask & bit(action)) != 0;
+    }
+
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    public void clear() {
+        mask = 0;
+        inputNanos = 0;
+    }
+
+    public void set(GUI.ACTION action) {
+        mask = 0;
+        add(action);
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    public void setMask(int mask) {
+        this.mask = mask & ((1 << ACTIONS.length) - 1) & ~bit(GUI.ACTION.NULL);
+    }
+
+    // 0 when no key was pressed since the last poll, or the actions did not come from the keyboard
+    public long getInputNanos() {
+        return inputNanos;
+    }
+
+    public void setInputNanos(long inputNanos) {
+        this.inputNanos = inputNanos;
+    }
+
+    // The single action for controllers that only react to one: one-shot keys win over held movement, as they always did
+    public GUI.ACTION primary() {
+        int oneShot = mask & ~MOVEMENT;
+        int chosen = oneShot != 0 ? oneShot : mask;
+        return chosen == 0 ? GUI.ACTION.NULL : ACTIONS[Integer.numberOfTrailingZeros(chosen)];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ActionSet && ((ActionSet) o).mask == mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return mask;
+    }
+
+    @Override
+    public String toString() {
+        if (mask == 0)
+            return "NULL";
+        StringBuilder builder = new StringBuilder();
+        for (GUI.ACTION action : ACTIONS) {
+            if (contains(action)) {
+                if (builder.length() > 0)
+                    builder.append('+');
+                builder.append(action);
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -6,6 +6,7 @@ import com.googlecode.lanterna.TextColor;
 
 public class BufferedImageGUI implements GUI {
     private final BufferedImage buffer;
+    private int fps;
 
     public BufferedImageGUI(BufferedImage buffer) {
         this.buffer = buffer;
@@ -57,7 +58,7 @@ public class BufferedImageGUI implements GUI {
 
     // Unused methods in this context
     @Override
-    public ACTION getACTION() {
+    public void pollActions(ActionSet actions) {
         throw new UnsupportedOperationException("Not supported for BufferedImageGUI");
     }
 
@@ -68,17 +69,22 @@ public class BufferedImageGUI implements GUI {
 
     @Override
     public int getFPS() {
-        throw new UnsupportedOperationException("Not supported for BufferedImageGUI");
+        return fps;
     }
 
     @Override
     public void setFPS(int fps) {
-        throw new UnsupportedOperationException("Not supported for BufferedImageGUI");
+        this.fps = fps;
     }
 
     @Override
     public void drawHitBox(int x, int y, int width, int height, TextColor.RGB color) {
-        throw new UnsupportedOperationException("Not implemented for BufferedImageGUI");
+        if (width <= 0 || height <= 0)
+            return;
+        java.awt.Graphics2D g = buffer.createGraphics();
+        g.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue()));
+        g.drawRect(x, y, width - 1, height - 1);
+        g.dispose();
     }
 
     @Override
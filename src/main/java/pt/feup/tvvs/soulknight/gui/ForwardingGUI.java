@@ -0,0 +1,108 @@
+package pt.feup.tvvs.soulknight.gui;
+
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
+import com.googlecode.lanterna.TextColor;
+
+import java.awt.*;
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+/**
+ * Passes every call on to another GUI, so subclasses only override what they change.
+ */
+public abstract class ForwardingGUI implements RescalableGUI {
+    private final RescalableGUI delegate;
+
+    protected ForwardingGUI(RescalableGUI delegate) {
+        this.delegate = delegate;
+    }
+
+    public RescalableGUI getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public int getWidth() {
+        return delegate.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return delegate.getHeight();
+    }
+
+    @Override
+    public void cls() {
+        delegate.cls();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    @Override
+    public void pollActions(ActionSet actions) throws IOException {
+        delegate.pollActions(actions);
+    }
+
+    @Override
+    public void drawPixel(int x, int y, TextColor.RGB color) {
+        delegate.drawPixel(x, y, color);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height, TextColor.RGB color) {
+        delegate.drawRectangle(x, y, width, height, color);
+    }
+
+    @Override
+    public void drawHitBox(int x, int y, int width, int height, TextColor.RGB color) {
+        delegate.drawHitBox(x, y, width, height, color);
+    }
+
+    @Override
+    public void drawText(int x, int y, TextColor.RGB color, String Text) {
+        delegate.drawText(x, y, color, Text);
+    }
+
+    @Override
+    public GUI getGUI() {
+        return delegate.getGUI();
+    }
+
+    @Override
+    public int getFPS() {
+        return delegate.getFPS();
+    }
+
+    @Override
+    public void setFPS(int fps) {
+        delegate.setFPS(fps);
+    }
+
+    @Override
+    public FrameProfiler getProfiler() {
+        return delegate.getProfiler();
+    }
+
+    @Override
+    public void setProfiler(FrameProfiler profiler) {
+        delegate.setProfiler(profiler);
+    }
+
+    @Override
+    public ResolutionScale getResolutionScale() {
+        return delegate.getResolutionScale();
+    }
+
+    @Override
+    public void setResolutionScale(ResolutionScale resolution) throws IOException, URISyntaxException, FontFormatException {
+        delegate.setResolutionScale(resolution);
+    }
+}
@@ -1,12 +1,13 @@
 package pt.feup.tvvs.soulknight.gui;
 
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
 import com.googlecode.lanterna.TextColor;
 
 import java.io.IOException;
 
 public interface GUI {
 
-    enum ACTION{UP, DOWN, RIGHT, LEFT, JUMP, DASH ,KILL, QUIT, SELECT, NULL};
+    enum ACTION{UP, DOWN, RIGHT, LEFT, JUMP, DASH ,KILL, QUIT, SELECT, PROFILER, TRACE, REWIND, NULL};
 
     int getWidth();
     int getHeight();
@@ -14,12 +15,22 @@ public interface GUI {
     void flush() throws IOException;
     void close() throws IOException;
 
-    ACTION getACTION() throws IOException;
+    // Replaces the contents of actions with everything the player did since the last poll
+    void pollActions(ActionSet actions) throws IOException;
     void drawPixel(int x, int y, TextColor.RGB color);
     void drawRectangle(int x, int y, int width, int height, TextColor.RGB color);
     void drawHitBox(int x, int y, int width, int height, TextColor.RGB color);
     GUI getGUI();
     int getFPS();
     void setFPS(int fps);
+
+    // GUIs that are not given a profiler share the disabled one
+    default FrameProfiler getProfiler() {
+        return FrameProfiler.DISABLED;
+    }
+
+    default void setProfiler(FrameProfiler profiler) {
+    }
+
     void drawText(int x, int y, TextColor.RGB color, String Text);
 }
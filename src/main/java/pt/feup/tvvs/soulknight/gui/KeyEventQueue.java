@@ -0,0 +1,60 @@
+package pt.feup.tvvs.soulknight.gui;
+
+import pt.feup.tvvs.soulknight.model.dataStructs.IntRing;
+
+/**
+ * Lock-free queue of timestamped key presses and releases with exactly one producer (the AWT event thread)
+ * and one consumer (the game thread), kept in an {@link IntRing} as three ints per event.
+ * When the queue is full new events are dropped and counted.
+ */
+public class KeyEventQueue {
+    public interface Listener {
+        void onKey(int keyCode, boolean pressed, long nanos);
+    }
+
+    private final IntRing events;
+
+    // Capacity is rounded up to a power of two
+    public KeyEventQueue(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        this.events = new IntRing(capacity, 3);
+    }
+
+    // Producer side
+    public boolean offer(int keyCode, boolean pressed, long nanos) {
+        int slot = events.claim();
+        if (slot < 0)
+            return false;
+        events.set(slot, keyCode << 1 | (pressed ? 1 : 0));
+        events.set(slot + 1, (int) (nanos >>> 32));
+        events.set(slot + 2, (int) nanos);
+        events.publish();
+        return true;
+    }
+
+    // Consumer side: hands every queued event to the listener in arrival order and returns how many there were
+    public int drain(Listener listener) {
+        int count = events.size();
+        for (int i = 0; i < count; i++) {
+            int slot = events.peek();
+            int key = events.get(slot);
+            long nanos = (long) events.get(slot + 1) << 32 | events.get(slot + 2) & 0xFFFFFFFFL;
+            events.remove(1);
+            listener.onKey(key >>> 1, (key & 1) != 0, nanos);
+        }
+        return count;
+    }
+
+    public int size() {
+        return events.size();
+    }
+
+    public int capacity() {
+        return events.capacity();
+    }
+
+    public long getDropped() {
+        return events.getDropped();
+    }
+}
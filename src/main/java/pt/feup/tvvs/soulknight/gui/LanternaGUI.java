@@ -1,5 +1,8 @@
 package pt.feup.tvvs.soulknight.gui;
 
+import pt.feup.tvvs.soulknight.metrics.FlushEvent;
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
+import pt.feup.tvvs.soulknight.metrics.InputLatency;
 import com.googlecode.lanterna.TextColor;
 import com.googlecode.lanterna.graphics.TextGraphics;
 import com.googlecode.lanterna.screen.Screen;
@@ -9,7 +12,7 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.io.IOException;
 import java.net.URISyntaxException;
-import java.util.List;
+import java.util.BitSet;
 
 import static java.awt.event.KeyEvent.*;
 
@@ -19,27 +22,35 @@ public class LanternaGUI implements RescalableGUI {
 
     String title;
 
-    // Track active keys
+    private static final int KEY_QUEUE_CAPACITY = 256;
+
+    // Key events travel from the AWT thread to the game thread through the queue; the game thread
+    // alone tracks which keys are held down
     private ResolutionScale resolutionScale;
-    private KeyEvent priorityKeyPressed;
+    private final KeyEventQueue keyEvents;
+    private final BitSet keysDown = new BitSet(256);
+    private final KeyEventQueue.Listener keyListener = this::onKey;
     private KeyAdapter keyAdapter;
-    private KeyEvent keyPressed;
-    private static final List<Integer> SPAM_KEYS = List.of(VK_LEFT, VK_RIGHT);
+    private ActionSet polledActions;
+    private long droppedKeyEvents;
 
     private int fps = 0;
+    private FrameProfiler profiler;
+    private long cellsWritten = 0;
 
     public LanternaGUI(ScreenGenerator screenGenerator, String title) throws IOException, URISyntaxException, FontFormatException {
         this.screenGenerator = screenGenerator;
         this.title = title;
-        this.priorityKeyPressed = null;
+        this.keyEvents = new KeyEventQueue(KEY_QUEUE_CAPACITY);
         this.keyAdapter = createKeyAdapter();
-        this.keyPressed = null;
         setResolutionScale(null);
     }
 
     private Screen createScreen(ResolutionScale resolutionScale) throws IOException, URISyntaxException, FontFormatException {
-        Screen screen = screenGenerator.createScreen(resolutionScale, title, getKeyAdapter());
+        return startScreen(screenGenerator.createScreen(resolutionScale, title, getKeyAdapter()));
+    }
 
+    private Screen startScreen(Screen screen) throws IOException {
         screen.setCursorPosition(null);
         screen.startScreen();
         screen.doResizeIfNecessary();
@@ -50,30 +61,51 @@ public class LanternaGUI implements RescalableGUI {
         return new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
-                if (SPAM_KEYS.contains(e.getKeyCode()))
-                    keyPressed = priorityKeyPressed = e;
-                else
-                    keyPressed = e;
+                keyEvents.offer(e.getKeyCode(), true, System.nanoTime());
             }
 
             @Override
             public void keyReleased(KeyEvent e) {
-                if (SPAM_KEYS.contains(e.getKeyCode()))
-                    keyPressed = priorityKeyPressed = null;
-                else
-                    keyPressed = priorityKeyPressed;
+                keyEvents.offer(e.getKeyCode(), false, System.nanoTime());
             }
         };
     }
 
+    // Every key pressed since the last poll counts, even if already released, and held arrows and rewind keep going
     @Override
-    public ACTION getACTION() throws IOException {
-        if (keyPressed == null)
-            return ACTION.NULL;
-        int keyCode = keyPressed.getKeyCode();
+    public void pollActions(ActionSet actions) {
+        actions.clear();
+        long dropped = keyEvents.getDropped();
+        if (dropped != droppedKeyEvents) {
+            // A release may have been lost, so stop trusting the held keys until they are pressed again
+            keysDown.clear();
+            droppedKeyEvents = dropped;
+        }
+
+        polledActions = actions;
+        keyEvents.drain(keyListener);
+        polledActions = null;
+
+        if (keysDown.get(VK_LEFT))
+            actions.add(ACTION.LEFT);
+        if (keysDown.get(VK_RIGHT))
+            actions.add(ACTION.RIGHT);
+        if (keysDown.get(VK_R))
+            actions.add(ACTION.REWIND);
+    }
+
+    private void onKey(int keyCode, boolean pressed, long nanos) {
+        if (keyCode < 0)
+            return;
+        keysDown.set(keyCode, pressed);
+        if (pressed) {
+            polledActions.add(toAction(keyCode));
+            if (polledActions.getInputNanos() == 0)
+                polledActions.setInputNanos(nanos);
+        }
+    }
 
-        keyPressed = priorityKeyPressed;
-        // Handle other keys
+    static ACTION toAction(int keyCode) {
         switch (keyCode) {
             case VK_LEFT:
                 return ACTION.LEFT;
@@ -93,6 +125,12 @@ public class LanternaGUI implements RescalableGUI {
                 return ACTION.SELECT;
             case VK_SPACE:
                 return ACTION.JUMP;
+            case VK_F3:
+                return ACTION.PROFILER;
+            case VK_F4:
+                return ACTION.TRACE;
+            case VK_R:
+                return ACTION.REWIND;
             default:
                 return ACTION.NULL;
         }
@@ -127,6 +165,16 @@ public class LanternaGUI implements RescalableGUI {
         this.fps = fps;
     }
 
+    @Override
+    public FrameProfiler getProfiler() {
+        return FrameProfiler.orDisabled(profiler);
+    }
+
+    @Override
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
     @Override
     public void cls() {
         screen.clear();
@@ -134,7 +182,20 @@ public class LanternaGUI implements RescalableGUI {
 
     @Override
     public void flush() throws IOException {
+        InputLatency latency = profiler != null ? profiler.getInputLatency() : null;
+        if (latency != null)
+            latency.mark(InputLatency.Stage.DRAWN);
+        FlushEvent event = new FlushEvent();
+        event.begin();
         screen.refresh();
+        event.end();
+        if (latency != null)
+            latency.mark(InputLatency.Stage.DISPLAYED);
+        if (event.shouldCommit()) {
+            event.cellsWritten = cellsWritten;
+            event.commit();
+        }
+        cellsWritten = 0;
     }
 
     @Override
@@ -153,6 +214,7 @@ public class LanternaGUI implements RescalableGUI {
         TextGraphics tg = screen.newTextGraphics();
         tg.setBackgroundColor(color);
         tg.putString(x, y, " ");
+        cellsWritten++;
     }
 
     @Override
@@ -164,6 +226,7 @@ public class LanternaGUI implements RescalableGUI {
                 tg.putString(x + dx, y + dy, " ");
             }
         }
+        cellsWritten += (long) Math.max(0, width) * Math.max(0, height);
     }
 
     @Override
@@ -182,6 +245,7 @@ public class LanternaGUI implements RescalableGUI {
             tg.putString(x, y + dy, " "); // Left edge
             tg.putString(x + width - 1, y + dy, " "); // Right edge
         }
+        cellsWritten += 2L * Math.max(0, width) + 2L * Math.max(0, height - 2);
     }
 
     @Override
@@ -189,13 +253,16 @@ public class LanternaGUI implements RescalableGUI {
         TextGraphics tg = screen.newTextGraphics();
         tg.setBackgroundColor(color);
         tg.putString(x, y, Text);
+        cellsWritten += Text.length();
     }
 
     @Override
     public void setResolutionScale(ResolutionScale resolutionScale) throws IOException, URISyntaxException, FontFormatException {
-        if (screen != null)
+        // The screen that was swapped out is left as it is, so it stays on show until the new one takes its place
+        Screen rescaled = screen == null ? null : screenGenerator.rescaleScreen(screen, resolutionScale, getKeyAdapter());
+        if (rescaled == null && screen != null)
             screen.close();
         this.resolutionScale = resolutionScale;
-        this.screen = createScreen(resolutionScale);
+        this.screen = rescaled != null ? startScreen(rescaled) : createScreen(resolutionScale);
     }
 }
@@ -3,51 +3,101 @@ package pt.feup.tvvs.soulknight.gui;
 import com.googlecode.lanterna.TerminalSize;
 import com.googlecode.lanterna.screen.Screen;
 import com.googlecode.lanterna.screen.TerminalScreen;
-import com.googlecode.lanterna.terminal.DefaultTerminalFactory;
+import com.googlecode.lanterna.terminal.swing.AWTTerminal;
 import com.googlecode.lanterna.terminal.swing.AWTTerminalFontConfiguration;
-import com.googlecode.lanterna.terminal.swing.AWTTerminalFrame;
+import com.googlecode.lanterna.terminal.swing.TerminalEmulatorColorConfiguration;
+import com.googlecode.lanterna.terminal.swing.TerminalEmulatorDeviceConfiguration;
 
 import java.awt.*;
 import java.awt.event.KeyListener;
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.URISyntaxException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 
+/**
+ * Shows the screen in a frame of its own. A terminal's font is fixed once it is made, so a new resolution gets a
+ * new terminal in the same frame, with the font derived for that size the first time it is needed.
+ */
 public class LanternaScreenGenerator implements ScreenGenerator {
-    private final DefaultTerminalFactory terminalFactory;
     private final TerminalSize terminalSize;
     private final Rectangle defaultBounds;
 
-    public LanternaScreenGenerator(DefaultTerminalFactory terminalFactory, TerminalSize terminalSize, Rectangle defaultBounds) {
-        this.terminalFactory = terminalFactory;
+    private Font pixelFont;
+    private final Map<Integer, AWTTerminalFontConfiguration> fonts = new HashMap<>();
+    private int fontLoads = 0;
+
+    private Frame frame;
+    private AWTTerminal terminal;
+
+    public LanternaScreenGenerator(TerminalSize terminalSize, Rectangle defaultBounds) {
         this.terminalSize = terminalSize;
         this.defaultBounds = defaultBounds;
-        terminalFactory.setForceAWTOverSwing(true);
-        terminalFactory.setInitialTerminalSize(terminalSize);
     }
 
     @Override
     public Screen createScreen(RescalableGUI.ResolutionScale resolutionScale, String title, KeyListener keyListener)
-            throws IOException, URISyntaxException, FontFormatException {
-        Rectangle terminalBounds = getTerminalBounds(resolutionScale);
-        int fontSize = getBestFontSize(terminalBounds);
-        AWTTerminalFontConfiguration fontConfig = loadFont(fontSize);
-        terminalFactory.setTerminalEmulatorFontConfiguration(fontConfig);
-        TerminalScreen screen = terminalFactory.createScreen();
-        AWTTerminalFrame terminal = (AWTTerminalFrame) screen.getTerminal();
-        terminal.getComponent(0).addKeyListener(keyListener);
-        terminal.setTitle(title);
-        return screen;
+            throws IOException, FontFormatException {
+        if (frame != null)
+            frame.dispose();
+        terminal = createTerminal(resolutionScale, keyListener);
+        frame = new Frame(title);
+        frame.setLayout(new BorderLayout());
+        frame.add(terminal, BorderLayout.CENTER);
+        frame.setBackground(Color.BLACK);
+        frame.pack();
+        frame.setVisible(true);
+        terminal.requestFocusInWindow();
+        return new FrameScreen(terminal);
+    }
+
+    // The frame is laid out again on the AWT thread, so the game keeps drawing to the new screen meanwhile
+    @Override
+    public Screen rescaleScreen(Screen screen, RescalableGUI.ResolutionScale resolutionScale, KeyListener keyListener)
+            throws IOException, FontFormatException {
+        if (frame == null || !(screen instanceof FrameScreen) || ((FrameScreen) screen).getTerminal() != terminal)
+            return null;
+        AWTTerminal previous = terminal;
+        AWTTerminal next = createTerminal(resolutionScale, keyListener);
+        Frame shown = frame;
+        terminal = next;
+        EventQueue.invokeLater(() -> {
+            shown.remove(previous);
+            shown.add(next, BorderLayout.CENTER);
+            shown.pack();
+            next.requestFocusInWindow();
+        });
+        return new FrameScreen(next);
+    }
+
+    private AWTTerminal createTerminal(RescalableGUI.ResolutionScale resolutionScale, KeyListener keyListener)
+            throws IOException, FontFormatException {
+        int fontSize = getBestFontSize(getTerminalBounds(resolutionScale));
+        AWTTerminal terminal = new AWTTerminal(terminalSize, TerminalEmulatorDeviceConfiguration.getDefault(),
+                getFontConfiguration(fontSize), TerminalEmulatorColorConfiguration.getDefault());
+        terminal.addKeyListener(keyListener);
+        return terminal;
+    }
+
+    // fonts/pixel.ttf is read once; each size is derived from it once
+    public synchronized AWTTerminalFontConfiguration getFontConfiguration(int fontSize) throws IOException, FontFormatException {
+        AWTTerminalFontConfiguration fontConfig = fonts.get(fontSize);
+        if (fontConfig == null) {
+            if (pixelFont == null) {
+                try (InputStream resource = getClass().getClassLoader().getResourceAsStream("fonts/pixel.ttf")) {
+                    pixelFont = Font.createFont(Font.TRUETYPE_FONT, Objects.requireNonNull(resource));
+                }
+                fontLoads++;
+            }
+            fontConfig = AWTTerminalFontConfiguration.newInstance(pixelFont.deriveFont(Font.PLAIN, fontSize));
+            fonts.put(fontSize, fontConfig);
+        }
+        return fontConfig;
     }
 
-    private AWTTerminalFontConfiguration loadFont(int fontSize) throws URISyntaxException, IOException, FontFormatException {
-        //URL resource = getClass().getClassLoader().getResource("fonts/pixel.ttf");
-        InputStream resource = getClass().getClassLoader().getResourceAsStream("fonts/pixel.ttf");
-        //File fontFile = new File(Objects.requireNonNull(resource).toURI());
-        //Font font = Font.createFont(Font.TRUETYPE_FONT, fontFile).deriveFont(Font.PLAIN, fontSize);
-        Font font = Font.createFont(Font.TRUETYPE_FONT, Objects.requireNonNull(resource)).deriveFont(Font.PLAIN, fontSize);
-        return AWTTerminalFontConfiguration.newInstance(font);
+    public synchronized int getFontLoads() {
+        return fontLoads;
     }
 
     private int getBestFontSize(Rectangle terminalBounds) {
@@ -71,4 +121,20 @@ public class LanternaScreenGenerator implements ScreenGenerator {
     public int getHeight() {
         return terminalSize.getRows();
     }
+
+    // Closing the screen that is showing closes the frame; closing one that was swapped out leaves it open
+    private class FrameScreen extends TerminalScreen {
+        FrameScreen(AWTTerminal terminal) throws IOException {
+            super(terminal);
+        }
+
+        @Override
+        public synchronized void stopScreen(boolean flushInput) throws IOException {
+            super.stopScreen(flushInput);
+            if (frame != null && getTerminal() == terminal) {
+                frame.dispose();
+                frame = null;
+            }
+        }
+    }
 }
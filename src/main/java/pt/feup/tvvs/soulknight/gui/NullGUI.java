@@ -0,0 +1,98 @@
+package pt.feup.tvvs.soulknight.gui;
+
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
+import com.googlecode.lanterna.TextColor;
+
+/**
+ * GUI that draws nothing and never reports input, for running the game without a display.
+ */
+public class NullGUI implements RescalableGUI {
+    private ResolutionScale resolutionScale;
+    private FrameProfiler profiler;
+    private int fps;
+
+    @Override
+    public int getWidth() {
+        return 0;
+    }
+
+    @Override
+    public int getHeight() {
+        return 0;
+    }
+
+    @Override
+    public void cls() {
+        // Nothing to clear
+    }
+
+    @Override
+    public void flush() {
+        // Nothing to show
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    @Override
+    public void pollActions(ActionSet actions) {
+        actions.clear();
+    }
+
+    @Override
+    public void drawPixel(int x, int y, TextColor.RGB color) {
+        // Nothing is drawn
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int width, int height, TextColor.RGB color) {
+        // Nothing is drawn
+    }
+
+    @Override
+    public void drawHitBox(int x, int y, int width, int height, TextColor.RGB color) {
+        // Nothing is drawn
+    }
+
+    @Override
+    public void drawText(int x, int y, TextColor.RGB color, String Text) {
+        // Nothing is drawn
+    }
+
+    @Override
+    public GUI getGUI() {
+        return this;
+    }
+
+    @Override
+    public int getFPS() {
+        return fps;
+    }
+
+    @Override
+    public void setFPS(int fps) {
+        this.fps = fps;
+    }
+
+    @Override
+    public FrameProfiler getProfiler() {
+        return FrameProfiler.orDisabled(profiler);
+    }
+
+    @Override
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public ResolutionScale getResolutionScale() {
+        return resolutionScale;
+    }
+
+    @Override
+    public void setResolutionScale(ResolutionScale resolutionScale) {
+        this.resolutionScale = resolutionScale;
+    }
+}
@@ -0,0 +1,39 @@
+package pt.feup.tvvs.soulknight.gui;
+
+import pt.feup.tvvs.soulknight.simulation.InputRecording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Records every action read from the wrapped GUI, one per tick, and writes the recording when the GUI is closed.
+ */
+public class RecordingGUI extends ForwardingGUI {
+    private final InputRecording.Recorder recorder;
+    private final Path file;
+
+    public RecordingGUI(RescalableGUI delegate, long seed, Path file) {
+        super(delegate);
+        this.recorder = new InputRecording.Recorder(seed);
+        this.file = file;
+    }
+
+    @Override
+    public void pollActions(ActionSet actions) throws IOException {
+        super.pollActions(actions);
+        recorder.record(actions);
+    }
+
+    public InputRecording getRecording() {
+        return recorder.finish();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            getRecording().write(file);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package pt.feup.tvvs.soulknight.gui;
+
+import pt.feup.tvvs.soulknight.simulation.InputRecording;
+
+import java.io.IOException;
+
+/**
+ * Plays a recorded session back instead of reading the keyboard, while still drawing to the wrapped GUI.
+ * Once the recording runs out, input comes from the wrapped GUI again.
+ */
+public class ReplayGUI extends ForwardingGUI {
+    private final InputRecording recording;
+    private long tick;
+
+    public ReplayGUI(RescalableGUI delegate, InputRecording recording) {
+        super(delegate);
+        this.recording = recording;
+    }
+
+    @Override
+    public void pollActions(ActionSet actions) throws IOException {
+        if (isFinished())
+            super.pollActions(actions);
+        else
+            recording.next(tick++, actions);
+    }
+
+    public boolean isFinished() {
+        return tick >= recording.getTicks();
+    }
+}
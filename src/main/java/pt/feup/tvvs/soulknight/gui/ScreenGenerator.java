@@ -11,6 +11,12 @@ public interface ScreenGenerator {
     Screen createScreen(RescalableGUI.ResolutionScale resolutionScale, String title, KeyListener keyListener)
             throws IOException, URISyntaxException, FontFormatException;
 
+    // The screen at another resolution without opening a new window, or null when it has to be created again
+    default Screen rescaleScreen(Screen screen, RescalableGUI.ResolutionScale resolutionScale, KeyListener keyListener)
+            throws IOException, URISyntaxException, FontFormatException {
+        return null;
+    }
+
     int getWidth();
     int getHeight();
 }
@@ -0,0 +1,28 @@
+package pt.feup.tvvs.soulknight.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("pt.feup.tvvs.soulknight.Controller")
+@Label("Controller")
+@Category({"Soul Knight", "Game Loop"})
+@Description("Input polling or a controller update, committed when the phase ends")
+@StackTrace(false)
+public class ControllerEvent extends jdk.jfr.Event {
+    @Label("Phase")
+    public String phase;
+
+    @Label("Tick")
+    public long tick;
+
+    @Label("Scene ID")
+    public int sceneId;
+
+    @Label("Phase Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long phaseDuration;
+}
@@ -0,0 +1,18 @@
+package pt.feup.tvvs.soulknight.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("pt.feup.tvvs.soulknight.Flush")
+@Label("Flush")
+@Category({"Soul Knight", "Game Loop"})
+@Description("Refresh of the terminal screen")
+@StackTrace(false)
+public class FlushEvent extends jdk.jfr.Event {
+    @Label("Cells Written")
+    @Description("Terminal cells written since the previous flush")
+    public long cellsWritten;
+}
@@ -0,0 +1,212 @@
+package pt.feup.tvvs.soulknight.metrics;
+
+/**
+ * Times each phase of the game loop with {@link System#nanoTime()}. A phase may be entered several
+ * times in one frame (e.g. the particle layer is drawn once per particle list); its durations are
+ * summed and pushed into the phase histogram when the frame ends.
+ * <p>
+ * When a flight recording is running, every controller and viewer phase also commits a
+ * {@link ControllerEvent} or {@link ViewerLayerEvent}; otherwise the events cost next to nothing.
+ * Every phase is also handed to the {@link TraceRecorder}, if one is attached and capturing.
+ */
+public class FrameProfiler {
+    public enum Stage {CONTROLLER, VIEWER, OTHER}
+
+    public enum Phase {
+        INPUT("input", "GUI.pollActions", Stage.CONTROLLER),
+        SCENE("c.scene", "SceneController.move", Stage.CONTROLLER),
+        PLAYER("c.plyr", "PlayerController.move", Stage.CONTROLLER),
+        PARTICLES("c.part", "ParticleController.move", Stage.CONTROLLER),
+        ENEMIES("c.enmy", "EnemieController.move", Stage.CONTROLLER),
+        BACKGROUND("v.bg", "GameViewer.dynamicGradientBackground", Stage.VIEWER),
+        PARTICLE_LAYER("v.part", "drawElements particles", Stage.VIEWER),
+        SPIKE_LAYER("v.spik", "drawElements spikes", Stage.VIEWER),
+        TILE_LAYER("v.tile", "drawElements tiles", Stage.VIEWER),
+        TREE_LAYER("v.tree", "drawElements trees", Stage.VIEWER),
+        ORB_LAYER("v.orb", "drawElements orbs", Stage.VIEWER),
+        ROCK_LAYER("v.rock", "drawElements rocks", Stage.VIEWER),
+        KNIGHT_LAYER("v.kngt", "drawElement knight", Stage.VIEWER),
+        MONSTER_LAYER("v.mons", "drawElements monsters", Stage.VIEWER),
+        STATS_LAYER("v.stat", "PlayerStatsViewer.drawPlayerStats", Stage.VIEWER),
+        FLUSH("flush", "GUI.flush", Stage.OTHER),
+        FRAME("frame", "State.move", Stage.OTHER);
+
+        private final String label;
+        private final String traceName;
+        private final Stage stage;
+
+        Phase(String label, String traceName, Stage stage) {
+            this.label = label;
+            this.traceName = traceName;
+            this.stage = stage;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public String getTraceName() {
+            return traceName;
+        }
+
+        public Stage getStage() {
+            return stage;
+        }
+    }
+
+    public static final int DEFAULT_WINDOW = 120;
+
+    private static final Phase[] PHASES = Phase.values();
+
+    // For GUIs and tests without a profiler of their own: times nothing and records nothing
+    public static final FrameProfiler DISABLED = new FrameProfiler(0, 1, false);
+
+    private final RollingHistogram[] histograms = new RollingHistogram[PHASES.length];
+    private final long[] current = new long[PHASES.length];
+    private final boolean[] entered = new boolean[PHASES.length];
+    private long frameBudgetNanos;
+    private boolean overlayVisible;
+    private long tick;
+    private int sceneId = -1;
+    private TraceRecorder traceRecorder;
+    private final InputLatency inputLatency;
+    private final boolean enabled;
+
+    public FrameProfiler(long frameBudgetNanos) {
+        this(frameBudgetNanos, DEFAULT_WINDOW);
+    }
+
+    public FrameProfiler(long frameBudgetNanos, int window) {
+        this(frameBudgetNanos, window, true);
+    }
+
+    private FrameProfiler(long frameBudgetNanos, int window, boolean enabled) {
+        this.frameBudgetNanos = frameBudgetNanos;
+        for (int i = 0; i < histograms.length; i++)
+            histograms[i] = new RollingHistogram(window);
+        this.inputLatency = enabled ? new InputLatency(window) : InputLatency.DISABLED;
+        this.enabled = enabled;
+    }
+
+    public static FrameProfiler orDisabled(FrameProfiler profiler) {
+        return profiler != null ? profiler : DISABLED;
+    }
+
+    /**
+     * Sets the tick and scene ID attached to the flight recorder events of the coming frame.
+     */
+    public void beginFrame(long tick, int sceneId) {
+        if (!enabled)
+            return;
+        this.tick = tick;
+        this.sceneId = sceneId;
+    }
+
+    public long begin() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Adds the time since {@code start} to {@code phase} and returns the current time, so consecutive
+     * phases can be chained without reading the clock twice.
+     */
+    public long end(Phase phase, long start) {
+        if (!enabled)
+            return 0;
+        long now = System.nanoTime();
+        record(phase, now - start);
+        commitEvent(phase, now - start);
+        if (traceRecorder != null)
+            traceRecorder.record(phase, tick, start, now);
+        return now;
+    }
+
+    public void record(Phase phase, long nanos) {
+        if (!enabled)
+            return;
+        current[phase.ordinal()] += nanos;
+        entered[phase.ordinal()] = true;
+    }
+
+    private void commitEvent(Phase phase, long nanos) {
+        if (phase.getStage() == Stage.CONTROLLER) {
+            ControllerEvent event = new ControllerEvent();
+            if (event.isEnabled()) {
+                event.phase = phase.name();
+                event.tick = tick;
+                event.sceneId = sceneId;
+                event.phaseDuration = nanos;
+                event.commit();
+            }
+        } else if (phase.getStage() == Stage.VIEWER) {
+            ViewerLayerEvent event = new ViewerLayerEvent();
+            if (event.isEnabled()) {
+                event.layer = phase.name();
+                event.tick = tick;
+                event.sceneId = sceneId;
+                event.layerDuration = nanos;
+                event.commit();
+            }
+        }
+    }
+
+    public void endFrame() {
+        if (!enabled)
+            return;
+        if (traceRecorder != null)
+            traceRecorder.endFrame();
+        for (int i = 0; i < PHASES.length; i++) {
+            if (entered[i])
+                histograms[i].record(current[i]);
+            current[i] = 0;
+            entered[i] = false;
+        }
+    }
+
+    public TraceRecorder getTraceRecorder() {
+        return traceRecorder;
+    }
+
+    public void setTraceRecorder(TraceRecorder traceRecorder) {
+        if (!enabled)
+            throw new IllegalStateException("The disabled profiler is shared");
+        this.traceRecorder = traceRecorder;
+    }
+
+    public boolean captureTrace() {
+        return traceRecorder != null && traceRecorder.capture();
+    }
+
+    public InputLatency getInputLatency() {
+        return inputLatency;
+    }
+
+    public RollingHistogram getHistogram(Phase phase) {
+        return histograms[phase.ordinal()];
+    }
+
+    public long getFrameBudgetNanos() {
+        return frameBudgetNanos;
+    }
+
+    public void setFrameBudgetNanos(long frameBudgetNanos) {
+        if (!enabled)
+            return;
+        this.frameBudgetNanos = frameBudgetNanos;
+    }
+
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    public void toggleOverlay() {
+        if (enabled)
+            overlayVisible = !overlayVisible;
+    }
+
+    public void reset() {
+        for (RollingHistogram histogram : histograms)
+            histogram.reset();
+        inputLatency.reset();
+    }
+}
@@ -0,0 +1,248 @@
+package pt.feup.tvvs.soulknight.metrics;
+
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.view.sprites.GameSpriteLoader;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Live game metrics for JConsole/VisualVM. Everything is gathered on the game loop thread, once per
+ * second in {@link #sample}, and published through volatile fields; JMX threads only read them.
+ * {@link #resetCounters()} and {@link #setTargetTickRate(int)} are picked up by the game loop.
+ */
+public class GameMetrics implements GameMetricsMBean {
+    public static final String OBJECT_NAME = "pt.feup.tvvs.soulknight:type=GameMetrics";
+    public static final int MAX_TICK_RATE = 240;
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final RollingHistogram fpsHistory = new RollingHistogram(10);
+
+    private volatile int targetTickRate;
+    private volatile boolean resetRequested;
+
+    private volatile int currentFps;
+    private volatile long rollingFps;
+    private volatile long tickMeanNanos;
+    private volatile long tickP50Nanos;
+    private volatile long tickP99Nanos;
+    private volatile long inputLatencyP50Nanos;
+    private volatile long inputLatencyP99Nanos;
+    private volatile long tickMaxNanos;
+
+    private volatile int rainParticles;
+    private volatile int doubleJumpParticles;
+    private volatile int jumpParticles;
+    private volatile int respawnParticles;
+    private volatile int dashParticles;
+    private volatile int enemies;
+
+    private volatile int spriteCacheSize;
+    private volatile long spriteCacheBytes;
+
+    private volatile long levelLoads;
+    private volatile long lastLevelLoadNanos;
+    private volatile long maxLevelLoadNanos;
+
+    private volatile long deaths;
+    private volatile long timeToFirstFrameNanos = -1;
+    private Knight lastKnight;
+    private int lastKnightDeaths;
+
+    public GameMetrics(int targetTickRate) {
+        setTargetTickRate(targetTickRate);
+    }
+
+    public ObjectName register(MBeanServer server) throws JMException {
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        server.registerMBean(this, name);
+        return name;
+    }
+
+    public void sample(int fps, Scene scene, FrameProfiler profiler, GameSpriteLoader spriteLoader) {
+        if (resetRequested) {
+            resetRequested = false;
+            fpsHistory.reset();
+            profiler.reset();
+            levelLoads = 0;
+            lastLevelLoadNanos = 0;
+            maxLevelLoadNanos = 0;
+            deaths = 0;
+        }
+
+        currentFps = fps;
+        fpsHistory.record(fps);
+        rollingFps = fpsHistory.getMean();
+
+        RollingHistogram ticks = profiler.getHistogram(FrameProfiler.Phase.FRAME);
+        tickMeanNanos = ticks.getMean();
+        tickP50Nanos = ticks.getPercentile(0.50);
+        tickP99Nanos = ticks.getPercentile(0.99);
+        tickMaxNanos = ticks.getMax();
+
+        RollingHistogram latency = profiler.getInputLatency().getHistogram(InputLatency.Stage.DISPLAYED);
+        inputLatencyP50Nanos = latency.getPercentile(0.50);
+        inputLatencyP99Nanos = latency.getPercentile(0.99);
+
+        if (scene != null) {
+            rainParticles = scene.getParticles().size();
+            doubleJumpParticles = scene.getDoubleJumpParticles().size();
+            jumpParticles = scene.getJumpParticles().size();
+            respawnParticles = scene.getRespawnParticles().size();
+            dashParticles = scene.getDashParticles().size();
+            enemies = scene.getMonsters().size();
+            countDeaths(scene.getPlayer());
+        } else {
+            rainParticles = doubleJumpParticles = jumpParticles = respawnParticles = dashParticles = enemies = 0;
+        }
+
+        spriteCacheSize = spriteLoader.getCacheSize();
+        spriteCacheBytes = spriteLoader.getCacheBytes();
+    }
+
+    // Knights keep their own death count for the credits, so only the increase since the last sample is added
+    private void countDeaths(Knight knight) {
+        int knightDeaths = knight.getNumberOfDeaths();
+        if (knight == lastKnight)
+            deaths += knightDeaths - lastKnightDeaths;
+        else
+            deaths += knightDeaths;
+        lastKnight = knight;
+        lastKnightDeaths = knightDeaths;
+    }
+
+    public void recordLevelLoad(long nanos) {
+        levelLoads++;
+        lastLevelLoadNanos = nanos;
+        maxLevelLoadNanos = Math.max(maxLevelLoadNanos, nanos);
+    }
+
+    public void recordTimeToFirstFrame(long nanos) {
+        timeToFirstFrameNanos = nanos;
+    }
+
+    @Override
+    public int getCurrentFps() {
+        return currentFps;
+    }
+
+    @Override
+    public long getRollingFps() {
+        return rollingFps;
+    }
+
+    @Override
+    public double getTickMeanMillis() {
+        return tickMeanNanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getTickP50Millis() {
+        return tickP50Nanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getTickP99Millis() {
+        return tickP99Nanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getTickMaxMillis() {
+        return tickMaxNanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getInputLatencyP50Millis() {
+        return inputLatencyP50Nanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getInputLatencyP99Millis() {
+        return inputLatencyP99Nanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public int getRainParticles() {
+        return rainParticles;
+    }
+
+    @Override
+    public int getDoubleJumpParticles() {
+        return doubleJumpParticles;
+    }
+
+    @Override
+    public int getJumpParticles() {
+        return jumpParticles;
+    }
+
+    @Override
+    public int getRespawnParticles() {
+        return respawnParticles;
+    }
+
+    @Override
+    public int getDashParticles() {
+        return dashParticles;
+    }
+
+    @Override
+    public int getEnemies() {
+        return enemies;
+    }
+
+    @Override
+    public int getSpriteCacheSize() {
+        return spriteCacheSize;
+    }
+
+    @Override
+    public long getSpriteCacheBytes() {
+        return spriteCacheBytes;
+    }
+
+    @Override
+    public long getLevelLoads() {
+        return levelLoads;
+    }
+
+    @Override
+    public double getLastLevelLoadMillis() {
+        return lastLevelLoadNanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxLevelLoadMillis() {
+        return maxLevelLoadNanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getDeaths() {
+        return deaths;
+    }
+
+    @Override
+    public double getTimeToFirstFrameMillis() {
+        return timeToFirstFrameNanos < 0 ? -1 : timeToFirstFrameNanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public int getTargetTickRate() {
+        return targetTickRate;
+    }
+
+    @Override
+    public void setTargetTickRate(int ticksPerSecond) {
+        if (ticksPerSecond < 1 || ticksPerSecond > MAX_TICK_RATE)
+            throw new IllegalArgumentException("Tick rate must be between 1 and " + MAX_TICK_RATE + ": " + ticksPerSecond);
+        this.targetTickRate = ticksPerSecond;
+    }
+
+    @Override
+    public void resetCounters() {
+        resetRequested = true;
+    }
+}
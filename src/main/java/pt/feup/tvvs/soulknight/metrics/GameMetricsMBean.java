@@ -0,0 +1,39 @@
+package pt.feup.tvvs.soulknight.metrics;
+
+public interface GameMetricsMBean {
+    int getCurrentFps();
+    long getRollingFps();
+
+    double getTickMeanMillis();
+    double getTickP50Millis();
+    double getTickP99Millis();
+    double getTickMaxMillis();
+
+    // Key press to the end of the screen refresh that shows it
+    double getInputLatencyP50Millis();
+    double getInputLatencyP99Millis();
+
+    int getRainParticles();
+    int getDoubleJumpParticles();
+    int getJumpParticles();
+    int getRespawnParticles();
+    int getDashParticles();
+    int getEnemies();
+
+    int getSpriteCacheSize();
+    long getSpriteCacheBytes();
+
+    long getLevelLoads();
+    double getLastLevelLoadMillis();
+    double getMaxLevelLoadMillis();
+
+    long getDeaths();
+
+    // From the JVM starting to the first frame drawn, -1 until then
+    double getTimeToFirstFrameMillis();
+
+    int getTargetTickRate();
+    void setTargetTickRate(int ticksPerSecond);
+
+    void resetCounters();
+}
@@ -0,0 +1,86 @@
+package pt.feup.tvvs.soulknight.metrics;
+
+import java.util.Locale;
+
+/**
+ * Time from a key event reaching the AWT listener to each step of the tick that handles it.
+ * Only ticks that drained a new key press take a sample, measured from the oldest press of that tick.
+ * Everything here runs on the game thread.
+ */
+public class InputLatency {
+    public enum Stage {
+        POLLED("poll"),
+        APPLIED("player"),
+        DRAWN("draw"),
+        DISPLAYED("refresh");
+
+        private final String label;
+
+        Stage(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    // Used by the disabled profiler; never takes a sample
+    static final InputLatency DISABLED = new InputLatency(1, false);
+
+    private final RollingHistogram[] histograms = new RollingHistogram[STAGES.length];
+    private boolean pending;
+    private long eventNanos;
+    private final boolean enabled;
+
+    public InputLatency(int window) {
+        this(window, true);
+    }
+
+    private InputLatency(int window, boolean enabled) {
+        for (int i = 0; i < histograms.length; i++)
+            histograms[i] = new RollingHistogram(window);
+        this.enabled = enabled;
+    }
+
+    // Called once the input of a tick is polled; eventNanos is 0 when no key was pressed since the last tick
+    public void beginTick(long eventNanos) {
+        if (!enabled)
+            return;
+        this.pending = eventNanos != 0;
+        this.eventNanos = eventNanos;
+        mark(Stage.POLLED);
+    }
+
+    public void mark(Stage stage) {
+        if (pending)
+            histograms[stage.ordinal()].record(System.nanoTime() - eventNanos);
+    }
+
+    public void endTick() {
+        pending = false;
+    }
+
+    public RollingHistogram getHistogram(Stage stage) {
+        return histograms[stage.ordinal()];
+    }
+
+    public void reset() {
+        for (RollingHistogram histogram : histograms)
+            histogram.reset();
+    }
+
+    // "input latency ms (p50/p99): poll 0.1/0.3, player 0.2/0.4, ..."
+    public String summary() {
+        StringBuilder builder = new StringBuilder("input latency ms (p50/p99):");
+        for (Stage stage : STAGES) {
+            RollingHistogram histogram = getHistogram(stage);
+            builder.append(stage == STAGES[0] ? " " : ", ").append(stage.getLabel()).append(' ')
+                    .append(String.format(Locale.ROOT, "%.1f/%.1f",
+                            histogram.getPercentile(0.50) / 1e6, histogram.getPercentile(0.99) / 1e6));
+        }
+        return builder.toString();
+    }
+}
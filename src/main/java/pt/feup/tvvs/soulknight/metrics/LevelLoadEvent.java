@@ -0,0 +1,27 @@
+package pt.feup.tvvs.soulknight.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+@Name("pt.feup.tvvs.soulknight.LevelLoad")
+@Label("Level Load")
+@Category({"Soul Knight", "Scene"})
+@Description("Building a scene from a level file")
+public class LevelLoadEvent extends jdk.jfr.Event {
+    @Label("Scene ID")
+    public int sceneId;
+
+    @Label("Read Duration")
+    @Description("Time spent reading the level file before the scene was built")
+    @Timespan(Timespan.NANOSECONDS)
+    public long readDuration;
+
+    @Label("Lines")
+    public int lines;
+
+    @Label("Enemies")
+    public int enemies;
+}
@@ -0,0 +1,73 @@
+package pt.feup.tvvs.soulknight.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the last {@code capacity} samples in a ring buffer. Nothing is allocated after construction.
+ * The window is sorted at most once per new sample, however many percentiles are read in between.
+ */
+public class RollingHistogram {
+    private final long[] samples;
+    private final long[] sorted;
+    private int count;
+    private int next;
+    private boolean sortedValid;
+
+    public RollingHistogram(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        this.samples = new long[capacity];
+        this.sorted = new long[capacity];
+    }
+
+    public void record(long value) {
+        samples[next] = value;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) count++;
+        sortedValid = false;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getMin() {
+        if (count == 0) return 0;
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < count; i++)
+            min = Math.min(min, samples[i]);
+        return min;
+    }
+
+    public long getMax() {
+        long max = 0;
+        for (int i = 0; i < count; i++)
+            max = Math.max(max, samples[i]);
+        return max;
+    }
+
+    public long getMean() {
+        if (count == 0) return 0;
+        long total = 0;
+        for (int i = 0; i < count; i++)
+            total += samples[i];
+        return total / count;
+    }
+
+    public long getPercentile(double percentile) {
+        if (count == 0) return 0;
+        if (!sortedValid) {
+            System.arraycopy(samples, 0, sorted, 0, count);
+            Arrays.sort(sorted, 0, count);
+            sortedValid = true;
+        }
+        int index = (int) Math.ceil(percentile * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    public void reset() {
+        count = 0;
+        next = 0;
+        sortedValid = false;
+    }
+}
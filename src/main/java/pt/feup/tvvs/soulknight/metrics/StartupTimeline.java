@@ -0,0 +1,154 @@
+package pt.feup.tvvs.soulknight.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * When each part of startup ran, and on which thread, measured from the moment the JVM started.
+ * Phases may be recorded from any thread; the first frame closes the timeline.
+ */
+public class StartupTimeline {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final int BAR_WIDTH = 40;
+
+    private final long originNanos;
+    private final Queue<Phase> phases = new ConcurrentLinkedQueue<>();
+    private volatile long firstFrameNanos = -1;
+
+    public StartupTimeline() {
+        this(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(ManagementFactory.getRuntimeMXBean().getUptime()));
+    }
+
+    // originNanos is a System.nanoTime() reading
+    public StartupTimeline(long originNanos) {
+        this.originNanos = originNanos;
+    }
+
+    public long getOriginNanos() {
+        return originNanos;
+    }
+
+    public <T> T time(String name, Callable<T> task) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return task.call();
+        } finally {
+            record(name, start);
+        }
+    }
+
+    // A phase that started at startNanos and ends now
+    public void record(String name, long startNanos) {
+        record(name, startNanos, System.nanoTime());
+    }
+
+    public void record(String name, long startNanos, long endNanos) {
+        phases.add(new Phase(name, Thread.currentThread().getName(), startNanos - originNanos, endNanos - originNanos));
+    }
+
+    // Only the first call counts
+    public boolean markFirstFrame() {
+        return markFirstFrame(System.nanoTime());
+    }
+
+    public synchronized boolean markFirstFrame(long nanos) {
+        if (firstFrameNanos >= 0)
+            return false;
+        firstFrameNanos = nanos - originNanos;
+        return true;
+    }
+
+    // -1 until the first frame
+    public long getTimeToFirstFrameNanos() {
+        return firstFrameNanos;
+    }
+
+    public List<Phase> getPhases() {
+        List<Phase> sorted = new ArrayList<>(phases);
+        sorted.sort(Comparator.comparingLong(Phase::getStartNanos));
+        return sorted;
+    }
+
+    public String report() {
+        List<Phase> sorted = getPhases();
+        long end = Math.max(firstFrameNanos, 1);
+        int nameWidth = 5;
+        for (Phase phase : sorted) {
+            end = Math.max(end, phase.getEndNanos());
+            nameWidth = Math.max(nameWidth, phase.getName().length());
+        }
+
+        StringBuilder report = new StringBuilder("Startup timeline, ms since the JVM started:\n");
+        String format = "  %-" + nameWidth + "s %8.1f %8.1f %8.1f  %-" + BAR_WIDTH + "s  %s%n";
+        for (Phase phase : sorted) {
+            report.append(String.format(Locale.ROOT, format, phase.getName(), millis(phase.getStartNanos()),
+                    millis(phase.getEndNanos()), millis(phase.getDurationNanos()),
+                    bar(phase.getStartNanos(), phase.getEndNanos(), end), phase.getThread()));
+        }
+        if (firstFrameNanos >= 0)
+            report.append(String.format(Locale.ROOT, "Time to first frame: %.1f ms%n", millis(firstFrameNanos)));
+        return report.toString();
+    }
+
+    public void write(Path file) throws IOException {
+        Files.write(file, report().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String bar(long start, long end, long total) {
+        int from = (int) Math.min(BAR_WIDTH - 1, Math.max(0, start) * BAR_WIDTH / total);
+        int to = (int) Math.max(from + 1, Math.min(BAR_WIDTH, end * BAR_WIDTH / total));
+        StringBuilder bar = new StringBuilder(BAR_WIDTH);
+        for (int i = 0; i < BAR_WIDTH; i++)
+            bar.append(i >= from && i < to ? '#' : '.');
+        return bar.toString();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    public static class Phase {
+        private final String name;
+        private final String thread;
+        private final long startNanos;
+        private final long endNanos;
+
+        Phase(String name, String thread, long startNanos, long endNanos) {
+            this.name = name;
+            this.thread = thread;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getThread() {
+            return thread;
+        }
+
+        public long getStartNanos() {
+            return startNanos;
+        }
+
+        public long getEndNanos() {
+            return endNanos;
+        }
+
+        public long getDurationNanos() {
+            return endNanos - startNanos;
+        }
+    }
+}
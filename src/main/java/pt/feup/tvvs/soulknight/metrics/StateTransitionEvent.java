@@ -0,0 +1,24 @@
+package pt.feup.tvvs.soulknight.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("pt.feup.tvvs.soulknight.StateTransition")
+@Label("State Transition")
+@Category({"Soul Knight", "Game Loop"})
+public class StateTransitionEvent extends jdk.jfr.Event {
+    @Label("Tick")
+    public long tick;
+
+    @Label("From")
+    public String from;
+
+    @Label("To")
+    public String to;
+
+    @Label("Scene ID")
+    @Description("Level being entered, or -1 outside of a level")
+    public int sceneId;
+}
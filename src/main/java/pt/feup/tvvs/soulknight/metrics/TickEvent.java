@@ -0,0 +1,30 @@
+package pt.feup.tvvs.soulknight.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("pt.feup.tvvs.soulknight.Tick")
+@Label("Tick")
+@Category({"Soul Knight", "Game Loop"})
+@Description("One iteration of the game loop: input, controllers and drawing")
+@StackTrace(false)
+public class TickEvent extends jdk.jfr.Event {
+    @Label("Tick")
+    public long tick;
+
+    @Label("State")
+    public String state;
+
+    @Label("Scene ID")
+    @Description("Level being played, or -1 outside of a level")
+    public int sceneId;
+
+    @Label("Particles")
+    public int particles;
+
+    @Label("Enemies")
+    public int enemies;
+}
@@ -0,0 +1,133 @@
+package pt.feup.tvvs.soulknight.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Captures the profiler phases of the next N frames and writes them as Chrome trace-event JSON
+ * (open in chrome://tracing or ui.perfetto.dev). Spans go into arrays allocated up front, so capturing
+ * does not allocate on the game thread; the JSON is written by a background thread once the capture ends.
+ * Spans are complete ("X") events on a single thread, so nesting follows from their timestamps.
+ */
+public class TraceRecorder {
+    public static final int MAX_SPANS_PER_FRAME = 32;
+
+    private static final Logger LOGGER = Logger.getLogger(TraceRecorder.class.getName());
+    private static final FrameProfiler.Phase[] PHASES = FrameProfiler.Phase.values();
+
+    private enum Status {IDLE, CAPTURING, WRITING}
+
+    private final int frames;
+    private final Path directory;
+    private final ExecutorService writer;
+
+    private final int[] phases;
+    private final long[] ticks;
+    private final long[] starts;
+    private final long[] ends;
+    private int count;
+    private int framesLeft;
+    private long origin;
+
+    private volatile Status status = Status.IDLE;
+    private volatile Path lastTrace;
+
+    public TraceRecorder(int frames, Path directory) {
+        if (frames <= 0)
+            throw new IllegalArgumentException("Frame count must be positive: " + frames);
+        this.frames = frames;
+        this.directory = directory;
+        int capacity = frames * MAX_SPANS_PER_FRAME;
+        this.phases = new int[capacity];
+        this.ticks = new long[capacity];
+        this.starts = new long[capacity];
+        this.ends = new long[capacity];
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trace-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts capturing from the next span. Ignored while a capture is running or still being written.
+     */
+    public boolean capture() {
+        if (status != Status.IDLE)
+            return false;
+        count = 0;
+        framesLeft = frames;
+        origin = System.nanoTime();
+        status = Status.CAPTURING;
+        return true;
+    }
+
+    public boolean isCapturing() {
+        return status == Status.CAPTURING;
+    }
+
+    public boolean isIdle() {
+        return status == Status.IDLE;
+    }
+
+    public Path getLastTrace() {
+        return lastTrace;
+    }
+
+    void record(FrameProfiler.Phase phase, long tick, long start, long end) {
+        if (status != Status.CAPTURING)
+            return;
+        // Once full, the oldest spans are overwritten
+        int index = count % phases.length;
+        phases[index] = phase.ordinal();
+        ticks[index] = tick;
+        starts[index] = start;
+        ends[index] = end;
+        count++;
+    }
+
+    void endFrame() {
+        if (status != Status.CAPTURING || --framesLeft > 0)
+            return;
+        status = Status.WRITING;
+        writer.execute(this::write);
+    }
+
+    private void write() {
+        Path file = directory.resolve("soulknight-trace-" + System.currentTimeMillis() + ".json");
+        try (BufferedWriter out = Files.newBufferedWriter(file, UTF_8)) {
+            out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[\n");
+            out.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":1,\"args\":{\"name\":\"game loop\"}}");
+            int first = Math.max(0, count - phases.length);
+            for (int i = first; i < count; i++) {
+                int index = i % phases.length;
+                out.write(String.format(Locale.ROOT,
+                        ",\n{\"name\":\"%s\",\"cat\":\"%s\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":%.3f,\"dur\":%.3f,\"args\":{\"tick\":%d}}",
+                        PHASES[phases[index]].getTraceName(), PHASES[phases[index]].getStage().name().toLowerCase(Locale.ROOT),
+                        (starts[index] - origin) / 1000.0, (ends[index] - starts[index]) / 1000.0, ticks[index]));
+            }
+            out.write("\n]}\n");
+            lastTrace = file;
+            LOGGER.log(Level.INFO, "Wrote frame trace to {0}", file.toAbsolutePath());
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Failed to write frame trace: {0}", e.getMessage());
+        } finally {
+            status = Status.IDLE;
+        }
+    }
+
+    public void close() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
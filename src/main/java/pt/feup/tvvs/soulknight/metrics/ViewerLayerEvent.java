@@ -0,0 +1,28 @@
+package pt.feup.tvvs.soulknight.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("pt.feup.tvvs.soulknight.ViewerLayer")
+@Label("Viewer Layer")
+@Category({"Soul Knight", "Game Loop"})
+@Description("Drawing of one game viewer layer, committed when the layer ends")
+@StackTrace(false)
+public class ViewerLayerEvent extends jdk.jfr.Event {
+    @Label("Layer")
+    public String layer;
+
+    @Label("Tick")
+    public long tick;
+
+    @Label("Scene ID")
+    public int sceneId;
+
+    @Label("Layer Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long layerDuration;
+}
@@ -0,0 +1,86 @@
+package pt.feup.tvvs.soulknight.model.dataStructs;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed ring of entries of {@code width} ints with exactly one producer thread and one consumer thread, no locks
+ * and no allocation. Each side only writes its own index and publishes it with an ordered write after touching
+ * the slots, so the other side never sees a half-written entry. An entry that finds the ring full is dropped
+ * and counted rather than waiting.
+ */
+public final class IntRing {
+    private final int[] slots;
+    private final int width;
+    private final int mask;
+
+    private final AtomicLong head = new AtomicLong();   // next to read, written by the consumer
+    private final AtomicLong tail = new AtomicLong();   // next to write, written by the producer
+    private final AtomicLong dropped = new AtomicLong();
+
+    // Capacity is in entries, rounded up to a power of two
+    public IntRing(int capacity, int width) {
+        if (capacity <= 0 || width <= 0)
+            throw new IllegalArgumentException("Capacity and width must be positive: " + capacity + ", " + width);
+        int size = Math.max(1, Integer.highestOneBit(capacity - 1) << 1);
+        this.slots = new int[size * width];
+        this.width = width;
+        this.mask = size - 1;
+    }
+
+    // Producer side: index of the first slot of the next entry, or -1 when the ring is full
+    public int claim() {
+        long t = tail.get();
+        if (t - head.get() == capacity()) {
+            dropped.incrementAndGet();
+            return -1;
+        }
+        return (int) (t & mask) * width;
+    }
+
+    public void set(int slot, int value) {
+        slots[slot] = value;
+    }
+
+    // Producer side: hands the claimed entry over to the consumer
+    public void publish() {
+        tail.lazySet(tail.get() + 1);
+    }
+
+    public boolean offer(int value) {
+        int slot = claim();
+        if (slot < 0)
+            return false;
+        slots[slot] = value;
+        publish();
+        return true;
+    }
+
+    // Consumer side: index of the first slot of the oldest entry, or -1 when the ring is empty
+    public int peek() {
+        long h = head.get();
+        if (h == tail.get())
+            return -1;
+        return (int) (h & mask) * width;
+    }
+
+    public int get(int slot) {
+        return slots[slot];
+    }
+
+    // Consumer side: lets the producer reuse the oldest entries
+    public void remove(int entries) {
+        head.lazySet(head.get() + entries);
+    }
+
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -6,7 +6,7 @@ import pt.feup.tvvs.soulknight.model.game.scene.Scene;
 
 import static java.lang.Math.max;
 
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class GhostMonster extends Enemies {
 
@@ -22,7 +22,7 @@ public class GhostMonster extends Enemies {
     public GhostMonster(int x, int y, int HP, Scene scene, int damage, Position size, char symbol) {
         super(x, y, HP, scene, damage, size);
         this.symbol = symbol;
-        Random random = new Random();
+        SplittableRandom random = scene.getEnemyRandom();
 
         // Randomize amplitude (height of sine wave) and frequency
         this.amplitude = 1.5 + random.nextDouble(); // 1.5 to 2.5
@@ -46,6 +46,8 @@ public class GhostMonster extends Enemies {
     public void setAmplitude(int amplitude) {this.amplitude = amplitude;}
     public void setFrequency(double freq) {this.frequency = freq;}
     public void setHorizontalSpeed(int hspeed) {this.horizontalSpeed = hspeed;}
+    public double getElapsedTime() {return elapsedTime;}
+    public void setElapsedTime(double elapsedTime) {this.elapsedTime = elapsedTime;}
 
 
 
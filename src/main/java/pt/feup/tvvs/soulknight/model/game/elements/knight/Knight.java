@@ -10,7 +10,7 @@ import com.googlecode.lanterna.TextColor;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class Knight extends Element {
 
@@ -34,6 +34,7 @@ public class Knight extends Element {
     private boolean gotHit;
     private int deaths;
     private long birthTime;
+    private final SplittableRandom fallbackRandom = new SplittableRandom();
 
 
     //General Knight's attributes
@@ -213,9 +214,15 @@ public class Knight extends Element {
 
     ////////////Create Knight Particles ///////////////////////////////////////////////
 
+    // Particles draw from the scene's stream so seeded runs replay exactly; a knight outside a scene uses its own
+    private SplittableRandom particleRandom(Scene scene) {
+        SplittableRandom random = scene != null ? scene.getParticleRandom() : null;
+        return random != null ? random : fallbackRandom;
+    }
+
     public List<Particle> createParticlesDoubleJump(int size, Scene scene) {
         List<Particle> particles = new ArrayList<>();
-        Random random = new Random();
+        SplittableRandom random = particleRandom(scene);
 
         for (int i = 0; i < size; i++) {
             double angle;
@@ -251,7 +258,7 @@ public class Knight extends Element {
 
     public List<Particle> createParticlesJump(int size) {
         List<Particle> particles = new ArrayList<>();
-        Random random = new Random();
+        SplittableRandom random = particleRandom(scene);
 
         double coneAngle = Math.toRadians(90); // Total cone spread (45 degrees)
         double baseSpeed = -jumpBoost / 2.0;     // Base speed magnitude
@@ -283,7 +290,7 @@ public class Knight extends Element {
 
     public List<Particle> createRespawnParticles(int size) {
         List<Particle> particles = new ArrayList<>();
-        Random random = new Random();
+        SplittableRandom random = particleRandom(scene);
 
         for (int i = 0; i < size; i++) {
             double angle;
@@ -309,7 +316,7 @@ public class Knight extends Element {
 
     public List<Particle> createDashParticles(int size){
         List<Particle> particles = new ArrayList<>();
-        Random random = new Random();
+        SplittableRandom random = particleRandom(scene);
 
         double coneAngle = Math.toRadians(90); // Total cone spread (45 degrees)
         double baseSpeed = -jumpBoost / 2.0;     // Base speed magnitude
@@ -4,6 +4,7 @@ package pt.feup.tvvs.soulknight.model.game.elements.knight;
 import pt.feup.tvvs.soulknight.model.dataStructs.Vector;
 import pt.feup.tvvs.soulknight.model.game.scene.Scene;
 import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneSnapshot;
 
 import java.io.IOException;
 
@@ -41,12 +42,22 @@ public class RespawnState extends KnightState {
         Scene scene = getKnight().getScene();
 
         if (deathTimer <= 0) {
-            SceneLoader sceneLoader = new SceneLoader(scene.getSceneID());
+            SceneSnapshot checkpoint = scene.getCheckpoint();
             getKnight().increaseDeaths();
-            sceneLoader.setOrbs(scene);
-            getKnight().setOrbs(scene.getSceneID()*3);
+            if (checkpoint != null) {
+                // Back to the last checkpoint in place, orbs taken since then go back into the level
+                checkpoint.restoreOrbs(scene);
+                checkpoint.restoreKnight(getKnight());
+                getKnight().setVelocity(new Vector(0, 0));
+            } else {
+                // No snapshot to go back to, so the orbs come from the level again
+                SceneLoader sceneLoader = scene.getTemplate() != null
+                        ? new SceneLoader(scene.getTemplate()) : new SceneLoader(scene.getSceneID());
+                sceneLoader.setOrbs(scene);
+                getKnight().setOrbs(scene.getSceneID()*3);
+                getKnight().setPosition(scene.getStartPosition());
+            }
             getKnight().setHP(50);
-            getKnight().setPosition(scene.getStartPosition());
             getKnight().setGotHit(false);           //if player dies to damage then he resets the boolean to receive damage
             return new FallingState(getKnight());
         }
@@ -4,8 +4,8 @@ import pt.feup.tvvs.soulknight.model.dataStructs.Vector;
 
 public class RunningState extends KnightState{
 
-    public static double MIN_VELOCITY = 1.75;
-    public static double MAX_VELOCITY = 2.0;
+    public static final double MIN_VELOCITY = 1.75;
+    public static final double MAX_VELOCITY = 2.0;
 
     public RunningState(Knight knight){
         super(knight);
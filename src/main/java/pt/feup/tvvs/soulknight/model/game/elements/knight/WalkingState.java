@@ -3,7 +3,7 @@ package pt.feup.tvvs.soulknight.model.game.elements.knight;
 import pt.feup.tvvs.soulknight.model.dataStructs.Vector;
 
 public class WalkingState extends KnightState{
-    public static double MIN_VELOCITY = 0.75;
+    public static final double MIN_VELOCITY = 0.75;
 
     public WalkingState(Knight knight) {
         super(knight);
@@ -27,7 +27,7 @@ public class RainParticle extends Particle {
         }
 
         // Handle wind simulation
-        int windEffect = (int) (Math.random() * 3) - 1; // Wind effect range: -1 to 1
+        int windEffect = scene.getWeatherRandom().nextInt(3) - 1; // Wind effect range: -1 to 1
         int new_x = (int) getPosition().x() + 2 + windEffect;  // Adds wind effect to horizontal movement
         int new_y = (int) getPosition().y() + 2;  // Vertical movement remains constant
 
@@ -0,0 +1,169 @@
+package pt.feup.tvvs.soulknight.model.game.scene;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Compiled form of a level file ({@code .lvlb}), written at build time by {@link LevelCompiler} and read
+ * back without looking at the level characters one by one. The text file stays the source of truth: the header
+ * keeps a hash of the text it was compiled from, so one that is older than its text is not used.
+ * <p>
+ * Layout, big-endian: magic {@code SKLV}, version byte, source hash int, width, line count, start x/y and exit x/y as shorts
+ * (-1 when missing); a palette of (layer, character) byte pairs; the tile grid, one palette index + 1 per cell
+ * (0 for empty) for the solid, spike, tree, rock and checkpoint layers; then the orb and monster spawn tables, each a short
+ * count followed by x, y shorts and a character byte per entry.
+ */
+public final class LevelBinary {
+    public static final String EXTENSION = ".lvlb";
+
+    private static final int MAGIC = 0x534B4C56;
+    private static final int VERSION = 2;
+    private static final LevelTemplate.Layer[] LAYERS = LevelTemplate.Layer.values();
+    private static final LevelTemplate.Layer[] GRID_LAYERS = {
+            LevelTemplate.Layer.SOLID, LevelTemplate.Layer.SPIKE, LevelTemplate.Layer.TREE, LevelTemplate.Layer.ROCK,
+            LevelTemplate.Layer.CHECKPOINT};
+
+    private LevelBinary() {
+    }
+
+    // CRC-32 of the level file's bytes
+    public static int hash(byte[] source) {
+        CRC32 crc = new CRC32();
+        crc.update(source);
+        return (int) crc.getValue();
+    }
+
+    public static void write(LevelTemplate template, OutputStream out) throws IOException {
+        write(template, 0, out);
+    }
+
+    public static void write(LevelTemplate template, int sourceHash, OutputStream out) throws IOException {
+        int width = template.getWidth(), height = template.getLineCount();
+        byte[] grid = new byte[width * height];
+        byte[] palette = new byte[2 * 255];
+        int colors = 0;
+        for (LevelTemplate.Layer layer : GRID_LAYERS) {
+            LevelTemplate.Cells cells = template.get(layer);
+            for (int i = 0; i < cells.size(); i++) {
+                int color = indexOf(palette, colors, layer, cells.getType(i));
+                if (color == colors) {
+                    if (colors == 255)
+                        throw new IOException("Level " + template.getId() + " has too many tile kinds");
+                    palette[2 * colors] = (byte) layer.ordinal();
+                    palette[2 * colors + 1] = checkedChar(cells.getType(i));
+                    colors++;
+                }
+                grid[cells.getY(i) * width + cells.getX(i)] = (byte) (color + 1);
+            }
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeInt(sourceHash);
+        data.writeShort(width);
+        data.writeShort(height);
+        data.writeShort(template.getStartX());
+        data.writeShort(template.getStartY());
+        data.writeShort(template.getEndX());
+        data.writeShort(template.getEndY());
+        data.writeByte(colors);
+        data.write(palette, 0, 2 * colors);
+        data.write(grid);
+        writeSpawns(data, template.get(LevelTemplate.Layer.ORB));
+        writeSpawns(data, template.get(LevelTemplate.Layer.MONSTER));
+        data.flush();
+    }
+
+    private static int indexOf(byte[] palette, int colors, LevelTemplate.Layer layer, char type) {
+        for (int color = 0; color < colors; color++)
+            if (palette[2 * color] == layer.ordinal() && palette[2 * color + 1] == (byte) type)
+                return color;
+        return colors;
+    }
+
+    private static byte checkedChar(char c) throws IOException {
+        if (c > 0xFF)
+            throw new IOException("Level character out of range: " + c);
+        return (byte) c;
+    }
+
+    private static void writeSpawns(DataOutputStream data, LevelTemplate.Cells cells) throws IOException {
+        data.writeShort(cells.size());
+        for (int i = 0; i < cells.size(); i++) {
+            data.writeShort(cells.getX(i));
+            data.writeShort(cells.getY(i));
+            data.writeByte(checkedChar(cells.getType(i)));
+        }
+    }
+
+    // Whether the compiled level was made from the text with this hash, in this version of the format;
+    // leaves the buffer where it was
+    public static boolean isCompiledFrom(ByteBuffer buffer, int sourceHash) {
+        ByteBuffer header = buffer.duplicate();
+        return header.remaining() >= 9 && header.getInt() == MAGIC && (header.get() & 0xFF) == VERSION
+                && header.getInt() == sourceHash;
+    }
+
+    public static LevelTemplate read(int id, ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC)
+                throw new IOException("Not a compiled level");
+            int version = buffer.get() & 0xFF;
+            if (version != VERSION)
+                throw new IOException("Unsupported compiled level version " + version);
+            buffer.getInt();   // source hash
+
+            int width = buffer.getShort(), height = buffer.getShort();
+            LevelTemplate.Builder builder = new LevelTemplate.Builder(id).setSize(width, height);
+            builder.setStart(buffer.getShort(), buffer.getShort());
+            builder.setEnd(buffer.getShort(), buffer.getShort());
+
+            int colors = buffer.get() & 0xFF;
+            LevelTemplate.Layer[] layers = new LevelTemplate.Layer[colors];
+            char[] types = new char[colors];
+            for (int color = 0; color < colors; color++) {
+                layers[color] = LAYERS[buffer.get()];
+                types[color] = (char) (buffer.get() & 0xFF);
+            }
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int color = buffer.get() & 0xFF;
+                    if (color != 0)
+                        builder.addCell(layers[color - 1], x, y, types[color - 1]);
+                }
+            }
+            readSpawns(buffer, builder, LevelTemplate.Layer.ORB);
+            readSpawns(buffer, builder, LevelTemplate.Layer.MONSTER);
+            return builder.build();
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Corrupt compiled level " + id, e);
+        }
+    }
+
+    private static void readSpawns(ByteBuffer buffer, LevelTemplate.Builder builder, LevelTemplate.Layer layer) {
+        int count = buffer.getShort();
+        for (int i = 0; i < count; i++)
+            builder.addCell(layer, buffer.getShort(), buffer.getShort(), (char) (buffer.get() & 0xFF));
+    }
+
+    // Maps the file instead of copying it onto the heap
+    public static LevelTemplate map(int id, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(id, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // For compiled levels inside a jar, which cannot be mapped
+    public static LevelTemplate read(int id, InputStream in) throws IOException {
+        return read(id, ByteBuffer.wrap(in.readAllBytes()));
+    }
+}
@@ -0,0 +1,59 @@
+package pt.feup.tvvs.soulknight.model.game.scene;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Build step that compiles every {@code .lvl} file of a directory into a {@link LevelBinary} next to it
+ * in the output directory. Run by Maven after the classes are compiled:
+ * {@code LevelCompiler <level dir> <output dir>}.
+ */
+public class LevelCompiler {
+
+    public static int compileAll(Path source, Path target) throws IOException {
+        Files.createDirectories(target);
+        int compiled = 0;
+        try (DirectoryStream<Path> levels = Files.newDirectoryStream(source, "*.lvl")) {
+            for (Path level : levels) {
+                String name = level.getFileName().toString();
+                compile(level, target.resolve(name.substring(0, name.length() - ".lvl".length()) + LevelBinary.EXTENSION));
+                compiled++;
+            }
+        }
+        return compiled;
+    }
+
+    public static void compile(Path level, Path output) throws IOException {
+        byte[] source = Files.readAllBytes(level);
+        LevelTemplate template;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(source), UTF_8))) {
+            template = LevelTemplate.parse(idOf(level), reader);
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output))) {
+            LevelBinary.write(template, LevelBinary.hash(source), out);
+        }
+    }
+
+    // "level3.lvl" is level 3; test levels without a number get -1
+    private static int idOf(Path level) {
+        String digits = level.getFileName().toString().replaceAll("\\D", "");
+        return digits.isEmpty() ? -1 : Integer.parseInt(digits);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path source = Paths.get(args.length > 0 ? args[0] : "src/main/resources/levels");
+        Path target = Paths.get(args.length > 1 ? args[1] : "target/classes/levels");
+        int compiled = compileAll(source, target);
+        System.out.println("Compiled " + compiled + " levels into " + target);
+    }
+}
@@ -0,0 +1,151 @@
+package pt.feup.tvvs.soulknight.model.game.scene;
+
+import pt.feup.tvvs.soulknight.model.dataStructs.Position;
+import pt.feup.tvvs.soulknight.model.game.elements.Spike;
+import pt.feup.tvvs.soulknight.model.game.elements.Tree;
+import pt.feup.tvvs.soulknight.model.game.elements.collectables.OrbFactory;
+import pt.feup.tvvs.soulknight.model.game.elements.enemies.Enemies;
+import pt.feup.tvvs.soulknight.model.game.elements.enemies.MonsterFactory;
+import pt.feup.tvvs.soulknight.model.game.elements.rocks.Rock;
+import pt.feup.tvvs.soulknight.model.game.elements.tile.Tile;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The cells that differ between two versions of a level file, with the new level they came from.
+ * Applied to a running scene it rebuilds only those cells: tiles, spikes, trees, rocks and orbs, plus the
+ * start, exit and monster spawns. The knight is left where it is.
+ */
+public final class LevelPatch {
+    private final LevelTemplate template;
+    private final short[] xs;
+    private final short[] ys;
+    private final char[] chars;
+
+    private LevelPatch(LevelTemplate template, short[] xs, short[] ys, char[] chars) {
+        this.template = template;
+        this.xs = xs;
+        this.ys = ys;
+        this.chars = chars;
+    }
+
+    // Unchanged lines are skipped whole; a cell past the end of its line reads as a space
+    public static LevelPatch diff(int id, List<String> before, List<String> after) {
+        int lines = Math.max(before.size(), after.size());
+        short[] xs = new short[16], ys = new short[16];
+        char[] chars = new char[16];
+        int size = 0;
+        for (int y = 0; y < lines; y++) {
+            String old = y < before.size() ? before.get(y) : "";
+            String line = y < after.size() ? after.get(y) : "";
+            if (old.equals(line))
+                continue;
+            for (int x = 0, width = Math.max(old.length(), line.length()); x < width; x++) {
+                char c = x < line.length() ? line.charAt(x) : ' ';
+                if (c == (x < old.length() ? old.charAt(x) : ' '))
+                    continue;
+                if (size == chars.length) {
+                    xs = Arrays.copyOf(xs, size * 2);
+                    ys = Arrays.copyOf(ys, size * 2);
+                    chars = Arrays.copyOf(chars, size * 2);
+                }
+                xs[size] = (short) x;
+                ys[size] = (short) y;
+                chars[size++] = c;
+            }
+        }
+        return new LevelPatch(LevelTemplate.parse(id, after),
+                Arrays.copyOf(xs, size), Arrays.copyOf(ys, size), Arrays.copyOf(chars, size));
+    }
+
+    public LevelTemplate getTemplate() {
+        return template;
+    }
+
+    public int size() {
+        return chars.length;
+    }
+
+    public boolean isEmpty() {
+        return chars.length == 0;
+    }
+
+    public void apply(Scene scene) {
+        for (int i = 0; i < chars.length; i++) {
+            int x = xs[i], y = ys[i];
+            if (x >= scene.getWidth() || y >= scene.getHeight())
+                continue;
+            clear(scene, x, y);
+            place(scene, x, y, chars[i]);
+        }
+        if (changed(scene, LevelTemplate.Layer.MONSTER))
+            respawnMonsters(scene);
+        boolean orbsChanged = changed(scene, LevelTemplate.Layer.ORB);
+
+        int tile = Tile.SIZE;
+        if (template.hasStart())
+            scene.setStartPosition(new Position(template.getStartX() * tile, template.getStartY() * tile - 2));
+        if (template.hasEnd())
+            scene.setEndPosition(new Position(template.getEndX() * tile, template.getEndY() * tile));
+        scene.setTemplate(template);
+        // Orbs are kept by their index in the level, so the checkpoint takes the orbs as they are now
+        if (orbsChanged && scene.getCheckpoint() != null)
+            scene.getCheckpoint().updateOrbs(scene);
+        scene.increaseRevision();
+    }
+
+    private static void clear(Scene scene, int x, int y) {
+        scene.getMap()[y][x] = null;
+        scene.getTiles()[y][x] = null;
+        scene.getSpikes()[y][x] = null;
+        scene.getTrees()[y][x] = null;
+        scene.getRocks()[y][x] = null;
+        scene.getOrbs()[y][x] = null;
+    }
+
+    // Same sorting as LevelTemplate.Builder, for a single cell
+    private static void place(Scene scene, int x, int y, char c) {
+        int px = x * Tile.SIZE, py = y * Tile.SIZE;
+        if (SceneLoader.isSolid(c)) {
+            Tile tile = new Tile(px, py, c);
+            scene.getMap()[y][x] = tile;
+            scene.getTiles()[y][x] = tile;
+        }
+        if (SceneLoader.isSpike(c))
+            scene.getSpikes()[y][x] = new Spike(px, py, c);
+        else if (c == 't' || c == 'T')
+            scene.getTrees()[y][x] = new Tree(px, py, c);
+        else if (c == 'R' || c == 'r')
+            scene.getRocks()[y][x] = new Rock(px, py, c);
+        else if (c == OrbFactory.ENERGY_ORB || c == OrbFactory.SPEED_ORB || c == OrbFactory.HEALTH_ORB)
+            scene.getOrbs()[y][x] = OrbFactory.createOrb(c, px, py);
+    }
+
+    private boolean changed(Scene scene, LevelTemplate.Layer layer) {
+        return scene.getTemplate() == null || !template.get(layer).equals(scene.getTemplate().get(layer));
+    }
+
+    // Monsters whose spawn did not change keep moving as they were; the rest start over at their spawn
+    private void respawnMonsters(Scene scene) {
+        LevelTemplate.Cells spawns = template.get(LevelTemplate.Layer.MONSTER);
+        LevelTemplate.Cells oldSpawns = scene.getTemplate() == null ? null
+                : scene.getTemplate().get(LevelTemplate.Layer.MONSTER);
+        List<Enemies> old = scene.getMonsters();
+        boolean matched = oldSpawns != null && oldSpawns.size() == old.size();
+
+        List<Enemies> monsters = new ArrayList<>(spawns.size());
+        for (int i = 0; i < spawns.size(); i++) {
+            int x = spawns.getX(i), y = spawns.getY(i);
+            char type = spawns.getType(i);
+            Enemies monster = null;
+            for (int j = 0; matched && monster == null && j < oldSpawns.size(); j++)
+                if (oldSpawns.getX(j) == x && oldSpawns.getY(j) == y && oldSpawns.getType(j) == type)
+                    monster = old.get(j);
+            monsters.add(monster != null ? monster
+                    : MonsterFactory.createMonster(x * Tile.SIZE, y * Tile.SIZE, scene, type));
+        }
+        scene.setMonsters(monsters);
+    }
+}
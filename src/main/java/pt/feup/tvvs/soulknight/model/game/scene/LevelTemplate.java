@@ -0,0 +1,262 @@
+package pt.feup.tvvs.soulknight.model.game.scene;
+
+import pt.feup.tvvs.soulknight.model.game.elements.collectables.OrbFactory;
+import pt.feup.tvvs.soulknight.model.game.elements.enemies.MonsterFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A level file sorted into layers, read once and shared by every scene built from it. Holds tile
+ * coordinates and level characters only; {@link SceneLoader} creates the game objects for each scene.
+ */
+public final class LevelTemplate {
+    public enum Layer { SOLID, SPIKE, TREE, ROCK, ORB, MONSTER, CHECKPOINT }
+
+    // Checkpoint cells are not drawn; they only mark where Scene.reachCheckpoint takes a snapshot
+    public static final char CHECKPOINT = 'c';
+
+    private static final Layer[] LAYERS = Layer.values();
+
+    private final int id;
+    private final int width;
+    private final int lineCount;
+    private final int startX, startY;
+    private final int endX, endY;
+    private final Cells[] layers;
+
+    private LevelTemplate(Builder builder) {
+        this.id = builder.id;
+        this.width = builder.width;
+        this.lineCount = builder.lineCount;
+        this.startX = builder.startX;
+        this.startY = builder.startY;
+        this.endX = builder.endX;
+        this.endY = builder.endY;
+        this.layers = new Cells[LAYERS.length];
+        for (Layer layer : LAYERS)
+            layers[layer.ordinal()] = builder.layers[layer.ordinal()].build();
+    }
+
+    public static LevelTemplate parse(int id, BufferedReader reader) throws IOException {
+        Builder builder = new Builder(id);
+        for (String line; (line = reader.readLine()) != null; )
+            builder.addLine(line);
+        return builder.build();
+    }
+
+    public static LevelTemplate parse(int id, List<String> lines) {
+        Builder builder = new Builder(id);
+        for (String line : lines)
+            builder.addLine(line);
+        return builder.build();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    // Length of the longest line
+    public int getWidth() {
+        return width;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public boolean hasStart() {
+        return startX >= 0;
+    }
+
+    // Tile coordinates of 'P', -1 when there is none
+    public int getStartX() {
+        return startX;
+    }
+
+    public int getStartY() {
+        return startY;
+    }
+
+    public boolean hasEnd() {
+        return endX >= 0;
+    }
+
+    // Tile coordinates of 'u', -1 when there is none
+    public int getEndX() {
+        return endX;
+    }
+
+    public int getEndY() {
+        return endY;
+    }
+
+    // Cells of a layer, in reading order
+    public Cells get(Layer layer) {
+        return layers[layer.ordinal()];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LevelTemplate)) return false;
+        LevelTemplate that = (LevelTemplate) o;
+        return id == that.id && width == that.width && lineCount == that.lineCount
+                && startX == that.startX && startY == that.startY && endX == that.endX && endY == that.endY
+                && Arrays.equals(layers, that.layers);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * id + lineCount) + Arrays.hashCode(layers);
+    }
+
+    /**
+     * Tile positions and level characters of one layer.
+     */
+    public static final class Cells {
+        private final short[] xs;
+        private final short[] ys;
+        private final char[] types;
+
+        Cells(short[] xs, short[] ys, char[] types) {
+            this.xs = xs;
+            this.ys = ys;
+            this.types = types;
+        }
+
+        public int size() {
+            return types.length;
+        }
+
+        public int getX(int i) {
+            return xs[i];
+        }
+
+        public int getY(int i) {
+            return ys[i];
+        }
+
+        public char getType(int i) {
+            return types[i];
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Cells)) return false;
+            Cells that = (Cells) o;
+            return Arrays.equals(xs, that.xs) && Arrays.equals(ys, that.ys) && Arrays.equals(types, that.types);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(xs) + Arrays.hashCode(types);
+        }
+    }
+
+    private static final class CellsBuilder {
+        private short[] xs = new short[16];
+        private short[] ys = new short[16];
+        private char[] types = new char[16];
+        private int size;
+
+        void add(int x, int y, char type) {
+            if (size == types.length) {
+                xs = Arrays.copyOf(xs, size * 2);
+                ys = Arrays.copyOf(ys, size * 2);
+                types = Arrays.copyOf(types, size * 2);
+            }
+            xs[size] = (short) x;
+            ys[size] = (short) y;
+            types[size] = type;
+            size++;
+        }
+
+        Cells build() {
+            return new Cells(Arrays.copyOf(xs, size), Arrays.copyOf(ys, size), Arrays.copyOf(types, size));
+        }
+    }
+
+    /**
+     * Sorts every character into its layer as the lines come in, so a level is read in a single pass.
+     */
+    public static final class Builder {
+        private final int id;
+        private final CellsBuilder[] layers = new CellsBuilder[LAYERS.length];
+        private int width;
+        private int lineCount;
+        private int startX = -1, startY = -1;
+        private int endX = -1, endY = -1;
+
+        public Builder(int id) {
+            this.id = id;
+            for (int i = 0; i < layers.length; i++)
+                layers[i] = new CellsBuilder();
+        }
+
+        // For levels that come already sorted into layers; cells of a layer must be added in reading order
+        public Builder addCell(Layer layer, int x, int y, char type) {
+            layers[layer.ordinal()].add(x, y, type);
+            return this;
+        }
+
+        public Builder setSize(int width, int lineCount) {
+            this.width = width;
+            this.lineCount = lineCount;
+            return this;
+        }
+
+        public Builder setStart(int x, int y) {
+            this.startX = x;
+            this.startY = y;
+            return this;
+        }
+
+        public Builder setEnd(int x, int y) {
+            this.endX = x;
+            this.endY = y;
+            return this;
+        }
+
+        public Builder addLine(String line) {
+            int y = lineCount++;
+            width = Math.max(width, line.length());
+            for (int x = 0; x < line.length(); x++)
+                add(x, y, line.charAt(x));
+            return this;
+        }
+
+        private void add(int x, int y, char c) {
+            if (SceneLoader.isSolid(c))
+                layers[Layer.SOLID.ordinal()].add(x, y, c);
+            else if (c == 'u') {
+                endX = x;
+                endY = y;
+            }
+            if (SceneLoader.isSpike(c))
+                layers[Layer.SPIKE.ordinal()].add(x, y, c);
+            else if (c == 't' || c == 'T')
+                layers[Layer.TREE.ordinal()].add(x, y, c);
+            else if (c == 'R' || c == 'r')
+                layers[Layer.ROCK.ordinal()].add(x, y, c);
+            else if (c == OrbFactory.ENERGY_ORB || c == OrbFactory.SPEED_ORB || c == OrbFactory.HEALTH_ORB)
+                layers[Layer.ORB.ordinal()].add(x, y, c);
+            else if (c == MonsterFactory.SWORD_MONSTER || c == MonsterFactory.GHOST_MONSTER
+                    || c == MonsterFactory.PURPLE_MONSTER)
+                layers[Layer.MONSTER.ordinal()].add(x, y, c);
+            else if (c == CHECKPOINT)
+                layers[Layer.CHECKPOINT.ordinal()].add(x, y, c);
+            else if (c == 'P' && startX < 0) {
+                startX = x;
+                startY = y;
+            }
+        }
+
+        public LevelTemplate build() {
+            return new LevelTemplate(this);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package pt.feup.tvvs.soulknight.model.game.scene;
+
+import pt.feup.tvvs.soulknight.model.dataStructs.Position;
+import pt.feup.tvvs.soulknight.model.dataStructs.Vector;
+import pt.feup.tvvs.soulknight.model.game.elements.collectables.Collectables;
+import pt.feup.tvvs.soulknight.model.game.elements.enemies.Enemies;
+import pt.feup.tvvs.soulknight.model.game.elements.enemies.GhostMonster;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+
+import java.util.List;
+
+/**
+ * The last few seconds of a scene, one frame per tick, so the game can be stepped backwards.
+ * <p>
+ * Every {@code keyframeInterval} ticks the knight and monster values are kept whole; the frames in between
+ * keep each value as a float difference from the frame before and the orbs as the bits that flipped.
+ * A frame is rebuilt from its keyframe forward with the same arithmetic used to record it, so rounding never
+ * builds up past a keyframe. Everything is allocated up front: recording a tick allocates nothing.
+ * Knight ints (HP, energy, orbs, jump counter, facing) are small and kept as they are.
+ */
+public class RewindBuffer {
+    public static final int DEFAULT_FRAMES = 5 * 30;
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 15;
+
+    private static final int KNIGHT_VALUES = 5;    // x, y, vx, vy, max vx
+    private static final int MONSTER_VALUES = 5;   // x, y, vx, vy, ghost wave time
+    private static final int KNIGHT_INTS = 5;      // HP, energy, orbs, jump counter, facing right
+
+    private final Scene scene;
+    private final int capacity;
+    private final int keyframeInterval;
+    private final int slots;
+    private final int keySlots;
+    private final int values;
+    private final int orbWords;
+
+    private final double[] keyframes;
+    private final long[] keyOrbs;
+    private final float[] deltas;
+    private final long[] orbDeltas;
+    private final int[] knightInts;
+
+    // The last recorded frame, rebuilt exactly as a reader of the buffer would see it
+    private final double[] shadow;
+    private final long[] shadowOrbs;
+    private final double[] current;
+
+    private long newest = -1;
+    private long oldest;
+
+    public RewindBuffer(Scene scene) {
+        this(scene, DEFAULT_FRAMES, DEFAULT_KEYFRAME_INTERVAL);
+    }
+
+    // Keeps at least the last {@code frames} ticks, rounded up to whole keyframe intervals
+    public RewindBuffer(Scene scene, int frames, int keyframeInterval) {
+        if (frames < 1 || keyframeInterval < 1)
+            throw new IllegalArgumentException("A rewind buffer needs at least one frame and keyframe");
+        this.scene = scene;
+        this.keyframeInterval = keyframeInterval;
+        this.capacity = (frames + keyframeInterval - 1) / keyframeInterval * keyframeInterval;
+        this.values = KNIGHT_VALUES + scene.getMonsters().size() * MONSTER_VALUES;
+        LevelTemplate template = scene.getTemplate();
+        int orbCount = template == null ? 0 : template.get(LevelTemplate.Layer.ORB).size();
+        this.orbWords = (orbCount + 63) >>> 6;
+
+        // The oldest frame is rebuilt from a keyframe up to an interval before it, so those deltas stay too
+        this.slots = capacity + keyframeInterval;
+        this.keySlots = capacity / keyframeInterval + 2;
+        this.keyframes = new double[keySlots * values];
+        this.keyOrbs = new long[keySlots * orbWords];
+        this.deltas = new float[slots * values];
+        this.orbDeltas = new long[slots * orbWords];
+        this.knightInts = new int[slots * KNIGHT_INTS];
+        this.shadow = new double[values];
+        this.shadowOrbs = new long[orbWords];
+        this.current = new double[values];
+        capture();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    // Frames that can still be stepped back to, counting the current one
+    public int size() {
+        return (int) (newest - oldest + 1);
+    }
+
+    public long getMemoryBytes() {
+        return 8L * (keyframes.length + keyOrbs.length + orbDeltas.length + shadow.length + shadowOrbs.length
+                + current.length) + 4L * (deltas.length + knightInts.length);
+    }
+
+    // Records the scene as it is now as the newest frame
+    public void capture() {
+        long tick = ++newest;
+        if (tick - oldest >= capacity)
+            oldest = tick - capacity + 1;
+        read(current);
+        int slot = (int) (tick % slots);
+        writeKnightInts(slot);
+
+        if (tick % keyframeInterval == 0) {
+            int key = keySlot(tick);
+            System.arraycopy(current, 0, keyframes, key * values, values);
+            System.arraycopy(current, 0, shadow, 0, values);
+            for (int w = 0; w < orbWords; w++) {
+                long bits = orbBits(w);
+                keyOrbs[key * orbWords + w] = bits;
+                shadowOrbs[w] = bits;
+            }
+            return;
+        }
+        int base = slot * values;
+        for (int i = 0; i < values; i++) {
+            float delta = (float) (current[i] - shadow[i]);
+            deltas[base + i] = delta;
+            shadow[i] += delta;
+        }
+        for (int w = 0; w < orbWords; w++) {
+            long bits = orbBits(w);
+            orbDeltas[slot * orbWords + w] = bits ^ shadowOrbs[w];
+            shadowOrbs[w] = bits;
+        }
+    }
+
+    // Drops the newest frame and puts the scene back as it was the tick before; false when nothing is left
+    public boolean stepBack() {
+        if (newest <= oldest)
+            return false;
+        newest--;
+        rebuild(newest);
+        restore();
+        return true;
+    }
+
+    public void clear() {
+        oldest = 0;
+        newest = -1;
+        capture();
+    }
+
+    private int keySlot(long tick) {
+        return (int) ((tick / keyframeInterval) % keySlots);
+    }
+
+    private void rebuild(long tick) {
+        long keyTick = tick - tick % keyframeInterval;
+        int key = keySlot(keyTick);
+        System.arraycopy(keyframes, key * values, shadow, 0, values);
+        System.arraycopy(keyOrbs, key * orbWords, shadowOrbs, 0, orbWords);
+        for (long t = keyTick + 1; t <= tick; t++) {
+            int slot = (int) (t % slots);
+            int base = slot * values;
+            for (int i = 0; i < values; i++)
+                shadow[i] += deltas[base + i];
+            for (int w = 0; w < orbWords; w++)
+                shadowOrbs[w] ^= orbDeltas[slot * orbWords + w];
+        }
+    }
+
+    private void read(double[] frame) {
+        Knight knight = scene.getPlayer();
+        frame[0] = knight.getPosition().x();
+        frame[1] = knight.getPosition().y();
+        frame[2] = knight.getVelocity().x();
+        frame[3] = knight.getVelocity().y();
+        frame[4] = knight.getMaxVelocity().x();
+        List<Enemies> monsters = scene.getMonsters();
+        for (int m = 0, i = KNIGHT_VALUES; i < values; m++, i += MONSTER_VALUES) {
+            Enemies monster = monsters.get(m);
+            frame[i] = monster.getPosition().x();
+            frame[i + 1] = monster.getPosition().y();
+            frame[i + 2] = monster.getVelocity().x();
+            frame[i + 3] = monster.getVelocity().y();
+            frame[i + 4] = monster instanceof GhostMonster ? ((GhostMonster) monster).getElapsedTime() : 0;
+        }
+    }
+
+    private long orbBits(int word) {
+        LevelTemplate.Cells cells = scene.getTemplate().get(LevelTemplate.Layer.ORB);
+        Collectables[][] orbs = scene.getOrbs();
+        long bits = 0;
+        for (int i = word << 6, end = Math.min(cells.size(), i + 64); i < end; i++)
+            if (orbs[cells.getY(i)][cells.getX(i)] != null)
+                bits |= 1L << i;
+        return bits;
+    }
+
+    private void writeKnightInts(int slot) {
+        Knight knight = scene.getPlayer();
+        int base = slot * KNIGHT_INTS;
+        knightInts[base] = knight.getHP();
+        knightInts[base + 1] = knight.getEnergy();
+        knightInts[base + 2] = knight.getOrbs();
+        knightInts[base + 3] = knight.getJumpCounter();
+        knightInts[base + 4] = knight.isFacingRight() ? 1 : 0;
+    }
+
+    private void restore() {
+        Knight knight = scene.getPlayer();
+        knight.setPosition(new Position(shadow[0], shadow[1]));
+        knight.setVelocity(new Vector(shadow[2], shadow[3]));
+        knight.setMaxVelocity(new Vector(shadow[4], knight.getMaxVelocity().y()));
+        int base = (int) (newest % slots) * KNIGHT_INTS;
+        knight.setHP(knightInts[base]);
+        knight.setEnergy(knightInts[base + 1]);
+        knight.setOrbs(knightInts[base + 2]);
+        knight.setJumpCounter(knightInts[base + 3]);
+        knight.setFacingRight(knightInts[base + 4] != 0);
+
+        List<Enemies> monsters = scene.getMonsters();
+        for (int m = 0, i = KNIGHT_VALUES; i < values; m++, i += MONSTER_VALUES) {
+            Enemies monster = monsters.get(m);
+            monster.setPosition(new Position(shadow[i], shadow[i + 1]));
+            monster.setVelocity(new Vector(shadow[i + 2], shadow[i + 3]));
+            if (monster instanceof GhostMonster)
+                ((GhostMonster) monster).setElapsedTime(shadow[i + 4]);
+        }
+
+        if (orbWords > 0) {
+            LevelTemplate.Cells cells = scene.getTemplate().get(LevelTemplate.Layer.ORB);
+            for (int i = 0; i < cells.size(); i++)
+                SceneSnapshot.setOrb(scene.getOrbs(), cells, i, (shadowOrbs[i >>> 6] & (1L << i)) != 0);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import pt.feup.tvvs.soulknight.model.game.elements.tile.Tile;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 public class Scene {
     private final int width;
@@ -41,11 +42,33 @@ public class Scene {
     private Position EndPosition;
     private Position startPosition;
 
+    private LevelTemplate template;
+    private SceneSnapshot checkpoint;
+    private boolean[] reachedCheckpoints = new boolean[0];
+    private int revision;
+
+    private final long seed;
+    private final SplittableRandom particleRandom;
+    private final SplittableRandom enemyRandom;
+    private final SplittableRandom weatherRandom;
+
     public Scene(int width, int height, int sceneID) {
+        this(width, height, sceneID, new SplittableRandom().nextLong());
+    }
+
+    // Every random draw in the scene comes from the seed, one independent stream per subsystem,
+    // so two runs with the same seed and inputs match tick for tick
+    public Scene(int width, int height, int sceneID, long seed) {
         this.width = width;
         this.height = height;
         this.sceneID = sceneID;
 
+        this.seed = seed;
+        SplittableRandom random = new SplittableRandom(seed);
+        this.particleRandom = random.split();
+        this.enemyRandom = random.split();
+        this.weatherRandom = random.split();
+
         this.doubleJumpParticles = new ArrayList<>();
         this.jumpParticles = new ArrayList<>();
         this.particles = new ArrayList<>();
@@ -76,7 +99,24 @@ public class Scene {
         return sceneID;
     }
 
+    public long getSeed() {
+        return seed;
+    }
+
+    public SplittableRandom getParticleRandom() {
+        return particleRandom;
+    }
+
+    public SplittableRandom getEnemyRandom() {
+        return enemyRandom;
+    }
+
+    public SplittableRandom getWeatherRandom() {
+        return weatherRandom;
+    }
+
     public void setMap(Element[][] map) {this.map = map;}
+    Element[][] getMap() {return map;}
 
     public Tile[][] getTiles() {
         return tiles;
@@ -269,4 +309,63 @@ public class Scene {
         this.startPosition = startPosition;
     }
 
+    // The level this scene was built from, null for scenes put together by hand
+    public LevelTemplate getTemplate() {
+        return template;
+    }
+
+    // Checkpoints still on the same cell after an edit stay reached
+    public void setTemplate(LevelTemplate template) {
+        LevelTemplate.Cells cells = template.get(LevelTemplate.Layer.CHECKPOINT);
+        boolean[] reached = new boolean[cells.size()];
+        if (this.template != null) {
+            LevelTemplate.Cells previous = this.template.get(LevelTemplate.Layer.CHECKPOINT);
+            for (int i = 0; i < previous.size(); i++) {
+                if (!reachedCheckpoints[i])
+                    continue;
+                for (int j = 0; j < cells.size(); j++) {
+                    if (cells.getX(j) == previous.getX(i) && cells.getY(j) == previous.getY(i))
+                        reached[j] = true;
+                }
+            }
+        }
+        this.template = template;
+        this.reachedCheckpoints = reached;
+    }
+
+    // Goes up every time the level is edited under the running scene
+    public int getRevision() {
+        return revision;
+    }
+
+    void increaseRevision() {
+        revision++;
+    }
+
+    // Where the knight comes back after dying
+    public SceneSnapshot getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(SceneSnapshot checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    // Snapshots the scene over the current checkpoint the first time the knight touches a checkpoint tile
+    public boolean reachCheckpoint() {
+        if (template == null || checkpoint == null)
+            return false;
+        LevelTemplate.Cells cells = template.get(LevelTemplate.Layer.CHECKPOINT);
+        int tileX = (int) (player.getPosition().x() + player.getWidth() / 2) / Tile.SIZE;
+        int tileY = (int) (player.getPosition().y() + player.getHeight() / 2) / Tile.SIZE;
+        for (int i = 0; i < cells.size(); i++) {
+            if (!reachedCheckpoints[i] && cells.getX(i) == tileX && cells.getY(i) == tileY) {
+                reachedCheckpoints[i] = true;
+                checkpoint.update(this);
+                return true;
+            }
+        }
+        return false;
+    }
+
 }
@@ -1,5 +1,8 @@
 package pt.feup.tvvs.soulknight.model.game.scene;
 
+import pt.feup.tvvs.soulknight.Game;
+import pt.feup.tvvs.soulknight.assets.AssetBundle;
+import pt.feup.tvvs.soulknight.metrics.LevelLoadEvent;
 import pt.feup.tvvs.soulknight.model.dataStructs.Position;
 import pt.feup.tvvs.soulknight.model.game.elements.collectables.Collectables;
 import pt.feup.tvvs.soulknight.model.game.elements.collectables.OrbFactory;
@@ -16,54 +19,163 @@ import pt.feup.tvvs.soulknight.model.game.elements.tile.Tile;
 import com.googlecode.lanterna.TextColor;
 
 import java.io.BufferedReader;
-import java.io.File;
+import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URISyntaxException;
 import java.net.URL;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.SplittableRandom;
 
 import static java.lang.Character.isLetterOrDigit;
 import static java.lang.Character.isSpaceChar;
 import static java.nio.charset.StandardCharsets.UTF_8;
 
 public class SceneLoader {
-    private final List<String> lines;
+    private static final int CACHE_SIZE = 8;
+    // Most recently used level templates, so respawns and replays skip the file
+    private static final Map<Integer, LevelTemplate> TEMPLATES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, LevelTemplate> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final LevelTemplate template;
     private final int sceneID;
+    private final long readNanos;
 
     private final int TILE_SIZE = 8;
 
     public SceneLoader(int id) throws IOException {
+        long start = System.nanoTime();
         this.sceneID = id;
-        URL resource = getClass().getClassLoader().getResource("levels/level" + id + ".lvl");
-        if (resource == null){
+        this.template = getTemplate(id);
+        this.readNanos = System.nanoTime() - start;
+    }
+
+    public SceneLoader(LevelTemplate template) {
+        this.sceneID = template.getId();
+        this.template = template;
+        this.readNanos = 0;
+    }
+
+    public static LevelTemplate getTemplate(int id) throws IOException {
+        synchronized (TEMPLATES) {
+            LevelTemplate template = TEMPLATES.get(id);
+            if (template != null)
+                return template;
+        }
+        // Parsed outside the lock; two threads missing at once just parse the same file twice, and a template
+        // replaced by the hot reloader meanwhile is kept over the one read from the classpath
+        LevelTemplate template = readTemplate(id);
+        synchronized (TEMPLATES) {
+            LevelTemplate newer = TEMPLATES.putIfAbsent(id, template);
+            return newer != null ? newer : template;
+        }
+    }
+
+    // For levels edited while the game runs; scenes built afterwards use the new version
+    public static void replaceTemplate(LevelTemplate template) {
+        synchronized (TEMPLATES) {
+            TEMPLATES.put(template.getId(), template);
+        }
+    }
+
+    public static void evictTemplate(int id) {
+        synchronized (TEMPLATES) {
+            TEMPLATES.remove(id);
+        }
+    }
+
+    public static void clearCache() {
+        synchronized (TEMPLATES) {
+            TEMPLATES.clear();
+        }
+    }
+
+    // The compiled level from the asset bundle or on its own, otherwise the text file, read from the classpath
+    // so both work from the jar as well as from the build directory. The compiled level is trusted as the build
+    // made it; only with -Dsoulknight.dev=true is it checked against the text, which may have been edited since
+    private static LevelTemplate readTemplate(int id) throws IOException {
+        ClassLoader classLoader = SceneLoader.class.getClassLoader();
+        byte[] source = Boolean.getBoolean("soulknight.dev") ? readSource(classLoader, id) : null;
+        int sourceHash = source != null ? LevelBinary.hash(source) : 0;
+
+        AssetBundle bundle = AssetBundle.getDefault();
+        ByteBuffer bundled = bundle != null ? bundle.get("levels/level" + id + LevelBinary.EXTENSION) : null;
+        if (bundled != null && (source == null || LevelBinary.isCompiledFrom(bundled, sourceHash)))
+            return LevelBinary.read(id, bundled);
+
+        URL compiledResource = classLoader.getResource("levels/level" + id + LevelBinary.EXTENSION);
+        ByteBuffer compiled = compiledResource != null ? readCompiled(compiledResource) : null;
+        if (compiled != null && (source == null || LevelBinary.isCompiledFrom(compiled, sourceHash)))
+            return LevelBinary.read(id, compiled);
+
+        if (source == null)
+            source = readSource(classLoader, id);
+        if (source == null) {
             throw new FileNotFoundException("Level file not found!");
         }
-        Path path = Paths.get(new File(resource.getFile()).toURI());
-        BufferedReader br = Files.newBufferedReader(path, UTF_8);
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(source), UTF_8))) {
+            return LevelTemplate.parse(id, br);
+        }
+    }
+
+    private static byte[] readSource(ClassLoader classLoader, int id) throws IOException {
+        try (InputStream in = classLoader.getResourceAsStream("levels/level" + id + ".lvl")) {
+            return in != null ? in.readAllBytes() : null;
+        }
+    }
 
+    private static ByteBuffer readCompiled(URL compiled) throws IOException {
+        if ("file".equals(compiled.getProtocol())) {
+            try (FileChannel channel = FileChannel.open(Paths.get(compiled.toURI()), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (URISyntaxException ignored) {
+                // Read it as a stream below
+            }
+        }
+        try (InputStream in = compiled.openStream()) {
+            return ByteBuffer.wrap(in.readAllBytes());
+        }
+    }
 
-        lines = readLines(br);
+    public LevelTemplate getTemplate() {
+        return template;
     }
 
-    private List<String> readLines(BufferedReader br) throws IOException {
-        List<String> lines = new ArrayList<>();
-        for (String line; (line = br.readLine()) != null; )
-            lines.add(line);
-        return lines;
+    // Level characters the knight collides with
+    public static boolean isSolid(char c) {
+        return c == 'x' || c == 'M' || c == 'G' || c == 'L';
+    }
+
+    public static boolean isSpike(char c) {
+        return !isLetterOrDigit(c) && !isSpaceChar(c) && c != '*';
     }
 
     public Scene createScene(Knight knight) {
-        Scene scene = new Scene(230, 130, sceneID);
+        return createScene(knight, new SplittableRandom().nextLong());
+    }
+
+    public Scene createScene(Knight knight, long seed) {
+        LevelLoadEvent event = new LevelLoadEvent();
+        event.begin();
+
+        Scene scene = new Scene(Game.PIXEL_WIDTH, Game.PIXEL_HEIGHT, sceneID, seed);
 
         scene.setPlayer(createPlayer(scene, knight));
         scene.setStartPosition(scene.getPlayer().getPosition());
-        scene.setMap(createMap(scene));
-        scene.setTiles(createWalls(scene));
+        createWalls(scene);
 
         scene.setSpikes(createSpikes(scene));
         scene.setTrees(createTrees(scene));
@@ -73,6 +185,18 @@ public class SceneLoader {
         scene.setMonsters(createMonsters(scene));
         scene.setParticles(createParticles(15, scene));
 
+        // Respawning goes back to this snapshot until the knight reaches a checkpoint
+        scene.setTemplate(template);
+        scene.setCheckpoint(SceneSnapshot.capture(scene));
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.sceneId = sceneID;
+            event.readDuration = readNanos;
+            event.lines = template.getLineCount();
+            event.enemies = scene.getMonsters().size();
+            event.commit();
+        }
 
         return scene;
     }
@@ -82,147 +206,92 @@ public class SceneLoader {
     }
 
     protected int getWidth() {
-        int width = 0;
-        for (String line : lines)
-            width = Math.max(width, line.length());
-        return width;
+        return template.getWidth();
     }
 
     protected int getHeight() {
-        return lines.size();
+        return template.getLineCount();
     }
 
-    private Element[][] createMap(Scene scene) {
+    // The collision map and the wall layer share the same tiles
+    private void createWalls(Scene scene) {
         Element[][] map = new Element[scene.getHeight()][scene.getWidth()];
-
-        for (int y = 0; y < lines.size(); y++) {
-            String line = lines.get(y);
-            for (int x = 0; x < line.length(); x++) {
-                if (line.charAt(x) == 'x' || line.charAt(x) == 'M' || line.charAt(x) == 'G'|| line.charAt(x) == 'L') {
-                    map[y][x] = new Tile(x * TILE_SIZE, y * TILE_SIZE, line.charAt(x));
-                }
-                else if (line.charAt(x) == 'u') {
-                    scene.setEndPosition(new Position(x*TILE_SIZE,y*TILE_SIZE));
-                }
-                else
-                    map[y][x] = null;
-            }
-        }
-
-        return map;
-    }
-
-    private Tile[][] createWalls(Scene scene) {
         Tile[][] walls = new Tile[scene.getHeight()][scene.getWidth()];
 
-        for (int y = 0; y < lines.size(); y++) {
-            String line = lines.get(y);
-            for (int x = 0; x < line.length(); x++) {
-                if (line.charAt(x) == 'x' || line.charAt(x) == 'M' || line.charAt(x) == 'G' || line.charAt(x) == 'L') {
-                    walls[y][x] = new Tile(x * TILE_SIZE, y * TILE_SIZE, line.charAt(x));
-                }
-                else
-                    walls[y][x] = null;
-            }
+        LevelTemplate.Cells solids = template.get(LevelTemplate.Layer.SOLID);
+        for (int i = 0; i < solids.size(); i++) {
+            int x = solids.getX(i), y = solids.getY(i);
+            Tile tile = new Tile(x * TILE_SIZE, y * TILE_SIZE, solids.getType(i));
+            map[y][x] = tile;
+            walls[y][x] = tile;
         }
+        if (template.hasEnd())
+            scene.setEndPosition(new Position(template.getEndX() * TILE_SIZE, template.getEndY() * TILE_SIZE));
 
-        return walls;
+        scene.setMap(map);
+        scene.setTiles(walls);
     }
 
     private Spike[][] createSpikes(Scene scene) {
         Spike[][] spikes = new Spike[scene.getHeight()][scene.getWidth()];
-
-        for (int y = 0; y < lines.size(); y++) {
-            String line = lines.get(y);
-            for (int x = 0; x < line.length(); x++) {
-                if (!isLetterOrDigit(line.charAt(x)) && !isSpaceChar(line.charAt(x)) && line.charAt(x) != '*')
-                    spikes[y][x] = new Spike(x * TILE_SIZE, y * TILE_SIZE, line.charAt(x));
-                else {
-                    spikes[y][x] = null;
-                }
-            }
+        LevelTemplate.Cells cells = template.get(LevelTemplate.Layer.SPIKE);
+        for (int i = 0; i < cells.size(); i++) {
+            int x = cells.getX(i), y = cells.getY(i);
+            spikes[y][x] = new Spike(x * TILE_SIZE, y * TILE_SIZE, cells.getType(i));
         }
         return spikes;
     }
+
     private Tree[][] createTrees(Scene scene) {
         Tree[][] trees = new Tree[scene.getHeight()][scene.getWidth()];
-
-        for (int y = 0; y < lines.size(); y++) {
-            String line = lines.get(y);
-            for (int x = 0; x < line.length(); x++) {
-                if (line.charAt(x) == 't' || line.charAt(x) == 'T')
-                    trees[y][x] = new Tree(x * TILE_SIZE, y * TILE_SIZE, line.charAt(x));
-                else {
-                    trees[y][x] = null;
-                }
-            }
+        LevelTemplate.Cells cells = template.get(LevelTemplate.Layer.TREE);
+        for (int i = 0; i < cells.size(); i++) {
+            int x = cells.getX(i), y = cells.getY(i);
+            trees[y][x] = new Tree(x * TILE_SIZE, y * TILE_SIZE, cells.getType(i));
         }
         return trees;
     }
 
     private Rock[][] createRocks(Scene scene) {
         Rock[][] rocks = new Rock[scene.getHeight()][scene.getWidth()];
-
-        for (int y = 0; y < lines.size(); y++) {
-            String line = lines.get(y);
-            for (int x = 0; x < line.length(); x++) {
-                if (line.charAt(x) == 'R' || line.charAt(x) == 'r') {
-                    rocks[y][x] = new Rock(x * TILE_SIZE, y * TILE_SIZE, line.charAt(x));
-                }
-            }
+        LevelTemplate.Cells cells = template.get(LevelTemplate.Layer.ROCK);
+        for (int i = 0; i < cells.size(); i++) {
+            int x = cells.getX(i), y = cells.getY(i);
+            rocks[y][x] = new Rock(x * TILE_SIZE, y * TILE_SIZE, cells.getType(i));
         }
         return rocks;
     }
 
-
     public Collectables[][] createOrbs(Scene scene) {
         Collectables[][] orbs = new Collectables[scene.getHeight()][scene.getWidth()];
-
-        for (int y = 0; y < lines.size(); y++) {
-            String line = lines.get(y);
-            for (int x = 0; x < line.length(); x++) {
-                char type = line.charAt(x);
-                orbs[y][x] = OrbFactory.createOrb(type, x * TILE_SIZE, y * TILE_SIZE);
-            }
+        LevelTemplate.Cells cells = template.get(LevelTemplate.Layer.ORB);
+        for (int i = 0; i < cells.size(); i++) {
+            int x = cells.getX(i), y = cells.getY(i);
+            orbs[y][x] = OrbFactory.createOrb(cells.getType(i), x * TILE_SIZE, y * TILE_SIZE);
         }
         return orbs;
     }
 
     private List<Enemies> createMonsters(Scene scene) {
-        List<Enemies> monsters = new ArrayList<>();
-
-        for (int y = 0; y < lines.size(); y++) {
-            String line = lines.get(y);
-            for (int x = 0; x < line.length(); x++) {
-                char type = line.charAt(x);
-                Enemies monster = MonsterFactory.createMonster(x * TILE_SIZE, y * TILE_SIZE, scene, type);
-                if (monster != null) {
-                    monsters.add(monster);
-                }
-            }
-        }
-
+        LevelTemplate.Cells cells = template.get(LevelTemplate.Layer.MONSTER);
+        List<Enemies> monsters = new ArrayList<>(cells.size());
+        for (int i = 0; i < cells.size(); i++)
+            monsters.add(MonsterFactory.createMonster(cells.getX(i) * TILE_SIZE, cells.getY(i) * TILE_SIZE, scene,
+                    cells.getType(i)));
         return monsters;
     }
 
     private Knight createPlayer(Scene scene, Knight knight) {
-        for (int y = 0; y < lines.size(); y++) {
-            String line = lines.get(y);
-            for (int x = 0; x < line.length(); x++) {
-                if (line.charAt(x) == 'P') {
-                    knight.setPosition(new Position(x * TILE_SIZE, y * TILE_SIZE - 2));
-                    knight.setScene(scene);
-                    return knight;
-                }
-            }
-        }
-        throw new IllegalStateException("Knight not found within the level file!");
-
+        if (!template.hasStart())
+            throw new IllegalStateException("Knight not found within the level file!");
+        knight.setPosition(new Position(template.getStartX() * TILE_SIZE, template.getStartY() * TILE_SIZE - 2));
+        knight.setScene(scene);
+        return knight;
     }
 
     private List<Particle> createParticles(int size, Scene scene) {
         List<Particle> particles = new ArrayList<>();
-        Random random = new Random();
+        SplittableRandom random = scene.getWeatherRandom();
         for (int i = 0; i < size; i++) {
 
             particles.add(new RainParticle(
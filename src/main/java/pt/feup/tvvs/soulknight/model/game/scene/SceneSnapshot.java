@@ -0,0 +1,144 @@
+package pt.feup.tvvs.soulknight.model.game.scene;
+
+import pt.feup.tvvs.soulknight.model.dataStructs.Position;
+import pt.feup.tvvs.soulknight.model.dataStructs.Vector;
+import pt.feup.tvvs.soulknight.model.game.elements.collectables.Collectables;
+import pt.feup.tvvs.soulknight.model.game.elements.collectables.OrbFactory;
+import pt.feup.tvvs.soulknight.model.game.elements.enemies.Enemies;
+import pt.feup.tvvs.soulknight.model.game.elements.enemies.GhostMonster;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.elements.tile.Tile;
+
+import java.util.Arrays;
+
+/**
+ * The mutable state of a scene at one moment: which of the level's orbs are still there, where the monsters
+ * are and how they move, and the knight's stats. Taken when a level starts and at checkpoints, and restored
+ * in place on respawn without touching the level file. Particles are not kept.
+ */
+public class SceneSnapshot {
+    private static final int MONSTER_FIELDS = 5;   // x, y, vx, vy, ghost wave time
+    private static final int KNIGHT_FIELDS = 6;    // x, y, vx, vy, max vx, max vy
+
+    private long[] orbs = new long[0];
+    private double[] monsters = new double[0];
+    private final double[] knight = new double[KNIGHT_FIELDS];
+    private int hp;
+    private int energy;
+    private float damage;
+    private int orbCount;
+    private int jumpCounter;
+    private boolean facingRight;
+
+    public static SceneSnapshot capture(Scene scene) {
+        SceneSnapshot snapshot = new SceneSnapshot();
+        snapshot.update(scene);
+        return snapshot;
+    }
+
+    // Overwrites this snapshot; allocates only when the scene has more orbs or monsters than the last one
+    public void update(Scene scene) {
+        updateOrbs(scene);
+
+        int size = scene.getMonsters().size() * MONSTER_FIELDS;
+        if (monsters.length != size)
+            monsters = new double[size];
+        for (int i = 0, m = 0; m < scene.getMonsters().size(); m++, i += MONSTER_FIELDS) {
+            Enemies monster = scene.getMonsters().get(m);
+            monsters[i] = monster.getPosition().x();
+            monsters[i + 1] = monster.getPosition().y();
+            monsters[i + 2] = monster.getVelocity().x();
+            monsters[i + 3] = monster.getVelocity().y();
+            monsters[i + 4] = monster instanceof GhostMonster ? ((GhostMonster) monster).getElapsedTime() : 0;
+        }
+
+        Knight player = scene.getPlayer();
+        knight[0] = player.getPosition().x();
+        knight[1] = player.getPosition().y();
+        knight[2] = player.getVelocity().x();
+        knight[3] = player.getVelocity().y();
+        knight[4] = player.getMaxVelocity().x();
+        knight[5] = player.getMaxVelocity().y();
+        hp = player.getHP();
+        energy = player.getEnergy();
+        damage = player.getDamage();
+        orbCount = player.getOrbs();
+        jumpCounter = player.getJumpCounter();
+        facingRight = player.isFacingRight();
+    }
+
+    // Only the orbs, e.g. after the level was edited and its orbs renumbered
+    public void updateOrbs(Scene scene) {
+        LevelTemplate.Cells cells = orbCells(scene);
+        int words = (cells.size() + 63) >>> 6;
+        if (orbs.length != words)
+            orbs = new long[words];
+        else
+            Arrays.fill(orbs, 0);
+        Collectables[][] present = scene.getOrbs();
+        for (int i = 0; i < cells.size(); i++)
+            if (present[cells.getY(i)][cells.getX(i)] != null)
+                orbs[i >>> 6] |= 1L << i;
+    }
+
+    private static LevelTemplate.Cells orbCells(Scene scene) {
+        LevelTemplate template = scene.getTemplate();
+        if (template == null)
+            throw new IllegalStateException("Only scenes built from a level can be snapshot");
+        return template.get(LevelTemplate.Layer.ORB);
+    }
+
+    public void restore(Scene scene) {
+        restoreOrbs(scene);
+        restoreMonsters(scene);
+        restoreKnight(scene.getPlayer());
+    }
+
+    // Puts back the orbs that were there and removes the ones collected before the snapshot
+    public void restoreOrbs(Scene scene) {
+        LevelTemplate.Cells cells = orbCells(scene);
+        Collectables[][] present = scene.getOrbs();
+        for (int i = 0; i < cells.size(); i++)
+            setOrb(present, cells, i, (orbs[i >>> 6] & (1L << i)) != 0);
+    }
+
+    static void setOrb(Collectables[][] orbs, LevelTemplate.Cells cells, int i, boolean present) {
+        int x = cells.getX(i), y = cells.getY(i);
+        if (!present)
+            orbs[y][x] = null;
+        else if (orbs[y][x] == null)
+            orbs[y][x] = OrbFactory.createOrb(cells.getType(i), x * Tile.SIZE, y * Tile.SIZE);
+    }
+
+    public void restoreMonsters(Scene scene) {
+        int count = Math.min(scene.getMonsters().size(), monsters.length / MONSTER_FIELDS);
+        for (int i = 0, m = 0; m < count; m++, i += MONSTER_FIELDS) {
+            Enemies monster = scene.getMonsters().get(m);
+            monster.setPosition(new Position(monsters[i], monsters[i + 1]));
+            monster.setVelocity(new Vector(monsters[i + 2], monsters[i + 3]));
+            if (monster instanceof GhostMonster)
+                ((GhostMonster) monster).setElapsedTime(monsters[i + 4]);
+        }
+    }
+
+    // Stats and movement only; the caller picks the knight's state
+    public void restoreKnight(Knight player) {
+        player.setPosition(new Position(knight[0], knight[1]));
+        player.setVelocity(new Vector(knight[2], knight[3]));
+        player.setMaxVelocity(new Vector(knight[4], knight[5]));
+        player.setHP(hp);
+        player.setEnergy(energy);
+        player.setDamage(damage);
+        player.setOrbs(orbCount);
+        player.setJumpCounter(jumpCounter);
+        player.setFacingRight(facingRight);
+    }
+
+    public Position getKnightPosition() {
+        return new Position(knight[0], knight[1]);
+    }
+
+    public int getOrbCount() {
+        return orbCount;
+    }
+}
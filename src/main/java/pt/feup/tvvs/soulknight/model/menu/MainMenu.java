@@ -7,10 +7,18 @@ import com.googlecode.lanterna.TextColor;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class MainMenu extends Menu {
     private final int size = 250;
+
+    public MainMenu() {
+    }
+
+    public MainMenu(long seed) {
+        super(seed);
+    }
+
     @Override
     protected List<Option> createEntries() {
         Option start = new Option(30, 25, Option.Type.START_GAME);
@@ -22,7 +30,7 @@ public class MainMenu extends Menu {
     @Override
     public List<Particle> createParticles() {
         List<Particle> particles = new ArrayList<>();
-        Random random = new Random();
+        SplittableRandom random = getRandom();
         int width = 160; // Assuming screen width is 160
 
         for (int i = 0; i < size; i++) {
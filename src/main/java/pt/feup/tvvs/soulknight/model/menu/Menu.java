@@ -2,14 +2,22 @@ package pt.feup.tvvs.soulknight.model.menu;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 public abstract class Menu {
     private final List<Option> options;
     private List<Particle> particles;
     private Boolean inGame = false;
     private int currentOption = 0;
+    private final SplittableRandom random;
 
     public Menu() {
+        this(new SplittableRandom().nextLong());
+    }
+
+    // The seed decides where the particles start and how they drift
+    public Menu(long seed) {
+        this.random = new SplittableRandom(seed);
         this.options = createEntries();
         this.particles = new ArrayList<>();
         setParticles(createParticles());
@@ -33,6 +41,10 @@ public abstract class Menu {
         if (--currentOption < 0)
             currentOption = getNumberOptions() - 1;
     }
+    // A menu shown again starts from its first option
+    public void resetCurrentOption() {
+        currentOption = 0;
+    }
     public Option getCurrentOption() {
         return options.get(currentOption);
     }
@@ -56,6 +68,10 @@ public abstract class Menu {
 
     public abstract List<Particle> createParticles();
 
+    public SplittableRandom getRandom() {
+        return random;
+    }
+
     public Boolean getInGame() {
         return inGame;
     }
@@ -6,10 +6,18 @@ import com.googlecode.lanterna.TextColor;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 public class SettingsMenu extends Menu{
     private final int size = 100;
+
+    public SettingsMenu() {
+    }
+
+    public SettingsMenu(long seed) {
+        super(seed);
+    }
+
     @Override
     protected List<Option> createEntries() {
         Option resolution = new Option(30, 30, Option.Type.RESOLUTION);
@@ -20,7 +28,7 @@ public class SettingsMenu extends Menu{
     @Override
     public List<Particle> createParticles() {
         List<Particle> particles = new ArrayList<>();
-        Random random = new Random();
+        SplittableRandom random = getRandom();
         int width = 160; // Assuming screen width is 160
         int height = 90; // Assuming screen height is 90
 
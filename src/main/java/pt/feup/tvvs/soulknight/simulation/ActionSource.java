@@ -0,0 +1,8 @@
+package pt.feup.tvvs.soulknight.simulation;
+
+import pt.feup.tvvs.soulknight.gui.ActionSet;
+
+public interface ActionSource {
+    // Replaces the contents of actions with the ones for the given tick
+    void next(long tick, ActionSet actions);
+}
@@ -0,0 +1,200 @@
+package pt.feup.tvvs.soulknight.simulation;
+
+import pt.feup.tvvs.soulknight.Game;
+import pt.feup.tvvs.soulknight.gui.ActionSet;
+import pt.feup.tvvs.soulknight.gui.NullGUI;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.sound.NullSoundPlayer;
+import pt.feup.tvvs.soulknight.state.GameState;
+import pt.feup.tvvs.soulknight.state.State;
+import pt.feup.tvvs.soulknight.view.sprites.GameSpriteLoader;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Runs the game logic of a level with no window, no audio and no drawing, as fast as possible.
+ * Stops after the requested number of ticks or when the game leaves the level states
+ * (credits after the last level, or the main menu after QUIT).
+ * <p>
+ * {@code java -Djava.awt.headless=true -cp ... pt.feup.tvvs.soulknight.simulation.HeadlessSimulation
+ * --level 1 --ticks 100000 --seed 42 --script "RIGHT*40 JUMP RIGHT*20 LEFT*40"}
+ * <p>
+ * {@code --replay FILE} instead plays a recorded session from the main menu, with the seed it was recorded with,
+ * and {@code --instances N [--threads T]} runs N independent copies of the level through {@link ParallelSimulation},
+ * at most T of them at once (one per processor by default), also when they run on virtual threads.
+ */
+public class HeadlessSimulation {
+    public static final String DEFAULT_SCRIPT = "RIGHT*40 NULL*20 LEFT*40 NULL*20 RIGHT*10 RIGHT+JUMP RIGHT*8 RIGHT+JUMP RIGHT*12 DASH LEFT*15 LEFT+JUMP LEFT*10 DASH";
+
+    private final int level;
+    private final ActionSource actions;
+    private final long maxTicks;
+    private final long seed;
+    private final GameSpriteLoader spriteLoader;
+
+    public HeadlessSimulation(int level, ActionSource actions, long maxTicks, long seed) {
+        this(level, actions, maxTicks, seed, new GameSpriteLoader());
+    }
+
+    // Simulations running side by side can share one sprite loader
+    public HeadlessSimulation(int level, ActionSource actions, long maxTicks, long seed, GameSpriteLoader spriteLoader) {
+        this.level = level;
+        this.actions = actions;
+        this.maxTicks = maxTicks;
+        this.seed = seed;
+        this.spriteLoader = spriteLoader;
+    }
+
+    public Result run() throws Exception {
+        Game game = new Game(new NullGUI(), new NullSoundPlayer(), spriteLoader, seed);
+        Knight knight = new Knight(0, 0, 50, 10, 1);
+        game.startLevel(level, knight);
+
+        ActionSet input = new ActionSet();
+        long start = System.nanoTime();
+        long tick = 0;
+        State<?> state = game.getState();
+        while (tick < maxTicks && state instanceof GameState) {
+            actions.next(tick, input);
+            state.step(game, input, tick);
+            state = game.getState();
+            tick++;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int sceneId = state instanceof GameState ? ((Scene) state.getModel()).getSceneID() : -1;
+        return new Result(tick, elapsed, sceneId, knight);
+    }
+
+    // Plays a whole recorded session, menus included; the knight is the one from the last level reached
+    public static Result replay(InputRecording recording) throws Exception {
+        Game game = new Game(new NullGUI(), new NullSoundPlayer(), new GameSpriteLoader(), recording.getSeed());
+        Knight knight = null;
+
+        ActionSet input = new ActionSet();
+        long start = System.nanoTime();
+        long tick = 0;
+        State<?> state = game.getState();
+        while (tick < recording.getTicks() && state != null) {
+            recording.next(tick, input);
+            state.step(game, input, tick);
+            state = game.getState();
+            if (state instanceof GameState)
+                knight = ((Scene) state.getModel()).getPlayer();
+            tick++;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int sceneId = state instanceof GameState ? ((Scene) state.getModel()).getSceneID() : -1;
+        return new Result(tick, elapsed, sceneId, knight);
+    }
+
+    public static class Result {
+        private final long ticks;
+        private final long elapsedNanos;
+        private final int sceneId;
+        private final Knight knight;
+
+        public Result(long ticks, long elapsedNanos, int sceneId, Knight knight) {
+            this.ticks = ticks;
+            this.elapsedNanos = elapsedNanos;
+            this.sceneId = sceneId;
+            this.knight = knight;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        // Scene the run ended in, or -1 if it ended outside the level states
+        public int getSceneId() {
+            return sceneId;
+        }
+
+        // Null when a replay never reached a level
+        public Knight getKnight() {
+            return knight;
+        }
+
+        public double getTicksPerSecond() {
+            return elapsedNanos == 0 ? 0 : ticks * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            if (knight == null)
+                return String.format(Locale.ROOT, "%d ticks in %.1f ms (%.0f ticks/s), no level reached",
+                        ticks, elapsedNanos / 1_000_000.0, getTicksPerSecond());
+            return String.format(Locale.ROOT, "%d ticks in %.1f ms (%.0f ticks/s), scene %d, hp %d, orbs %d, deaths %d",
+                    ticks, elapsedNanos / 1_000_000.0, getTicksPerSecond(), sceneId,
+                    knight.getHP(), knight.getOrbs(), knight.getNumberOfDeaths());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int level = 0;
+        long ticks = 100_000;
+        long seed = 0;
+        String script = DEFAULT_SCRIPT;
+        String replay = null;
+        int instances = 1;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--level":
+                    level = Integer.parseInt(args[++i]);
+                    break;
+                case "--ticks":
+                    ticks = Long.parseLong(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--script":
+                    script = args[++i];
+                    break;
+                case "--script-file":
+                    script = Files.readString(Paths.get(args[++i]), UTF_8);
+                    break;
+                case "--replay":
+                    replay = args[++i];
+                    break;
+                case "--instances":
+                    instances = Integer.parseInt(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        if (replay != null) {
+            InputRecording recording = InputRecording.read(Paths.get(replay));
+            System.out.println("[simulation] replay " + replay + ", seed " + recording.getSeed() + ": "
+                    + replay(recording));
+            return;
+        }
+
+        if (instances > 1) {
+            ParallelSimulation.Result batch = new ParallelSimulation(instances, level, ScriptedActionSource.parse(script),
+                    ticks, seed).run(threads);
+            System.out.println("[simulation] level " + level + ", seed " + seed + ": " + batch);
+            return;
+        }
+
+        Result result = new HeadlessSimulation(level, ScriptedActionSource.parse(script), ticks, seed).run();
+        System.out.println("[simulation] level " + level + ", seed " + seed + ": " + result);
+    }
+}
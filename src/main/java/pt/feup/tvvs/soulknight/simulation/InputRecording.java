@@ -0,0 +1,168 @@
+package pt.feup.tvvs.soulknight.simulation;
+
+import pt.feup.tvvs.soulknight.gui.ActionSet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * The actions of a play session, a set per tick, and the seed the session was started with.
+ * Only ticks where something happened are stored.
+ * <p>
+ * File layout: magic {@code SKIR}, version byte, seed, tick count, event count, then for every event
+ * the distance to the previous event's tick and the {@link ActionSet} bits, both as varints.
+ */
+public class InputRecording implements ActionSource {
+    private static final int MAGIC = 0x534B4952;
+    private static final int VERSION = 2;
+
+    private final long seed;
+    private final long ticks;
+    private final long[] eventTicks;
+    private final int[] eventActions;
+
+    private InputRecording(long seed, long ticks, long[] eventTicks, int[] eventActions) {
+        this.seed = seed;
+        this.ticks = ticks;
+        this.eventTicks = eventTicks;
+        this.eventActions = eventActions;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    public int getEventCount() {
+        return eventTicks.length;
+    }
+
+    // Empty for every tick without an event, including ticks past the end of the recording
+    @Override
+    public void next(long tick, ActionSet actions) {
+        int index = Arrays.binarySearch(eventTicks, tick);
+        actions.setMask(index >= 0 ? eventActions[index] : 0);
+    }
+
+    public void write(Path path) throws IOException {
+        try (OutputStream out = Files.newOutputStream(path)) {
+            write(out);
+        }
+    }
+
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeLong(seed);
+        data.writeLong(ticks);
+        data.writeInt(eventTicks.length);
+        long previous = 0;
+        for (int i = 0; i < eventTicks.length; i++) {
+            writeVarLong(data, eventTicks[i] - previous);
+            writeVarLong(data, eventActions[i]);
+            previous = eventTicks[i];
+        }
+        data.flush();
+    }
+
+    public static InputRecording read(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return read(in);
+        }
+    }
+
+    public static InputRecording read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC)
+            throw new IOException("Not an input recording");
+        int version = data.readUnsignedByte();
+        if (version != VERSION)
+            throw new IOException("Unsupported input recording version " + version);
+
+        long seed = data.readLong();
+        long ticks = data.readLong();
+        int events = data.readInt();
+        if (events < 0)
+            throw new IOException("Corrupt input recording: " + events + " events");
+
+        long[] eventTicks = new long[events];
+        int[] eventActions = new int[events];
+        long tick = 0;
+        for (int i = 0; i < events; i++) {
+            tick += readVarLong(data);
+            long actions = readVarLong(data);
+            if (actions <= 0 || actions > Integer.MAX_VALUE || tick >= ticks)
+                throw new IOException("Corrupt input recording at event " + i);
+            eventTicks[i] = tick;
+            eventActions[i] = (int) actions;
+        }
+        return new InputRecording(seed, ticks, eventTicks, eventActions);
+    }
+
+    private static void writeVarLong(DataOutputStream data, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            data.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        data.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputStream data) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0)
+                return value;
+        }
+        throw new IOException("Corrupt input recording: varint too long");
+    }
+
+    /**
+     * Collects one set of actions per tick, starting at tick 0.
+     */
+    public static class Recorder {
+        private final long seed;
+        private long ticks;
+        private long[] eventTicks = new long[256];
+        private int[] eventActions = new int[256];
+        private int events;
+
+        public Recorder(long seed) {
+            this.seed = seed;
+        }
+
+        public void record(ActionSet actions) {
+            if (!actions.isEmpty()) {
+                if (events == eventTicks.length) {
+                    eventTicks = Arrays.copyOf(eventTicks, events * 2);
+                    eventActions = Arrays.copyOf(eventActions, events * 2);
+                }
+                eventTicks[events] = ticks;
+                eventActions[events] = actions.getMask();
+                events++;
+            }
+            ticks++;
+        }
+
+        public long getTicks() {
+            return ticks;
+        }
+
+        public InputRecording finish() {
+            return new InputRecording(seed, ticks, Arrays.copyOf(eventTicks, events), Arrays.copyOf(eventActions, events));
+        }
+    }
+}
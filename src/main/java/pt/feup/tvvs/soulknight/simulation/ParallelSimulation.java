@@ -0,0 +1,153 @@
+package pt.feup.tvvs.soulknight.simulation;
+
+import pt.feup.tvvs.soulknight.view.sprites.GameSpriteLoader;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.IntFunction;
+
+/**
+ * Runs many independent headless simulations at once, each with its own game, scene and seed.
+ * Instances only share the sprite loader. Seeds are split from one base seed, so a batch is
+ * reproducible instance by instance whatever the thread count.
+ */
+public class ParallelSimulation {
+    private final int instances;
+    private final int level;
+    private final IntFunction<ActionSource> actions;
+    private final long maxTicks;
+    private final long seed;
+
+    // actions gives the input of each instance, by instance index
+    public ParallelSimulation(int instances, int level, IntFunction<ActionSource> actions, long maxTicks, long seed) {
+        if (instances <= 0)
+            throw new IllegalArgumentException("Instances must be positive: " + instances);
+        this.instances = instances;
+        this.level = level;
+        this.actions = actions;
+        this.maxTicks = maxTicks;
+        this.seed = seed;
+    }
+
+    public ParallelSimulation(int instances, int level, ActionSource actions, long maxTicks, long seed) {
+        this(instances, level, index -> actions, maxTicks, seed);
+    }
+
+    /**
+     * One virtual thread per task when the runtime has them (Java 21+), otherwise a fixed pool
+     * with the given number of threads. Virtual threads are not bounded by {@code threads}; {@link #run(int)}
+     * bounds the instances itself.
+     */
+    public static ExecutorService newExecutor(int threads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+
+    // At most threads instances run at once, on virtual threads as well as on a pool
+    public Result run(int threads) throws Exception {
+        if (threads <= 0)
+            throw new IllegalArgumentException("Threads must be positive: " + threads);
+        ExecutorService executor = newExecutor(threads);
+        try {
+            return run(executor, threads);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public Result run(ExecutorService executor) throws Exception {
+        return run(executor, instances);
+    }
+
+    // Each instance holds one of maxRunning permits while it runs, whatever the executor lets through
+    public Result run(ExecutorService executor, int maxRunning) throws Exception {
+        Semaphore running = new Semaphore(maxRunning);
+        GameSpriteLoader spriteLoader = new GameSpriteLoader();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        List<Callable<HeadlessSimulation.Result>> tasks = new ArrayList<>(instances);
+        for (int i = 0; i < instances; i++) {
+            HeadlessSimulation simulation = new HeadlessSimulation(level, actions.apply(i), maxTicks,
+                    seeds.nextLong(), spriteLoader);
+            tasks.add(() -> {
+                running.acquire();
+                try {
+                    return simulation.run();
+                } finally {
+                    running.release();
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        List<Future<HeadlessSimulation.Result>> futures = executor.invokeAll(tasks);
+        List<HeadlessSimulation.Result> results = new ArrayList<>(instances);
+        for (Future<HeadlessSimulation.Result> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+        }
+        return new Result(results, System.nanoTime() - start);
+    }
+
+    public static class Result {
+        private final List<HeadlessSimulation.Result> instances;
+        private final long elapsedNanos;
+
+        public Result(List<HeadlessSimulation.Result> instances, long elapsedNanos) {
+            this.instances = Collections.unmodifiableList(instances);
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        // In instance order
+        public List<HeadlessSimulation.Result> getInstances() {
+            return instances;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public long getTotalTicks() {
+            long ticks = 0;
+            for (HeadlessSimulation.Result instance : instances)
+                ticks += instance.getTicks();
+            return ticks;
+        }
+
+        // Ticks of all instances together per second of wall time
+        public double getTicksPerSecond() {
+            return elapsedNanos == 0 ? 0 : getTotalTicks() * 1_000_000_000.0 / elapsedNanos;
+        }
+
+        // What a single instance managed on average while sharing the machine with the others
+        public double getMeanInstanceTicksPerSecond() {
+            double sum = 0;
+            for (HeadlessSimulation.Result instance : instances)
+                sum += instance.getTicksPerSecond();
+            return sum / instances.size();
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%d instances, %d ticks in %.1f ms: %.0f ticks/s overall, %.0f ticks/s per instance",
+                    instances.size(), getTotalTicks(), elapsedNanos / 1_000_000.0, getTicksPerSecond(),
+                    getMeanInstanceTicksPerSecond());
+        }
+    }
+}
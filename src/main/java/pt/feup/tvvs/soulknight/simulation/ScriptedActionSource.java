@@ -0,0 +1,79 @@
+package pt.feup.tvvs.soulknight.simulation;
+
+import pt.feup.tvvs.soulknight.gui.ActionSet;
+import pt.feup.tvvs.soulknight.gui.GUI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Plays a fixed list of actions, one step per tick, starting over when it runs out.
+ * Scripts are written as {@code RIGHT*40 RIGHT+JUMP RIGHT*20 NULL*10 LEFT*40}, with {@code +} joining
+ * actions that happen on the same tick.
+ */
+public class ScriptedActionSource implements ActionSource {
+    private final int[] steps;
+
+    public ScriptedActionSource(GUI.ACTION... actions) {
+        this(masks(actions));
+    }
+
+    private ScriptedActionSource(int[] steps) {
+        if (steps.length == 0)
+            throw new IllegalArgumentException("Script must have at least one action");
+        this.steps = steps;
+    }
+
+    private static int[] masks(GUI.ACTION[] actions) {
+        int[] masks = new int[actions.length];
+        for (int i = 0; i < actions.length; i++)
+            masks[i] = ActionSet.of(actions[i]).getMask();
+        return masks;
+    }
+
+    public static ScriptedActionSource parse(String script) {
+        List<Integer> steps = new ArrayList<>();
+        for (String token : script.trim().split("[\\s,]+")) {
+            if (token.isEmpty())
+                continue;
+            int separator = token.indexOf('*');
+            String name = separator < 0 ? token : token.substring(0, separator);
+            int count = separator < 0 ? 1 : parseCount(token.substring(separator + 1), token);
+            ActionSet step = new ActionSet();
+            for (String action : name.split("\\+"))
+                step.add(parseAction(action, token));
+            for (int i = 0; i < count; i++)
+                steps.add(step.getMask());
+        }
+        return new ScriptedActionSource(steps.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private static GUI.ACTION parseAction(String name, String token) {
+        try {
+            return GUI.ACTION.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown action in script: " + token, e);
+        }
+    }
+
+    private static int parseCount(String count, String token) {
+        try {
+            int value = Integer.parseInt(count);
+            if (value > 0)
+                return value;
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Invalid repeat count in script: " + token);
+    }
+
+    public int length() {
+        return steps.length;
+    }
+
+    @Override
+    public void next(long tick, ActionSet actions) {
+        actions.setMask(steps[(int) (tick % steps.length)]);
+    }
+}
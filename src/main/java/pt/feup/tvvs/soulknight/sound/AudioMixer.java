@@ -0,0 +1,257 @@
+package pt.feup.tvvs.soulknight.sound;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The game's audio engine. A thread of its own mixes the music, streamed from its file a block at a time,
+ * with a fixed pool of voices playing the decoded {@link SoundEffect}s, and writes each block to the output.
+ * <p>
+ * The game thread only posts requests through an {@link AudioRequestQueue}, so playing a sound never
+ * blocks a tick. When every voice is busy, the one that has played the longest is taken over.
+ */
+public class AudioMixer implements AutoCloseable {
+    public static final AudioFormat FORMAT = new AudioFormat(44_100, 16, 1, true, false);
+    public static final int BLOCK_FRAMES = 512;         // about 12 ms
+    public static final int VOICES = 8;
+    public static final String MUSIC = "sound/demo.wav";
+
+    private static final Logger LOGGER = Logger.getLogger(AudioMixer.class.getName());
+    private static final SoundEffect[] EFFECTS = SoundEffect.values();
+    private static final int MUSIC_START = 1_000;
+    private static final int MUSIC_STOP = 1_001;
+    private static final int MUSIC_VOLUME = 192;        // out of 256
+
+    private final AudioOutput output;
+    private final URL music;
+    private final AudioRequestQueue requests = new AudioRequestQueue(64);
+    private final short[][] effects = new short[EFFECTS.length][];
+
+    // Voice pool: the effect playing (-1 when free), how far into it and when it started
+    private final int[] voiceEffect = new int[VOICES];
+    private final int[] voicePosition = new int[VOICES];
+    private final long[] voiceStart = new long[VOICES];
+
+    private final int[] mix = new int[BLOCK_FRAMES];
+    private final byte[] block = new byte[BLOCK_FRAMES * 2];
+    private final byte[] musicBlock = new byte[BLOCK_FRAMES * 2];
+    private AudioInputStream musicStream;
+    private boolean musicOn;
+    private long blocks;
+    private long stolenVoices;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    // The output must take FORMAT; music may be null. The music is opened here, so a file that cannot be
+    // converted to FORMAT fails when the mixer is made rather than later on the mixer thread
+    public AudioMixer(AudioOutput output, URL music) throws IOException, UnsupportedAudioFileException {
+        this.output = output;
+        this.music = music;
+        for (SoundEffect effect : EFFECTS)
+            effects[effect.ordinal()] = effect.decode(FORMAT);
+        Arrays.fill(voiceEffect, -1);
+        if (music != null)
+            musicStream = openMusic(music);
+    }
+
+    private static AudioInputStream openMusic(URL music) throws IOException, UnsupportedAudioFileException {
+        AudioInputStream source = AudioSystem.getAudioInputStream(new BufferedInputStream(music.openStream()));
+        try {
+            return AudioSystem.getAudioInputStream(FORMAT, source);
+        } catch (IllegalArgumentException e) {
+            source.close();
+            throw new UnsupportedAudioFileException("Cannot convert " + music + " from " + source.getFormat()
+                    + " to " + FORMAT);
+        }
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "audio-mixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    private void run() {
+        while (running)
+            mix();
+    }
+
+    // From the game thread: never blocks, and a full queue just drops the sound
+    public void play(SoundEffect effect) {
+        requests.offer(effect.ordinal());
+    }
+
+    public void startMusic() {
+        requests.offer(MUSIC_START);
+    }
+
+    public void stopMusic() {
+        requests.offer(MUSIC_STOP);
+    }
+
+    // Mixes and writes one block; the mixer thread calls it in a loop, tests call it directly
+    public void mix() {
+        for (int request; (request = requests.poll()) != AudioRequestQueue.EMPTY; )
+            handle(request);
+
+        Arrays.fill(mix, 0);
+        if (musicOn)
+            mixMusic();
+        for (int v = 0; v < VOICES; v++)
+            if (voiceEffect[v] >= 0)
+                mixVoice(v);
+
+        for (int i = 0; i < BLOCK_FRAMES; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+            block[2 * i] = (byte) sample;
+            block[2 * i + 1] = (byte) (sample >> 8);
+        }
+        blocks++;
+        output.write(block, 0, block.length);
+    }
+
+    private void handle(int request) {
+        if (request == MUSIC_START) {
+            musicOn = music != null;
+        } else if (request == MUSIC_STOP) {
+            musicOn = false;
+            closeMusic();
+        } else if (request >= 0 && request < EFFECTS.length) {
+            int voice = freeVoice();
+            voiceEffect[voice] = request;
+            voicePosition[voice] = 0;
+            voiceStart[voice] = blocks;
+        }
+    }
+
+    private int freeVoice() {
+        int oldest = 0;
+        for (int v = 0; v < VOICES; v++) {
+            if (voiceEffect[v] < 0)
+                return v;
+            if (voiceStart[v] < voiceStart[oldest])
+                oldest = v;
+        }
+        stolenVoices++;
+        return oldest;
+    }
+
+    private void mixVoice(int voice) {
+        short[] samples = effects[voiceEffect[voice]];
+        int position = voicePosition[voice];
+        int count = Math.min(BLOCK_FRAMES, samples.length - position);
+        for (int i = 0; i < count; i++)
+            mix[i] += samples[position + i];
+        voicePosition[voice] = position + count;
+        if (voicePosition[voice] >= samples.length)
+            voiceEffect[voice] = -1;
+    }
+
+    // Reads one block of music, starting the file over when it ends
+    private void mixMusic() {
+        int filled = 0;
+        try {
+            for (int restarts = 0; filled < musicBlock.length && restarts < 2; ) {
+                if (musicStream == null)
+                    musicStream = openMusic(music);
+                int read = musicStream.read(musicBlock, filled, musicBlock.length - filled);
+                if (read < 0) {
+                    closeMusic();
+                    restarts++;
+                } else {
+                    filled += read;
+                }
+            }
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Could not stream " + music + ", the music is off", e);
+            musicOn = false;
+            closeMusic();
+        }
+        for (int i = 0; i < filled / 2; i++) {
+            int sample = (short) ((musicBlock[2 * i] & 0xFF) | (musicBlock[2 * i + 1] << 8));
+            mix[i] += sample * MUSIC_VOLUME >> 8;
+        }
+    }
+
+    private void closeMusic() {
+        if (musicStream == null)
+            return;
+        try {
+            musicStream.close();
+        } catch (IOException ignored) {
+            // Nothing left to read from it anyway
+        }
+        musicStream = null;
+    }
+
+    public int getActiveVoices() {
+        int active = 0;
+        for (int effect : voiceEffect)
+            if (effect >= 0)
+                active++;
+        return active;
+    }
+
+    public long getStolenVoices() {
+        return stolenVoices;
+    }
+
+    public long getDroppedRequests() {
+        return requests.getDropped();
+    }
+
+    public boolean isMusicOn() {
+        return musicOn;
+    }
+
+    // The music as the menus knew it
+    public SoundPlayer getMusicPlayer() {
+        return new SoundPlayer() {
+            @Override
+            public void start() {
+                startMusic();
+            }
+
+            @Override
+            public void stop() {
+                stopMusic();
+            }
+
+            @Override
+            public void setSound(Clip sound) {
+                // Streamed from its file instead
+            }
+
+            @Override
+            public Clip getSound() {
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(1_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        closeMusic();
+        output.close();
+    }
+}
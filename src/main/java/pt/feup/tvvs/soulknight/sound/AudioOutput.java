@@ -0,0 +1,16 @@
+package pt.feup.tvvs.soulknight.sound;
+
+import javax.sound.sampled.AudioFormat;
+
+/**
+ * Where the mixer sends its samples: a sound card line in the game, memory in tests.
+ */
+public interface AudioOutput extends AutoCloseable {
+    AudioFormat getFormat();
+
+    // May block until the device has room, which is what paces the mixer thread
+    void write(byte[] bytes, int offset, int length);
+
+    @Override
+    void close();
+}
@@ -0,0 +1,35 @@
+package pt.feup.tvvs.soulknight.sound;
+
+import pt.feup.tvvs.soulknight.model.dataStructs.IntRing;
+
+/**
+ * Requests from the game thread to the mixer thread, one int each in an {@link IntRing}. A request that finds
+ * the ring full is dropped rather than waiting.
+ */
+public class AudioRequestQueue {
+    public static final int EMPTY = -1;
+
+    private final IntRing requests;
+
+    // Rounded up to a power of two
+    public AudioRequestQueue(int capacity) {
+        this.requests = new IntRing(Math.max(2, capacity), 1);
+    }
+
+    public boolean offer(int request) {
+        return requests.offer(request);
+    }
+
+    public int poll() {
+        int slot = requests.peek();
+        if (slot < 0)
+            return EMPTY;
+        int request = requests.get(slot);
+        requests.remove(1);
+        return request;
+    }
+
+    public long getDropped() {
+        return requests.getDropped();
+    }
+}
@@ -0,0 +1,39 @@
+package pt.feup.tvvs.soulknight.sound;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * A {@link SourceDataLine} whose buffer is the ring the mixer keeps a few blocks ahead in.
+ */
+public class LineAudioOutput implements AudioOutput {
+    private final SourceDataLine line;
+
+    public LineAudioOutput(AudioFormat format, int bufferBytes) throws LineUnavailableException {
+        this(AudioSystem.getSourceDataLine(format), format, bufferBytes);
+    }
+
+    public LineAudioOutput(SourceDataLine line, AudioFormat format, int bufferBytes) throws LineUnavailableException {
+        this.line = line;
+        line.open(format, bufferBytes);
+        line.start();
+    }
+
+    @Override
+    public AudioFormat getFormat() {
+        return line.getFormat();
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        line.write(bytes, offset, length);
+    }
+
+    @Override
+    public void close() {
+        line.stop();
+        line.close();
+    }
+}
@@ -0,0 +1,59 @@
+package pt.feup.tvvs.soulknight.sound;
+
+import javax.sound.sampled.AudioFormat;
+import java.util.Arrays;
+
+/**
+ * Keeps what the mixer writes, up to a limit, instead of playing it. Never blocks.
+ */
+public class MemoryAudioOutput implements AudioOutput {
+    private final AudioFormat format;
+    private final byte[] bytes;
+    private int size;
+    private long written;
+    private boolean closed;
+
+    public MemoryAudioOutput(AudioFormat format, int capacityBytes) {
+        this.format = format;
+        this.bytes = new byte[capacityBytes];
+    }
+
+    @Override
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public synchronized void write(byte[] data, int offset, int length) {
+        int kept = Math.min(length, bytes.length - size);
+        System.arraycopy(data, offset, bytes, size, kept);
+        size += kept;
+        written += length;
+    }
+
+    // Little-endian 16-bit samples kept so far
+    public synchronized short[] getSamples() {
+        short[] samples = new short[size / 2];
+        for (int i = 0; i < samples.length; i++)
+            samples[i] = (short) ((bytes[2 * i] & 0xFF) | (bytes[2 * i + 1] << 8));
+        return samples;
+    }
+
+    public synchronized long getBytesWritten() {
+        return written;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(bytes, 0, size, (byte) 0);
+        size = 0;
+    }
+
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+    }
+}
@@ -0,0 +1,25 @@
+package pt.feup.tvvs.soulknight.sound;
+
+import javax.sound.sampled.Clip;
+
+public class NullSoundPlayer implements SoundPlayer {
+    @Override
+    public void start() {
+        // Silent
+    }
+
+    @Override
+    public void stop() {
+        // Silent
+    }
+
+    @Override
+    public void setSound(Clip sound) {
+        // Nothing to play
+    }
+
+    @Override
+    public Clip getSound() {
+        return null;
+    }
+}
@@ -0,0 +1,78 @@
+package pt.feup.tvvs.soulknight.sound;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.SplittableRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The short sounds of the game. Each is decoded once into mixer samples: from {@code sound/<name>.wav}
+ * when the resources have one, otherwise synthesized from a frequency sweep so the game never goes silent.
+ */
+public enum SoundEffect {
+    //     from Hz, to Hz, ms, noise, volume
+    JUMP(  330,    660,   90,  0.0,   0.35),
+    DASH(  900,    180,  120,  0.6,   0.30),
+    ORB(   880,   1760,  160,  0.0,   0.30),
+    HIT(   220,     90,  140,  0.5,   0.45),
+    DEATH( 440,     55,  600,  0.3,   0.45);
+
+    private static final Logger LOGGER = Logger.getLogger(SoundEffect.class.getName());
+
+    private final double fromHz;
+    private final double toHz;
+    private final int millis;
+    private final double noise;
+    private final double volume;
+
+    SoundEffect(double fromHz, double toHz, int millis, double noise, double volume) {
+        this.fromHz = fromHz;
+        this.toHz = toHz;
+        this.millis = millis;
+        this.noise = noise;
+        this.volume = volume;
+    }
+
+    public String getResource() {
+        return "sound/" + name().toLowerCase() + ".wav";
+    }
+
+    // Mono 16-bit samples at the mixer's rate
+    short[] decode(AudioFormat format) {
+        InputStream resource = SoundEffect.class.getClassLoader().getResourceAsStream(getResource());
+        if (resource != null) {
+            try (AudioInputStream in = AudioSystem.getAudioInputStream(format,
+                    AudioSystem.getAudioInputStream(new BufferedInputStream(resource)))) {
+                byte[] bytes = in.readAllBytes();
+                short[] samples = new short[bytes.length / 2];
+                ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(samples);
+                return samples;
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Could not decode " + getResource() + ", synthesizing it", e);
+            }
+        }
+        return synthesize(format.getSampleRate());
+    }
+
+    short[] synthesize(float sampleRate) {
+        int length = (int) (sampleRate * millis / 1000);
+        short[] samples = new short[length];
+        SplittableRandom random = new SplittableRandom(ordinal());
+        double phase = 0;
+        for (int i = 0; i < length; i++) {
+            double t = (double) i / length;
+            phase += 2 * Math.PI * (fromHz + (toHz - fromHz) * t) / sampleRate;
+            double tone = Math.sin(phase) > 0 ? 1 : -1;
+            double value = (1 - noise) * tone + noise * (random.nextDouble() * 2 - 1);
+            double envelope = Math.min(1, i / (sampleRate * 0.005)) * (1 - t);
+            samples[i] = (short) (value * envelope * volume * Short.MAX_VALUE);
+        }
+        return samples;
+    }
+}
@@ -15,6 +15,10 @@ public class CreditsState extends State<Credits>{
         super(model, spriteLoader);
     }
 
+    public CreditsState(Credits model, ViewerProvider viewerProvider) throws IOException {
+        super(model, viewerProvider);
+    }
+
     @Override
     protected ScreenViewer<Credits> createScreenViewer(ViewerProvider viewerProvider) {
         return new CreditsViewer(getModel(), viewerProvider);
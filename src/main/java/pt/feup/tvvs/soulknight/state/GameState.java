@@ -5,6 +5,7 @@ import pt.feup.tvvs.soulknight.controller.game.EnemieController;
 import pt.feup.tvvs.soulknight.controller.game.ParticleController;
 import pt.feup.tvvs.soulknight.controller.game.PlayerController;
 import pt.feup.tvvs.soulknight.controller.game.SceneController;
+import pt.feup.tvvs.soulknight.model.game.scene.RewindBuffer;
 import pt.feup.tvvs.soulknight.model.game.scene.Scene;
 import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
 import pt.feup.tvvs.soulknight.view.sprites.ViewerProvider;
@@ -18,10 +19,16 @@ public class GameState extends State<Scene> {
         super(model, spriteLoader);
     }
 
+    public GameState(Scene model, ViewerProvider viewerProvider) throws IOException {
+        super(model, viewerProvider);
+    }
+
     @Override
     protected Controller<Scene> createController() {
-        return new SceneController(getModel(), new PlayerController(getModel()),
-                new ParticleController(getModel()), new EnemieController(getModel()));
+        Scene scene = getModel();
+        RewindBuffer rewind = scene.getTemplate() != null ? new RewindBuffer(scene) : null;
+        return new SceneController(scene, new PlayerController(scene),
+                new ParticleController(scene), new EnemieController(scene), rewind);
     }
 
     @Override
@@ -0,0 +1,157 @@
+package pt.feup.tvvs.soulknight.state;
+
+import pt.feup.tvvs.soulknight.Game;
+import pt.feup.tvvs.soulknight.model.game.scene.LevelPatch;
+import pt.feup.tvvs.soulknight.model.game.scene.LevelTemplate;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Development mode: watches the level directory and patches edits into the level being played.
+ * A background thread reads a changed file, diffs it against the previous text and replaces the cached
+ * template; the game thread applies the queued patches to its scene at the start of the next tick.
+ */
+public class LevelHotReloader implements Closeable {
+    private static final Logger LOGGER = Logger.getLogger(LevelHotReloader.class.getName());
+
+    private final Path directory;
+    private final WatchService watcher;
+    private final Map<Integer, List<String>> loaded = new HashMap<>();   // watcher thread only
+    private final Queue<Pending> patches = new ConcurrentLinkedQueue<>();
+    private final Thread thread;
+
+    public LevelHotReloader(Path directory) throws IOException {
+        this.directory = directory;
+        try (DirectoryStream<Path> levels = Files.newDirectoryStream(directory, "*.lvl")) {
+            for (Path level : levels) {
+                int id = idOf(level);
+                if (id >= 0) {
+                    // Edits made in an earlier run may not have reached the build output yet
+                    List<String> lines = Files.readAllLines(level, UTF_8);
+                    loaded.put(id, lines);
+                    SceneLoader.replaceTemplate(LevelTemplate.parse(id, lines));
+                }
+            }
+        }
+        this.watcher = directory.getFileSystem().newWatchService();
+        directory.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::watch, "level-hot-reload");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // "level3.lvl" is level 3; anything else in the directory is not a playable level
+    private static int idOf(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith("level") || !name.endsWith(".lvl"))
+            return -1;
+        String digits = name.substring("level".length(), name.length() - ".lvl".length());
+        return !digits.isEmpty() && digits.chars().allMatch(Character::isDigit) ? Integer.parseInt(digits) : -1;
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW)
+                        continue;
+                    Path file = directory.resolve((Path) event.context());
+                    int id = idOf(file);
+                    if (id >= 0)
+                        reload(id, file);
+                }
+                if (!key.reset())
+                    return;
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed
+        }
+    }
+
+    private void reload(int id, Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, UTF_8);
+        } catch (IOException e) {
+            LOGGER.log(Level.FINE, "Could not read " + file + ", waiting for the next change", e);
+            return;
+        }
+        // Editors that truncate before writing show an empty file for a moment
+        if (lines.isEmpty())
+            return;
+        LevelPatch patch = LevelPatch.diff(id, loaded.getOrDefault(id, List.of()), lines);
+        loaded.put(id, lines);
+        if (patch.isEmpty())
+            return;
+        SceneLoader.replaceTemplate(patch.getTemplate());
+        patches.offer(new Pending(id, patch, System.nanoTime()));
+    }
+
+    // Called by the game loop before each tick
+    public void apply(Game game) {
+        State<?> state = game.getState();
+        Scene scene = state != null && state.getModel() instanceof Scene ? (Scene) state.getModel() : null;
+        for (Pending pending; (pending = patches.poll()) != null; ) {
+            game.getLevelPrefetcher().invalidate(pending.id);
+            apply(scene, pending);
+        }
+    }
+
+    // Applies what has arrived to the scene directly, for scenes that are not run by a Game
+    public int apply(Scene scene) {
+        int applied = 0;
+        for (Pending pending; (pending = patches.poll()) != null; )
+            if (apply(scene, pending))
+                applied++;
+        return applied;
+    }
+
+    private static boolean apply(Scene scene, Pending pending) {
+        if (scene == null || scene.getSceneID() != pending.id)
+            return false;
+        pending.patch.apply(scene);
+        if (LOGGER.isLoggable(Level.FINE))
+            LOGGER.fine("Patched " + pending.patch.size() + " cells of level " + pending.id + " "
+                    + (System.nanoTime() - pending.nanos) / 1_000 + " us after reading it");
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        watcher.close();
+        thread.interrupt();
+    }
+
+    private static final class Pending {
+        final int id;
+        final LevelPatch patch;
+        final long nanos;
+
+        Pending(int id, LevelPatch patch, long nanos) {
+            this.id = id;
+            this.patch = patch;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package pt.feup.tvvs.soulknight.state;
+
+import pt.feup.tvvs.soulknight.model.game.scene.LevelTemplate;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
+import pt.feup.tvvs.soulknight.view.sprites.ViewerProvider;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Reads the next level and makes sure the sprites of the shared viewers are loaded, on a background thread
+ * while the current level is played, so starting it only has to instantiate the scene. Used from the game
+ * thread only.
+ */
+public class LevelPrefetcher {
+    private static final Logger LOGGER = Logger.getLogger(LevelPrefetcher.class.getName());
+    // Shared by every game; idle threads go away after a minute
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "level-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ViewerProvider viewerProvider;
+    private final ExecutorService executor;
+    private Future<PreparedLevel> pending;
+    private int pendingId = -1;
+
+    public LevelPrefetcher(SpriteLoader spriteLoader) throws IOException {
+        this(new ViewerProvider(spriteLoader));
+    }
+
+    public LevelPrefetcher(ViewerProvider viewerProvider) {
+        this(viewerProvider, EXECUTOR);
+    }
+
+    public LevelPrefetcher(ViewerProvider viewerProvider, ExecutorService executor) {
+        this.viewerProvider = viewerProvider;
+        this.executor = executor;
+    }
+
+    // Only the latest request is kept
+    public void prefetch(int sceneId) {
+        if (pending != null && pendingId == sceneId)
+            return;
+        pendingId = sceneId;
+        pending = executor.submit(() -> prepare(sceneId));
+    }
+
+    // The level changed on disk: a prefetch of it made before is stale, so it starts over
+    public void invalidate(int sceneId) {
+        if (pending != null && pendingId == sceneId) {
+            pending = null;
+            prefetch(sceneId);
+        }
+    }
+
+    public boolean isReady(int sceneId) {
+        return pending != null && pendingId == sceneId && pending.isDone();
+    }
+
+    // The prefetched level, waiting for it if it is still loading, or loaded right now if it was never requested
+    public PreparedLevel take(int sceneId) throws IOException {
+        Future<PreparedLevel> future = pendingId == sceneId ? pending : null;
+        pending = null;
+        pendingId = -1;
+        if (future != null) {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                LOGGER.log(Level.FINE, "Prefetching level " + sceneId + " failed", e.getCause());
+            }
+        }
+        return prepare(sceneId);
+    }
+
+    private PreparedLevel prepare(int sceneId) throws IOException {
+        LevelTemplate template = SceneLoader.getTemplate(sceneId);
+        viewerProvider.loadAll();
+        return new PreparedLevel(template, viewerProvider);
+    }
+
+    public static class PreparedLevel {
+        private final LevelTemplate template;
+        private final ViewerProvider viewerProvider;
+
+        PreparedLevel(LevelTemplate template, ViewerProvider viewerProvider) {
+            this.template = template;
+            this.viewerProvider = viewerProvider;
+        }
+
+        public LevelTemplate getTemplate() {
+            return template;
+        }
+
+        public ViewerProvider getViewerProvider() {
+            return viewerProvider;
+        }
+    }
+}
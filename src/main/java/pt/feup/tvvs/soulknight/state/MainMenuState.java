@@ -19,6 +19,10 @@ public class MainMenuState extends State<MainMenu> {
         super(model, spriteLoader);
     }
 
+    public MainMenuState(MainMenu model, ViewerProvider viewerProvider) throws IOException {
+        super(model, viewerProvider);
+    }
+
     @Override
     protected ScreenViewer<MainMenu> createScreenViewer(ViewerProvider viewerProvider) throws IOException {
         return new MenuViewer<>(getModel(), viewerProvider);
@@ -17,6 +17,10 @@ public class SettingsMenuState extends State<SettingsMenu> {
         super(menu, spriteLoader);
     }
 
+    public SettingsMenuState(SettingsMenu menu, ViewerProvider viewerProvider) throws IOException {
+        super(menu, viewerProvider);
+    }
+
     @Override
     protected Controller<SettingsMenu> createController() {
         return new SettingsMenuController(
@@ -2,7 +2,9 @@ package pt.feup.tvvs.soulknight.state;
 
 import pt.feup.tvvs.soulknight.Game;
 import pt.feup.tvvs.soulknight.controller.Controller;
+import pt.feup.tvvs.soulknight.gui.ActionSet;
 import pt.feup.tvvs.soulknight.gui.GUI;
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
 import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
 import pt.feup.tvvs.soulknight.view.sprites.ViewerProvider;
 import pt.feup.tvvs.soulknight.view.states.ScreenViewer;
@@ -15,10 +17,16 @@ public abstract class State<T> {
     private final T model;
     private final Controller<T> controller;
     private final ScreenViewer<T> screenViewer;
+    private final ActionSet actions = new ActionSet();
 
     public State(T model, SpriteLoader spriteLoader) throws IOException {
+        this(model, new ViewerProvider(spriteLoader));
+    }
+
+    // Viewers shared with the game's other states, whose sprites may already be loaded
+    public State(T model, ViewerProvider viewerProvider) throws IOException {
         this.model = model;
-        this.screenViewer = createScreenViewer(new ViewerProvider(spriteLoader));
+        this.screenViewer = createScreenViewer(viewerProvider);
         this.controller = createController();
     }
 
@@ -29,8 +37,18 @@ public abstract class State<T> {
     }
 
     public void move(Game game, GUI gui, long time) throws IOException, URISyntaxException, FontFormatException {
-        GUI.ACTION action = gui.getACTION();
-        controller.move(game, action, time);
+        FrameProfiler profiler = FrameProfiler.orDisabled(game.getProfiler());
+        long start = profiler.begin();
+        gui.pollActions(actions);
+        profiler.end(FrameProfiler.Phase.INPUT, start);
+        profiler.getInputLatency().beginTick(actions.getInputNanos());
+        step(game, actions, time);
         screenViewer.draw(gui, time);
+        profiler.getInputLatency().endTick();
+    }
+
+    // Game logic only, without polling input or drawing
+    public void step(Game game, ActionSet actions, long time) throws IOException, URISyntaxException, FontFormatException {
+        controller.move(game, actions, time);
     }
 }
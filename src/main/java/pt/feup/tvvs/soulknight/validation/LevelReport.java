@@ -0,0 +1,113 @@
+package pt.feup.tvvs.soulknight.validation;
+
+import pt.feup.tvvs.soulknight.model.dataStructs.Position;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * What {@link LevelValidator} found in one level file. Positions are tile coordinates (column, row).
+ */
+public class LevelReport {
+    private final String name;
+    private final List<String> errors = new ArrayList<>();
+    private final List<String> warnings = new ArrayList<>();
+    private final List<Position> deadZones = new ArrayList<>();
+    private final List<Position> unreachableSpikes = new ArrayList<>();
+    private int reachableCells;
+    private int orbs;
+    private int reachableOrbs;
+    private long durationNanos;
+
+    public LevelReport(String name) {
+        this.name = name;
+    }
+
+    void error(String message) {
+        errors.add(message);
+    }
+
+    void warning(String message) {
+        warnings.add(message);
+    }
+
+    void addDeadZone(int col, int row) {
+        deadZones.add(new Position(col, row));
+    }
+
+    void addUnreachableSpike(int col, int row) {
+        unreachableSpikes.add(new Position(col, row));
+    }
+
+    void setReachableCells(int reachableCells) {
+        this.reachableCells = reachableCells;
+    }
+
+    void setOrbs(int orbs, int reachableOrbs) {
+        this.orbs = orbs;
+        this.reachableOrbs = reachableOrbs;
+    }
+
+    void setDurationNanos(long durationNanos) {
+        this.durationNanos = durationNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isValid() {
+        return errors.isEmpty();
+    }
+
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    public List<String> getWarnings() {
+        return Collections.unmodifiableList(warnings);
+    }
+
+    // Places the knight can stand on after leaving 'P' but from which the exit can no longer be reached
+    public List<Position> getDeadZones() {
+        return Collections.unmodifiableList(deadZones);
+    }
+
+    // Spikes the knight can never get next to
+    public List<Position> getUnreachableSpikes() {
+        return Collections.unmodifiableList(unreachableSpikes);
+    }
+
+    // Cells the knight can stand on, starting from 'P'
+    public int getReachableCells() {
+        return reachableCells;
+    }
+
+    public int getOrbs() {
+        return orbs;
+    }
+
+    // Orbs the knight can collect and still make it to the exit afterwards
+    public int getReachableOrbs() {
+        return reachableOrbs;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(String.format(Locale.ROOT,
+                "%s: %s, %d standable cells, orbs %d/%d, %d dead zones, %d unreachable spikes (%.2f ms)",
+                name, isValid() ? "ok" : "INVALID", reachableCells, reachableOrbs, orbs, deadZones.size(),
+                unreachableSpikes.size(), durationNanos / 1_000_000.0));
+        for (String error : errors)
+            builder.append(System.lineSeparator()).append("  error: ").append(error);
+        for (String warning : warnings)
+            builder.append(System.lineSeparator()).append("  warning: ").append(warning);
+        return builder.toString();
+    }
+}
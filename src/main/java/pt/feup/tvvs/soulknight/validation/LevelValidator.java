@@ -0,0 +1,364 @@
+package pt.feup.tvvs.soulknight.validation;
+
+import pt.feup.tvvs.soulknight.Game;
+import pt.feup.tvvs.soulknight.model.game.elements.collectables.OrbFactory;
+import pt.feup.tvvs.soulknight.model.game.elements.tile.Tile;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Checks that a level can be finished. Every cell the knight can stand on is a node of a movement graph,
+ * with an edge to every other one it can land on in a single move ({@link MovementModel}) without flying
+ * through walls or spikes. A BFS from 'P' and another one backwards from the exit then tell which orbs can be
+ * collected on the way out, which places are dead ends and which spikes the knight never gets near.
+ * <p>
+ * Orbs are counted per level: the knight must hold exactly {@value #REQUIRED_ORBS} more orbs at every exit.
+ */
+public class LevelValidator {
+    public static final int REQUIRED_ORBS = 3;
+
+    private static final int COLS = Game.PIXEL_WIDTH / Tile.SIZE;
+    private static final int ROWS = Game.PIXEL_HEIGHT / Tile.SIZE;
+
+    private final MovementModel movement;
+
+    public LevelValidator(MovementModel movement) {
+        this.movement = movement;
+    }
+
+    public LevelValidator() {
+        this(new MovementModel());
+    }
+
+    // Every *.lvl file in the directory, validated in parallel and reported in file name order
+    public List<LevelReport> validateAll(Path directory) throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(path -> path.getFileName().toString().endsWith(".lvl"))
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .collect(Collectors.toList());
+        }
+        try {
+            return files.parallelStream().map(this::validate).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // The *.lvl files under a classpath directory, from the build directory or from inside the jar
+    public List<LevelReport> validateResources(String root) throws IOException {
+        URL url = LevelValidator.class.getClassLoader().getResource(root);
+        if (url == null)
+            throw new IOException("No " + root + " on the classpath");
+        try {
+            URI uri = url.toURI();
+            if ("jar".equals(uri.getScheme())) {
+                FileSystem jar;
+                try {
+                    jar = FileSystems.newFileSystem(uri, Collections.emptyMap());
+                } catch (FileSystemAlreadyExistsException e) {
+                    jar = FileSystems.getFileSystem(uri);
+                }
+                return validateAll(jar.getPath(root));
+            }
+            return validateAll(Paths.get(uri));
+        } catch (URISyntaxException e) {
+            throw new IOException("Cannot list " + url, e);
+        }
+    }
+
+    public LevelReport validate(Path file) {
+        try {
+            return validate(file.getFileName().toString(), Files.readAllLines(file, UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public LevelReport validate(String name, List<String> lines) {
+        long start = System.nanoTime();
+        LevelReport report = new LevelReport(name);
+        new Graph(lines, report).check();
+        report.setDurationNanos(System.nanoTime() - start);
+        return report;
+    }
+
+    private static class Edge {
+        final int to;
+        final int[] cells;
+
+        Edge(int to, int[] cells) {
+            this.to = to;
+            this.cells = cells;
+        }
+    }
+
+    private class Graph {
+        private final char[][] grid = new char[ROWS][COLS];
+        private final LevelReport report;
+        private final List<List<Edge>> edges = new ArrayList<>(ROWS * COLS);
+        private final List<List<Integer>> incoming = new ArrayList<>(ROWS * COLS);
+        private final int[] path = new int[2 * (ROWS + COLS)];
+        private int startCell = -1;
+        private int exitCol = -1;
+
+        Graph(List<String> lines, LevelReport report) {
+            this.report = report;
+            for (int row = 0; row < ROWS; row++) {
+                String line = row < lines.size() ? lines.get(row) : "";
+                for (int col = 0; col < COLS; col++) {
+                    char c = col < line.length() ? line.charAt(col) : ' ';
+                    grid[row][col] = c;
+                    if (c == 'P' && startCell < 0)
+                        startCell = cell(col, row);
+                    else if (c == 'u' && exitCol < 0)
+                        exitCol = col;
+                }
+            }
+            for (int i = 0; i < ROWS * COLS; i++) {
+                edges.add(new ArrayList<>());
+                incoming.add(new ArrayList<>());
+            }
+        }
+
+        private int cell(int col, int row) {
+            return row * COLS + col;
+        }
+
+        private boolean blocked(int col, int row) {
+            return col < 0 || col >= COLS || row < 0 || row >= ROWS || SceneLoader.isSolid(grid[row][col]);
+        }
+
+        private boolean free(int col, int row) {
+            return !blocked(col, row) && !SceneLoader.isSpike(grid[row][col]);
+        }
+
+        private boolean standable(int col, int row) {
+            return free(col, row) && blocked(col, row + 1);
+        }
+
+        private boolean isOrb(char c) {
+            return c == OrbFactory.ENERGY_ORB || c == OrbFactory.SPEED_ORB || c == OrbFactory.HEALTH_ORB;
+        }
+
+        void check() {
+            if (startCell < 0)
+                report.error("no knight start 'P'");
+            if (exitCol < 0)
+                report.error("no exit 'u'");
+            if (startCell < 0 || exitCol < 0)
+                return;
+
+            int start = land(startCell % COLS, startCell / COLS);
+            if (start < 0) {
+                report.error("the knight falls from 'P' straight onto spikes");
+                return;
+            }
+
+            for (int row = 0; row < ROWS; row++)
+                for (int col = 0; col < COLS; col++)
+                    if (standable(col, row))
+                        connect(col, row);
+
+            boolean[] reached = forward(start);
+            boolean[] exits = backward();
+            if (!exits[start])
+                report.error("the exit cannot be reached from 'P'");
+
+            boolean[] touched = new boolean[ROWS * COLS];
+            boolean[] safe = new boolean[ROWS * COLS];
+            int standableCells = 0;
+            for (int node = 0; node < reached.length; node++) {
+                if (!reached[node])
+                    continue;
+                standableCells++;
+                if (!exits[node])
+                    report.addDeadZone(node % COLS, node / COLS);
+                markJump(node, touched, exits[node] ? safe : null);
+                for (Edge edge : edges.get(node)) {
+                    for (int cell : edge.cells) {
+                        touched[cell] = true;
+                        if (exits[edge.to])
+                            safe[cell] = true;
+                    }
+                }
+            }
+            report.setReachableCells(standableCells);
+            checkOrbs(touched, safe);
+            checkSpikes(touched);
+        }
+
+        // Where the knight ends up when dropped at (col, row), or -1 if it lands on spikes
+        private int land(int col, int row) {
+            while (free(col, row) && !standable(col, row))
+                row++;
+            return free(col, row) ? cell(col, row) : -1;
+        }
+
+        private void connect(int col, int row) {
+            int from = cell(col, row);
+            int maxRise = movement.getMaxRise();
+            for (int toRow = Math.max(0, row - maxRise); toRow < ROWS; toRow++) {
+                int reach = movement.getReach(row - toRow);
+                for (int toCol = Math.max(0, col - reach); toCol <= Math.min(COLS - 1, col + reach); toCol++) {
+                    if ((toCol == col && toRow == row) || !standable(toCol, toRow))
+                        continue;
+                    int length = flight(col, row, toCol, toRow, maxRise);
+                    if (length > 0) {
+                        int to = cell(toCol, toRow);
+                        edges.get(from).add(new Edge(to, Arrays.copyOf(path, length)));
+                        incoming.get(to).add(from);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Straight up from the take-off cell, across at the lowest clear peak and down onto the landing cell.
+         * The cells flown through are left in {@link #path}; returns their count, or 0 if there is no clear way.
+         */
+        private int flight(int col, int row, int toCol, int toRow, int maxRise) {
+            int step = Integer.signum(toCol - col);
+            for (int peak = Math.min(row, toRow); peak >= Math.max(0, row - maxRise); peak--) {
+                if (!free(col, peak))
+                    return 0;
+                int length = 0;
+                for (int r = row; r > peak; r--)
+                    path[length++] = cell(col, r);
+                boolean clear = true;
+                for (int c = col; clear && c != toCol; c += step) {
+                    clear = free(c, peak);
+                    path[length++] = cell(c, peak);
+                }
+                for (int r = peak; clear && r <= toRow; r++) {
+                    clear = free(toCol, r);
+                    path[length++] = cell(toCol, r);
+                }
+                if (clear)
+                    return length;
+            }
+            return 0;
+        }
+
+        private boolean[] forward(int start) {
+            boolean[] reached = new boolean[ROWS * COLS];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            reached[start] = true;
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                for (Edge edge : edges.get(queue.poll())) {
+                    if (!reached[edge.to]) {
+                        reached[edge.to] = true;
+                        queue.add(edge.to);
+                    }
+                }
+            }
+            return reached;
+        }
+
+        // Nodes from which the knight can get past the exit column
+        private boolean[] backward() {
+            boolean[] exits = new boolean[ROWS * COLS];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int node = 0; node < ROWS * COLS; node++) {
+                if (node % COLS >= exitCol && standable(node % COLS, node / COLS)) {
+                    exits[node] = true;
+                    queue.add(node);
+                }
+            }
+            while (!queue.isEmpty()) {
+                for (int from : incoming.get(queue.poll())) {
+                    if (!exits[from]) {
+                        exits[from] = true;
+                        queue.add(from);
+                    }
+                }
+            }
+            return exits;
+        }
+
+        // The knight can also just jump in place
+        private void markJump(int node, boolean[] touched, boolean[] safe) {
+            int col = node % COLS;
+            for (int row = node / COLS; row >= node / COLS - movement.getMaxRise() && free(col, row); row--) {
+                touched[cell(col, row)] = true;
+                if (safe != null)
+                    safe[cell(col, row)] = true;
+            }
+        }
+
+        private void checkOrbs(boolean[] touched, boolean[] safe) {
+            int orbs = 0, collectable = 0;
+            for (int row = 0; row < ROWS; row++) {
+                for (int col = 0; col < COLS; col++) {
+                    if (!isOrb(grid[row][col]))
+                        continue;
+                    orbs++;
+                    int cell = cell(col, row);
+                    if (safe[cell])
+                        collectable++;
+                    else if (touched[cell])
+                        report.warning("orb at (" + col + ", " + row + ") strands the knight away from the exit");
+                    else
+                        report.warning("orb at (" + col + ", " + row + ") cannot be reached");
+                }
+            }
+            report.setOrbs(orbs, collectable);
+            if (collectable < REQUIRED_ORBS)
+                report.error("only " + collectable + " of the " + REQUIRED_ORBS + " orbs needed can be collected");
+            else if (orbs > REQUIRED_ORBS)
+                report.warning(orbs + " orbs: collecting more than " + REQUIRED_ORBS + " locks the exit");
+        }
+
+        private void checkSpikes(boolean[] touched) {
+            for (int row = 0; row < ROWS; row++) {
+                for (int col = 0; col < COLS; col++) {
+                    if (blocked(col, row) || free(col, row))
+                        continue;
+                    if (!touchedAt(touched, col - 1, row) && !touchedAt(touched, col + 1, row)
+                            && !touchedAt(touched, col, row - 1) && !touchedAt(touched, col, row + 1))
+                        report.addUnreachableSpike(col, row);
+                }
+            }
+        }
+
+        private boolean touchedAt(boolean[] touched, int col, int row) {
+            return col >= 0 && col < COLS && row >= 0 && row < ROWS && touched[cell(col, row)];
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : "src/main/resources/levels");
+        long start = System.nanoTime();
+        List<LevelReport> reports = new LevelValidator().validateAll(directory);
+        boolean valid = true;
+        for (LevelReport report : reports) {
+            System.out.println(report);
+            valid &= report.isValid();
+        }
+        System.out.printf("%d levels in %.1f ms%n", reports.size(), (System.nanoTime() - start) / 1_000_000.0);
+        if (!valid)
+            System.exit(1);
+    }
+}
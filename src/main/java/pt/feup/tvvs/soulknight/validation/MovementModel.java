@@ -0,0 +1,111 @@
+package pt.feup.tvvs.soulknight.validation;
+
+import pt.feup.tvvs.soulknight.Game;
+import pt.feup.tvvs.soulknight.controller.game.PlayerController;
+import pt.feup.tvvs.soulknight.gui.ActionSet;
+import pt.feup.tvvs.soulknight.gui.GUI;
+import pt.feup.tvvs.soulknight.model.dataStructs.Position;
+import pt.feup.tvvs.soulknight.model.dataStructs.Vector;
+import pt.feup.tvvs.soulknight.model.game.elements.Element;
+import pt.feup.tvvs.soulknight.model.game.elements.Spike;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.IdleState;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.elements.tile.Tile;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * How far the knight can get in one airborne move, in tiles. The real knight is flown off a one-tile ledge
+ * in an empty scene by the player controller, at full speed to the right, once for every timing of the double
+ * jump and the dash, and the furthest column reached at each height is kept. The run-up is assumed, so the
+ * reach is a bit optimistic.
+ */
+public class MovementModel {
+    private static final int START_ROW = 6;
+    private static final int LAST_PRESS = 30;
+    private static final int MAX_TICKS = 200;
+
+    private final int maxRise;
+    private final int maxDrop;
+    private final int[] reach;
+
+    public MovementModel() {
+        int rows = Game.PIXEL_HEIGHT / Tile.SIZE;
+        this.maxDrop = rows - 1 - START_ROW;
+
+        Scene scene = new Scene(Game.PIXEL_WIDTH, Game.PIXEL_HEIGHT, 0, 0L);
+        scene.setSpikes(new Spike[Game.PIXEL_HEIGHT][Game.PIXEL_WIDTH]);
+        Element[][] map = new Element[Game.PIXEL_HEIGHT][Game.PIXEL_WIDTH];
+        map[START_ROW + 1][0] = new Tile(0, (START_ROW + 1) * Tile.SIZE, 'G');
+        scene.setMap(map);
+        Knight knight = new Knight(0, 0, 50, 10, 1);
+        scene.setPlayer(knight);
+        PlayerController controller = new PlayerController(scene);
+
+        // Furthest knight x with its feet on each row, from START_ROW rows above the ledge down to the bottom
+        double[] bestX = new double[START_ROW + 1 + maxDrop];
+        Arrays.fill(bestX, -1);
+        for (int doubleJump = -1; doubleJump <= LAST_PRESS; doubleJump++)
+            for (int dash = -1; dash <= LAST_PRESS; dash++)
+                fly(scene, knight, controller, doubleJump, dash, bestX);
+
+        int rise = START_ROW;
+        while (rise > 0 && bestX[START_ROW - rise] < 0)
+            rise--;
+        this.maxRise = rise;
+        this.reach = new int[maxRise + maxDrop + 1];
+        // Being higher up never hurts: the knight can fall onto anything lower it flies over
+        double best = -1;
+        for (int r = maxRise; r >= -maxDrop; r--) {
+            best = Math.max(best, bestX[START_ROW - r]);
+            reach[r + maxDrop] = best < 0 ? 0 : (int) ((best + knight.getWidth() - 1) / Tile.SIZE);
+        }
+    }
+
+    // Jumps off the ledge on tick 0, then double jumps and dashes on the given ticks (-1: never)
+    private static void fly(Scene scene, Knight knight, PlayerController controller, int doubleJump, int dash,
+                            double[] bestX) {
+        knight.setPosition(new Position(0, START_ROW * Tile.SIZE));
+        knight.setVelocity(new Vector(knight.getMaxVelocity().x(), 0));
+        knight.setJumpCounter(0);
+        knight.setFacingRight(true);
+        knight.setState(new IdleState(knight));
+        knight.setScene(scene);
+
+        ActionSet actions = new ActionSet();
+        try {
+            for (int tick = 0; tick < MAX_TICKS; tick++) {
+                actions.set(GUI.ACTION.RIGHT);
+                if (tick == 0 || tick == doubleJump)
+                    actions.add(GUI.ACTION.JUMP);
+                if (tick == dash)
+                    actions.add(GUI.ACTION.DASH);
+                controller.move(null, actions, tick);
+
+                double x = knight.getPosition().x();
+                int row = (int) Math.floor((knight.getPosition().y() + knight.getHeight() - 1) / Tile.SIZE);
+                if (row >= 0 && row < bestX.length)
+                    bestX[row] = Math.max(bestX[row], x);
+                if (tick > 0 && knight.isOnGround())
+                    return;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Rows the knight can climb in one move
+    public int getMaxRise() {
+        return maxRise;
+    }
+
+    // Columns the knight can cover while ending `rise` rows above its take-off row (negative rise: below it)
+    public int getReach(int rise) {
+        if (rise > maxRise)
+            return -1;
+        return reach[Math.max(-maxDrop, rise) + maxDrop];
+    }
+}
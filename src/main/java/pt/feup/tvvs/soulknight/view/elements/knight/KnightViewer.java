@@ -34,7 +34,7 @@ public class KnightViewer implements ElementViewer<Knight> {
         // Load animations for each state
 
         for (StateAnimation animation : animations) {
-            animation.loadAnimation("sprites/Knight"); // Base path to sprites
+            animation.loadAnimation(spriteLoader, "sprites/Knight"); // Base path to sprites
         }
     }
 
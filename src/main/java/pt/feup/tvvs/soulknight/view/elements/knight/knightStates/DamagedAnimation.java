@@ -3,6 +3,7 @@ package pt.feup.tvvs.soulknight.view.elements.knight.knightStates;
 import pt.feup.tvvs.soulknight.model.game.elements.knight.DamagedState;
 import pt.feup.tvvs.soulknight.model.dataStructs.PairList;
 import pt.feup.tvvs.soulknight.view.sprites.Sprite;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -14,12 +15,12 @@ public class DamagedAnimation extends StateAnimation{
     }
 
     @Override
-    public void loadAnimation(String path) throws IOException {
+    public void loadAnimation(SpriteLoader spriteLoader, String path) throws IOException {
         List<Sprite> DamagedRight = new ArrayList<>();
         List<Sprite> DamagedLeft = new ArrayList<>();
         for (int i = 1; i <= 2; i++) {
-            DamagedRight.add(new Sprite(path + "/damaged/movement/falling/damaged-falling-"+i + ".png"));
-            DamagedLeft.add(new Sprite(path + "/damaged/movement/falling/damaged-falling-"+i+"-reversed.png"));
+            DamagedRight.add(spriteLoader.get(path + "/damaged/movement/falling/damaged-falling-"+i + ".png"));
+            DamagedLeft.add(spriteLoader.get(path + "/damaged/movement/falling/damaged-falling-"+i+"-reversed.png"));
         }
         setState(DamagedState.class);
         setAnimation(new PairList<>(DamagedRight, DamagedLeft));
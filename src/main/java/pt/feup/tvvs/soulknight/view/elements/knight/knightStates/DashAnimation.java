@@ -3,6 +3,7 @@ package pt.feup.tvvs.soulknight.view.elements.knight.knightStates;
 import pt.feup.tvvs.soulknight.model.game.elements.knight.DashState;
 import pt.feup.tvvs.soulknight.model.dataStructs.PairList;
 import pt.feup.tvvs.soulknight.view.sprites.Sprite;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -14,12 +15,12 @@ public class DashAnimation extends StateAnimation{
     }
 
     @Override
-    public void loadAnimation(String path) throws IOException {
+    public void loadAnimation(SpriteLoader spriteLoader, String path) throws IOException {
         List<Sprite> DashRight = new ArrayList<>();
         List<Sprite> DashLeft = new ArrayList<>();
         for (int i = 1; i <= 5; i++) {
-            DashRight.add(new Sprite(path + "/movement/dashing/dashing-" + i + ".png"));
-            DashLeft.add(new Sprite(path + "/movement/dashing/dashing-" + i + "-reversed.png"));
+            DashRight.add(spriteLoader.get(path + "/movement/dashing/dashing-" + i + ".png"));
+            DashLeft.add(spriteLoader.get(path + "/movement/dashing/dashing-" + i + "-reversed.png"));
         }
         setState(DashState.class);
         setAnimation(new PairList<>(DashRight, DashLeft));
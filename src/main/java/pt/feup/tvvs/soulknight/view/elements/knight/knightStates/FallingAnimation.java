@@ -3,6 +3,7 @@ package pt.feup.tvvs.soulknight.view.elements.knight.knightStates;
 import pt.feup.tvvs.soulknight.model.game.elements.knight.FallingState;
 import pt.feup.tvvs.soulknight.model.dataStructs.PairList;
 import pt.feup.tvvs.soulknight.view.sprites.Sprite;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -14,12 +15,12 @@ public class FallingAnimation extends StateAnimation{
     }
 
     @Override
-    public void loadAnimation(String path) throws IOException {
+    public void loadAnimation(SpriteLoader spriteLoader, String path) throws IOException {
         List<Sprite> fallingSpriteRight = new ArrayList<>();
         List<Sprite> fallingSpriteLeft = new ArrayList<>();
         for (int i = 0; i < 6; i++) {
-            fallingSpriteLeft.add(new Sprite(path + "/movement/falling/pixil-frame-" + i +".png"));
-            fallingSpriteRight.add(new Sprite(path + "/movement/falling/pixil-frame-"+ i + "-reversed.png"));
+            fallingSpriteLeft.add(spriteLoader.get(path + "/movement/falling/pixil-frame-" + i +".png"));
+            fallingSpriteRight.add(spriteLoader.get(path + "/movement/falling/pixil-frame-"+ i + "-reversed.png"));
         }
         setState(FallingState.class);
         setAnimation(new PairList<>(fallingSpriteLeft, fallingSpriteRight));
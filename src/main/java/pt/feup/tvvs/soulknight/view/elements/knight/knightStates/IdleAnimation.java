@@ -3,6 +3,7 @@ package pt.feup.tvvs.soulknight.view.elements.knight.knightStates;
 import pt.feup.tvvs.soulknight.model.game.elements.knight.IdleState;
 import pt.feup.tvvs.soulknight.model.dataStructs.PairList;
 import pt.feup.tvvs.soulknight.view.sprites.Sprite;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -14,12 +15,12 @@ public class IdleAnimation extends StateAnimation{
     }
 
     @Override
-    public void loadAnimation(String path) throws IOException {
+    public void loadAnimation(SpriteLoader spriteLoader, String path) throws IOException {
         List<Sprite> idleSpriteRight = new ArrayList<>();
         List<Sprite> idleSpriteLeft = new ArrayList<>();
         for (int i = 0; i < 16; i++) {
-            idleSpriteRight.add(new Sprite(path + "/Idle/pixil-frame-" + i + ".png"));
-            idleSpriteLeft.add(new Sprite(path + "/Idle/pixil-frame-" + i + "-reversed.png"));
+            idleSpriteRight.add(spriteLoader.get(path + "/Idle/pixil-frame-" + i + ".png"));
+            idleSpriteLeft.add(spriteLoader.get(path + "/Idle/pixil-frame-" + i + "-reversed.png"));
         }
         this.setState(IdleState.class);
         this.setFrames(8);
@@ -3,6 +3,7 @@ package pt.feup.tvvs.soulknight.view.elements.knight.knightStates;
 import pt.feup.tvvs.soulknight.model.game.elements.knight.JumpState;
 import pt.feup.tvvs.soulknight.model.dataStructs.PairList;
 import pt.feup.tvvs.soulknight.view.sprites.Sprite;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -14,13 +15,13 @@ public class JumpAnimation extends StateAnimation {
     }
 
     @Override
-    public void loadAnimation(String path) throws IOException {
+    public void loadAnimation(SpriteLoader spriteLoader, String path) throws IOException {
         List<Sprite> jumpingSpriteLeft = new ArrayList<>();
         List<Sprite> jumpingSpriteRight = new ArrayList<>();
 
         for (int i = 0; i < 1; i++) {
-            jumpingSpriteLeft.add(new Sprite(path + "/movement/jumping/pixil-frame-" + i + ".png"));
-            jumpingSpriteRight.add(new Sprite(path + "/movement/jumping/pixil-frame-" + i + "-reversed.png"));
+            jumpingSpriteLeft.add(spriteLoader.get(path + "/movement/jumping/pixil-frame-" + i + ".png"));
+            jumpingSpriteRight.add(spriteLoader.get(path + "/movement/jumping/pixil-frame-" + i + "-reversed.png"));
         }
         setState(JumpState.class);
         setAnimation(new PairList<>(jumpingSpriteLeft, jumpingSpriteRight));
@@ -3,6 +3,7 @@ package pt.feup.tvvs.soulknight.view.elements.knight.knightStates;
 import pt.feup.tvvs.soulknight.model.game.elements.knight.MaxVelocityState;
 import pt.feup.tvvs.soulknight.model.dataStructs.PairList;
 import pt.feup.tvvs.soulknight.view.sprites.Sprite;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -14,12 +15,12 @@ public class MaxVelocityAnimation extends StateAnimation{
     }
 
     @Override
-    public void loadAnimation(String path) throws IOException {
+    public void loadAnimation(SpriteLoader spriteLoader, String path) throws IOException {
         List<Sprite> maxVelocityRight = new ArrayList<>();
         List<Sprite> maxVelocityLeft = new ArrayList<>();
         for (int i = 0; i < 3; i++) {
-            maxVelocityRight.add(new Sprite(path + "/movement/maxVelocity/frame-" + i + ".png"));
-            maxVelocityLeft.add(new Sprite(path + "/movement/maxVelocity/frame-" + i + "-reversed.png"));
+            maxVelocityRight.add(spriteLoader.get(path + "/movement/maxVelocity/frame-" + i + ".png"));
+            maxVelocityLeft.add(spriteLoader.get(path + "/movement/maxVelocity/frame-" + i + "-reversed.png"));
         }
         setState(MaxVelocityState.class);
         setAnimation(new PairList<>(maxVelocityRight, maxVelocityLeft));
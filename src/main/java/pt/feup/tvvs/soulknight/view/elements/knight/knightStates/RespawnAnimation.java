@@ -1,6 +1,7 @@
 package pt.feup.tvvs.soulknight.view.elements.knight.knightStates;
 
 import pt.feup.tvvs.soulknight.model.dataStructs.PairList;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
 
 public class RespawnAnimation extends StateAnimation{
     public RespawnAnimation(Class state, int frames) {
@@ -8,7 +9,7 @@ public class RespawnAnimation extends StateAnimation{
     }
 
     @Override
-    public void loadAnimation(String path) {
+    public void loadAnimation(SpriteLoader spriteLoader, String path) {
         setState(RunningAnimation.class);
         setAnimation(new PairList<>(null, null));
         setFrames(1);
@@ -3,6 +3,7 @@ package pt.feup.tvvs.soulknight.view.elements.knight.knightStates;
 import pt.feup.tvvs.soulknight.model.game.elements.knight.RunningState;
 import pt.feup.tvvs.soulknight.model.dataStructs.PairList;
 import pt.feup.tvvs.soulknight.view.sprites.Sprite;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -14,12 +15,12 @@ public class RunningAnimation extends StateAnimation{
     }
 
     @Override
-    public void loadAnimation(String path) throws IOException {
+    public void loadAnimation(SpriteLoader spriteLoader, String path) throws IOException {
         List<Sprite> runningSpriteRight = new ArrayList<>();
         List<Sprite> runningSpriteLeft = new ArrayList<>();
         for (int i = 0; i < 5; i++) {
-            runningSpriteRight.add(new Sprite(path + "/movement/running/running-final-" + i + ".png"));
-            runningSpriteLeft.add(new Sprite(path + "/movement/running/running-final-" + i + "-reversed.png"));
+            runningSpriteRight.add(spriteLoader.get(path + "/movement/running/running-final-" + i + ".png"));
+            runningSpriteLeft.add(spriteLoader.get(path + "/movement/running/running-final-" + i + "-reversed.png"));
         }
         setState(RunningState.class);
         setAnimation(new PairList<>(runningSpriteRight, runningSpriteLeft));
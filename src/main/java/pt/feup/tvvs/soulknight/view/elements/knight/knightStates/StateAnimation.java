@@ -2,6 +2,7 @@ package pt.feup.tvvs.soulknight.view.elements.knight.knightStates;
 
 import pt.feup.tvvs.soulknight.model.dataStructs.PairList;
 import pt.feup.tvvs.soulknight.view.sprites.Sprite;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
 
 import java.io.IOException;
 import java.util.List;
@@ -46,5 +47,6 @@ public abstract class StateAnimation {
         return sprites.get(frameIndex);
     }
 
-    public abstract void loadAnimation(String path) throws IOException;
+    // Sprites come from the loader, so they are shared with every other viewer using it
+    public abstract void loadAnimation(SpriteLoader spriteLoader, String path) throws IOException;
 }
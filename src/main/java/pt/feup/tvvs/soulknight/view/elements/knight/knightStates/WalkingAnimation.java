@@ -3,6 +3,7 @@ package pt.feup.tvvs.soulknight.view.elements.knight.knightStates;
 import pt.feup.tvvs.soulknight.model.game.elements.knight.WalkingState;
 import pt.feup.tvvs.soulknight.model.dataStructs.PairList;
 import pt.feup.tvvs.soulknight.view.sprites.Sprite;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -14,12 +15,12 @@ public class WalkingAnimation extends StateAnimation {
     }
 
     @Override
-    public void loadAnimation(String path) throws IOException {
+    public void loadAnimation(SpriteLoader spriteLoader, String path) throws IOException {
         List<Sprite> walkingSpriteRight = new ArrayList<>();
         List<Sprite> walkingSpriteLeft = new ArrayList<>();
         for (int i = 0; i < 5; i++) {
-            walkingSpriteLeft.add(new Sprite(path + "/movement/walking/running-intermediate-" + i + ".png"));
-            walkingSpriteRight.add(new Sprite(path + "/movement/walking/running-intermediate-" + i + "-reversed.png"));
+            walkingSpriteLeft.add(spriteLoader.get(path + "/movement/walking/running-intermediate-" + i + ".png"));
+            walkingSpriteRight.add(spriteLoader.get(path + "/movement/walking/running-intermediate-" + i + "-reversed.png"));
         }
         setState(WalkingState.class);
         setAnimation(new PairList<>(walkingSpriteLeft, walkingSpriteRight));
@@ -1,20 +1,60 @@
 package pt.feup.tvvs.soulknight.view.sprites;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.io.UncheckedIOException;
+import java.nio.IntBuffer;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+// Safe to share between games running on different threads, e.g. parallel headless simulations
 public class GameSpriteLoader implements SpriteLoader {
     final Map<String, Sprite> spriteMap;
 
     public GameSpriteLoader() {
-        spriteMap = new HashMap<>();
+        spriteMap = new ConcurrentHashMap<>();
     }
 
+    // Starts with every sprite of the atlas; anything else asked for is still decoded on its own
+    public GameSpriteLoader(SpriteAtlas atlas) {
+        this();
+        spriteMap.putAll(atlas.getSprites());
+    }
+
+    // Different sprites are decoded side by side; threads asking for the same one wait for the first to decode it
     @Override
     public Sprite get(String spriteFilepath) throws IOException {
-        if (!spriteMap.containsKey(spriteFilepath))
-            spriteMap.put(spriteFilepath, new Sprite(spriteFilepath));
-        return spriteMap.get(spriteFilepath);
+        Sprite sprite = spriteMap.get(spriteFilepath);
+        if (sprite != null)
+            return sprite;
+        try {
+            return spriteMap.computeIfAbsent(spriteFilepath, GameSpriteLoader::decode);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Sprite decode(String spriteFilepath) {
+        try {
+            return new Sprite(spriteFilepath);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int getCacheSize() {
+        return spriteMap.size();
+    }
+
+    // Size of the pixel pages held by the cached sprites, counting a shared atlas page once
+    public long getCacheBytes() {
+        long bytes = 0;
+        Set<IntBuffer> pages = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Sprite sprite : spriteMap.values())
+            if (pages.add(sprite.getPage()))
+                bytes += (long) sprite.getPage().capacity() * Integer.BYTES;
+        return bytes;
     }
 }
@@ -5,26 +5,115 @@ import com.googlecode.lanterna.TextColor;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.IntBuffer;
 
+/**
+ * A rectangle of ARGB pixels in a page: a page of its own, a shared {@link SpriteAtlas} page on the heap or
+ * the atlas page of a memory-mapped asset bundle.
+ * Transparent borders may have been trimmed off, and the pixels may be read mirrored from another sprite's.
+ */
 public class Sprite {
-    private final BufferedImage image;
+    private final IntBuffer page;
+    private final int pageWidth;
+    private final int offset;           // index of the top left packed pixel in the page
+    private final int width;
+    private final int height;
+    private final int trimX;            // where the packed pixels go in the original image
+    private final int trimY;
+    private final int imageWidth;
+    private final int imageHeight;
+    private final boolean flipped;
 
     public Sprite(String spritePath) throws IOException {
-        InputStream resource = getClass().getClassLoader().getResourceAsStream(spritePath);
-        assert resource != null;
-        image = ImageIO.read(resource);
+        this(read(spritePath));
     }
-    public BufferedImage getImage() {return image;}
 
+    private Sprite(BufferedImage image) {
+        this(IntBuffer.wrap(image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth())),
+                image.getWidth(), 0, image.getWidth(), image.getHeight(), 0, 0, image.getWidth(), image.getHeight(),
+                false);
+    }
+
+    Sprite(IntBuffer page, int pageWidth, int offset, int width, int height, int trimX, int trimY,
+           int imageWidth, int imageHeight, boolean flipped) {
+        this.page = page;
+        this.pageWidth = pageWidth;
+        this.offset = offset;
+        this.width = width;
+        this.height = height;
+        this.trimX = trimX;
+        this.trimY = trimY;
+        this.imageWidth = imageWidth;
+        this.imageHeight = imageHeight;
+        this.flipped = flipped;
+    }
+
+    static BufferedImage read(String spritePath) throws IOException {
+        try (InputStream resource = Sprite.class.getClassLoader().getResourceAsStream(spritePath)) {
+            if (resource == null)
+                throw new FileNotFoundException(spritePath);
+            return ImageIO.read(resource);
+        }
+    }
+
+    public int getWidth() {
+        return imageWidth;
+    }
+
+    public int getHeight() {
+        return imageHeight;
+    }
+
+    // Pixel of the original image, 0 where it was trimmed
+    public int getARGB(int x, int y) {
+        int dx = x - trimX;
+        int dy = y - trimY;
+        if (dx < 0 || dy < 0 || dx >= width || dy >= height)
+            return 0;
+        return page.get(offset + dy * pageWidth + (flipped ? width - 1 - dx : dx));
+    }
+
+    IntBuffer getPage() {
+        return page;
+    }
+
+    int getOffset() {
+        return offset;
+    }
+
+    boolean isFlipped() {
+        return flipped;
+    }
+
+    int getPackedWidth() {
+        return width;
+    }
+
+    int getPackedHeight() {
+        return height;
+    }
+
+    int getTrimX() {
+        return trimX;
+    }
+
+    int getTrimY() {
+        return trimY;
+    }
+
+    // Row by row, in the order the pixels are laid out in the page
     public void draw(GUI gui, int x, int y) {
-        for (int dx = 0; dx < image.getWidth(); dx++) {
-            for (int dy = 0; dy < image.getHeight(); dy++) {
-                int ARGB = image.getRGB(dx, dy);
+        int left = x + trimX;
+        for (int dy = 0; dy < height; dy++) {
+            int row = offset + dy * pageWidth;
+            for (int dx = 0; dx < width; dx++) {
+                int ARGB = page.get(flipped ? row + width - 1 - dx : row + dx);
                 if (getTransparency(ARGB) == 0)
                     continue;
-                gui.drawPixel(x + dx, y + dy, getRGB(ARGB));
+                gui.drawPixel(left + dx, y + trimY + dy, getRGB(ARGB));
             }
         }
     }
@@ -0,0 +1,371 @@
+package pt.feup.tvvs.soulknight.view.sprites;
+
+import pt.feup.tvvs.soulknight.assets.AssetBundle;
+
+import java.awt.image.BufferedImage;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Every sprite packed into one ARGB page, read in a single pass when the game starts.
+ * <p>
+ * Transparent borders are trimmed off before packing. A "-reversed" sprite that is an exact mirror of the
+ * sprite it was made from is not packed at all: its handle reads the other one's pixels right to left.
+ * Identical sprites share their pixels too. The rectangles are packed in shelves, tallest first.
+ * <p>
+ * The build also writes the atlas into the {@link AssetBundle}, and {@link #load()} then only maps it.
+ */
+public class SpriteAtlas {
+    public static final String REVERSED_SUFFIX = "-reversed.png";
+    // The game sprites, the menu logo and the font bitmap
+    public static final List<String> DEFAULT_ROOTS = Arrays.asList("sprites", "icon/gameIcon.png", "fonts/font.png");
+    public static final String INDEX_ENTRY = "sprites/atlas.index";
+    public static final String PAGE_ENTRY = "sprites/atlas.page";
+
+    private static final int MAGIC = 0x534B4154;
+    private static final int VERSION = 1;
+
+    private final IntBuffer page;
+    private final int width;
+    private final int height;
+    private final Map<String, Sprite> sprites;
+    private final int shared;
+
+    private SpriteAtlas(IntBuffer page, int width, int height, Map<String, Sprite> sprites, int shared) {
+        this.page = page;
+        this.width = width;
+        this.height = height;
+        this.sprites = sprites;
+        this.shared = shared;
+    }
+
+    // From the asset bundle when the build made one, otherwise decoded from the PNGs
+    public static SpriteAtlas load() throws IOException {
+        AssetBundle bundle = AssetBundle.getDefault();
+        if (bundle != null && bundle.contains(INDEX_ENTRY))
+            return read(bundle.get(INDEX_ENTRY), bundle.get(PAGE_ENTRY).asIntBuffer());
+        return build(findSprites(DEFAULT_ROOTS));
+    }
+
+    public static SpriteAtlas build(Collection<String> paths) throws IOException {
+        List<Image> images = new ArrayList<>();
+        Map<String, Image> byPath = new HashMap<>();
+        for (String path : paths) {
+            Image image = new Image(path, Sprite.read(path));
+            images.add(image);
+            byPath.put(path, image);
+        }
+
+        // Mirrors point at the image they mirror, copies at the packed image with the same pixels
+        List<Image> packed = new ArrayList<>();
+        Map<Image, Image> mirrors = new HashMap<>();
+        Map<Image, Image> copies = new HashMap<>();
+        Map<Integer, List<Image>> byHash = new HashMap<>();
+        for (Image image : images) {
+            Image original = image.path.endsWith(REVERSED_SUFFIX)
+                    ? byPath.get(image.path.substring(0, image.path.length() - REVERSED_SUFFIX.length()) + ".png")
+                    : null;
+            if (original != null && image.isMirrorOf(original)) {
+                mirrors.put(image, original);
+                continue;
+            }
+            List<Image> sameHash = byHash.computeIfAbsent(image.hash, hash -> new ArrayList<>());
+            Image copy = findCopy(sameHash, image);
+            if (copy != null) {
+                copies.put(image, copy);
+            } else {
+                sameHash.add(image);
+                packed.add(image);
+            }
+        }
+
+        int pageWidth = pageWidth(packed);
+        int pageHeight = pack(packed, pageWidth);
+        int[] pixels = new int[pageWidth * pageHeight];
+        for (Image image : packed)
+            for (int y = 0; y < image.height; y++)
+                System.arraycopy(image.pixels, y * image.width, pixels, (image.y + y) * pageWidth + image.x, image.width);
+        IntBuffer page = IntBuffer.wrap(pixels);
+
+        Map<String, Sprite> sprites = new LinkedHashMap<>();
+        for (Image image : images) {
+            boolean flipped = mirrors.containsKey(image);
+            Image source = flipped ? mirrors.get(image) : image;
+            source = copies.getOrDefault(source, source);
+            sprites.put(image.path, new Sprite(page, pageWidth, source.y * pageWidth + source.x, image.width,
+                    image.height, image.trimX, image.trimY, image.imageWidth, image.imageHeight, flipped));
+        }
+        return new SpriteAtlas(page, pageWidth, pageHeight, Collections.unmodifiableMap(sprites),
+                mirrors.size() + copies.size());
+    }
+
+    // The page's pixels stay where they are: the sprites read them straight from the buffer
+    public static SpriteAtlas read(ByteBuffer index, IntBuffer page) throws IOException {
+        try {
+            if (index.getInt() != MAGIC)
+                throw new IOException("Not a sprite atlas");
+            int version = index.get() & 0xFF;
+            if (version != VERSION)
+                throw new IOException("Unsupported sprite atlas version " + version);
+            int width = index.getShort() & 0xFFFF, height = index.getShort() & 0xFFFF;
+            int shared = index.getShort() & 0xFFFF, count = index.getShort() & 0xFFFF;
+            if (page.remaining() != width * height)
+                throw new IOException("Sprite atlas page is " + page.remaining() + " pixels, not " + width + "x" + height);
+            Map<String, Sprite> sprites = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[index.getShort() & 0xFFFF];
+                index.get(name);
+                int offset = index.getInt();
+                int packedWidth = index.getShort(), packedHeight = index.getShort();
+                int trimX = index.getShort(), trimY = index.getShort();
+                int imageWidth = index.getShort(), imageHeight = index.getShort();
+                boolean flipped = index.get() != 0;
+                if (offset < 0 || offset + (packedHeight - 1) * width + packedWidth > page.remaining())
+                    throw new IOException("Sprite " + i + " lies outside the atlas page");
+                sprites.put(new String(name, StandardCharsets.UTF_8), new Sprite(page, width, offset, packedWidth,
+                        packedHeight, trimX, trimY, imageWidth, imageHeight, flipped));
+            }
+            return new SpriteAtlas(page, width, height, Collections.unmodifiableMap(sprites), shared);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Corrupt sprite atlas", e);
+        }
+    }
+
+    // Big-endian: magic SKAT, version byte, page width and height, shared and sprite counts as shorts, then per
+    // sprite its path (a short length and UTF-8 bytes), page offset int and packed size, trim origin and image
+    // size as shorts, and a flipped byte
+    public void writeIndex(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeByte(VERSION);
+        data.writeShort(checkedShort(width));
+        data.writeShort(checkedShort(height));
+        data.writeShort(checkedShort(shared));
+        data.writeShort(checkedShort(sprites.size()));
+        for (Map.Entry<String, Sprite> entry : sprites.entrySet()) {
+            byte[] name = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            Sprite sprite = entry.getValue();
+            data.writeShort(checkedShort(name.length));
+            data.write(name);
+            data.writeInt(sprite.getOffset());
+            data.writeShort(sprite.getPackedWidth());
+            data.writeShort(sprite.getPackedHeight());
+            data.writeShort(sprite.getTrimX());
+            data.writeShort(sprite.getTrimY());
+            data.writeShort(sprite.getWidth());
+            data.writeShort(sprite.getHeight());
+            data.writeByte(sprite.isFlipped() ? 1 : 0);
+        }
+        data.flush();
+    }
+
+    public void writePage(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        for (int i = 0; i < page.capacity(); i++)
+            data.writeInt(page.get(i));
+        data.flush();
+    }
+
+    private static int checkedShort(int value) throws IOException {
+        if (value < 0 || value > 0xFFFF)
+            throw new IOException("Too large for the atlas index: " + value);
+        return value;
+    }
+
+    private static Image findCopy(List<Image> candidates, Image image) {
+        for (Image candidate : candidates)
+            if (candidate.width == image.width && candidate.height == image.height
+                    && Arrays.equals(candidate.pixels, image.pixels))
+                return candidate;
+        return null;
+    }
+
+    // The smallest power of two that fits the widest sprite and makes the page about square
+    private static int pageWidth(List<Image> images) {
+        long area = 0;
+        int widest = 1;
+        for (Image image : images) {
+            area += (long) image.width * image.height;
+            widest = Math.max(widest, image.width);
+        }
+        int target = Math.max(widest, (int) Math.ceil(Math.sqrt(area)));
+        return Integer.highestOneBit(Math.max(1, target - 1)) << 1;
+    }
+
+    // Places the images in rows as tall as their first image; returns the height used
+    private static int pack(List<Image> images, int pageWidth) {
+        List<Image> tallestFirst = new ArrayList<>(images);
+        tallestFirst.sort((a, b) -> a.height != b.height ? b.height - a.height : b.width - a.width);
+        int x = 0;
+        int shelfY = 0;
+        int shelfHeight = 0;
+        for (Image image : tallestFirst) {
+            if (x + image.width > pageWidth) {
+                shelfY += shelfHeight;
+                x = 0;
+                shelfHeight = 0;
+            }
+            image.x = x;
+            image.y = shelfY;
+            x += image.width;
+            shelfHeight = Math.max(shelfHeight, image.height);
+        }
+        return Math.max(1, shelfY + shelfHeight);
+    }
+
+    // Every .png under each root, as resource paths; a root may also be a single image
+    public static List<String> findSprites(Collection<String> roots) throws IOException {
+        TreeSet<String> paths = new TreeSet<>();
+        ClassLoader loader = SpriteAtlas.class.getClassLoader();
+        for (String root : roots) {
+            if (root.endsWith(".png")) {
+                if (loader.getResource(root) != null)
+                    paths.add(root);
+                continue;
+            }
+            Enumeration<URL> urls = loader.getResources(root);
+            while (urls.hasMoreElements())
+                paths.addAll(list(urls.nextElement(), root));
+        }
+        return new ArrayList<>(paths);
+    }
+
+    private static List<String> list(URL url, String root) throws IOException {
+        try {
+            URI uri = url.toURI();
+            if ("jar".equals(uri.getScheme())) {
+                FileSystem jar;
+                try {
+                    jar = FileSystems.newFileSystem(uri, Collections.emptyMap());
+                } catch (FileSystemAlreadyExistsException e) {
+                    jar = FileSystems.getFileSystem(uri);
+                }
+                return list(jar.getPath(root), root);
+            }
+            return list(Paths.get(uri), root);
+        } catch (URISyntaxException e) {
+            throw new IOException("Cannot list " + url, e);
+        }
+    }
+
+    private static List<String> list(Path directory, String root) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(file -> file.toString().endsWith(".png"))
+                    .map(file -> root + "/" + directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/"))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    // null when the sprite is not in the atlas
+    public Sprite get(String path) {
+        return sprites.get(path);
+    }
+
+    public Map<String, Sprite> getSprites() {
+        return sprites;
+    }
+
+    public int size() {
+        return sprites.size();
+    }
+
+    // Sprites that reuse the pixels of another, mirrored or as they are
+    public int getSharedCount() {
+        return shared;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getBytes() {
+        return (long) page.capacity() * Integer.BYTES;
+    }
+
+    private static class Image {
+        final String path;
+        final int imageWidth;
+        final int imageHeight;
+        final int trimX;
+        final int trimY;
+        final int width;
+        final int height;
+        final int[] pixels;         // trimmed, with fully transparent pixels set to 0
+        final int hash;
+        int x;
+        int y;
+
+        Image(String path, BufferedImage image) {
+            this.path = path;
+            this.imageWidth = image.getWidth();
+            this.imageHeight = image.getHeight();
+            int[] argb = image.getRGB(0, 0, imageWidth, imageHeight, null, 0, imageWidth);
+            int left = imageWidth, top = imageHeight, right = -1, bottom = -1;
+            for (int y = 0; y < imageHeight; y++) {
+                for (int x = 0; x < imageWidth; x++) {
+                    if (argb[y * imageWidth + x] >>> 24 == 0)
+                        continue;
+                    left = Math.min(left, x);
+                    top = Math.min(top, y);
+                    right = Math.max(right, x);
+                    bottom = Math.max(bottom, y);
+                }
+            }
+            if (right < 0) {
+                left = top = right = bottom = 0;
+            }
+            this.trimX = left;
+            this.trimY = top;
+            this.width = right - left + 1;
+            this.height = bottom - top + 1;
+            this.pixels = new int[width * height];
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    int pixel = argb[(top + y) * imageWidth + left + x];
+                    pixels[y * width + x] = pixel >>> 24 == 0 ? 0 : pixel;
+                }
+            }
+            this.hash = Arrays.hashCode(pixels) * 31 + width;
+        }
+
+        boolean isMirrorOf(Image other) {
+            if (width != other.width || height != other.height)
+                return false;
+            for (int y = 0; y < height; y++)
+                for (int x = 0; x < width; x++)
+                    if (pixels[y * width + x] != other.pixels[y * width + width - 1 - x])
+                        return false;
+            return true;
+        }
+    }
+}
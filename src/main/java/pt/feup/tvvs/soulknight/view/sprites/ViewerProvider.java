@@ -14,53 +14,88 @@ import pt.feup.tvvs.soulknight.view.text.GameTextViewer;
 import pt.feup.tvvs.soulknight.view.text.TextViewer;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+/**
+ * The viewers the menus need are loaded when it is created; the ones only a level needs are loaded the first
+ * time they are asked for, or ahead of that with {@link #loadAll()} or {@link #preload(Executor)}.
+ */
 public class ViewerProvider {
     private final ParticleViewer particleViewer;
-    private final KnightViewer playerViewer;
-    private final SpikeViewer spikeViewer;
-    private final OrbViewer orbViewer;
-    private final TreeViewer treeViewer;
-    private final RockViewer rockViewer;
-    private final TileViewer tileViewer;
-    private final MonsterViewer monsterViewer;
+    private final Lazy<KnightViewer> playerViewer;
+    private final Lazy<SpikeViewer> spikeViewer;
+    private final Lazy<OrbViewer> orbViewer;
+    private final Lazy<TreeViewer> treeViewer;
+    private final Lazy<RockViewer> rockViewer;
+    private final Lazy<TileViewer> tileViewer;
+    private final Lazy<MonsterViewer> monsterViewer;
     private final TextViewer textViewer;
     private final OptionViewer entryViewer;
     private final LogoViewer logoViewer;
 
     public ViewerProvider(SpriteLoader spriteLoader) throws IOException {
         this.particleViewer = new ParticleViewer();
-        this.playerViewer = new KnightViewer(spriteLoader);
-        this.spikeViewer = new SpikeViewer(spriteLoader);
-        this.treeViewer = new TreeViewer(spriteLoader);
-        this.rockViewer = new RockViewer(spriteLoader);
-        this.orbViewer = new OrbViewer(spriteLoader);
-        this.tileViewer = new TileViewer(spriteLoader);
-        this.monsterViewer = new MonsterViewer(spriteLoader);
-        this.textViewer = new GameTextViewer();
+        this.playerViewer = new Lazy<>(() -> new KnightViewer(spriteLoader));
+        this.spikeViewer = new Lazy<>(() -> new SpikeViewer(spriteLoader));
+        this.treeViewer = new Lazy<>(() -> new TreeViewer(spriteLoader));
+        this.rockViewer = new Lazy<>(() -> new RockViewer(spriteLoader));
+        this.orbViewer = new Lazy<>(() -> new OrbViewer(spriteLoader));
+        this.tileViewer = new Lazy<>(() -> new TileViewer(spriteLoader));
+        this.monsterViewer = new Lazy<>(() -> new MonsterViewer(spriteLoader));
+        this.textViewer = new GameTextViewer(spriteLoader);
         this.entryViewer = new OptionViewer(textViewer);
         this.logoViewer = new LogoViewer(spriteLoader);
     }
 
+    private List<Lazy<?>> levelViewers() {
+        return Arrays.asList(playerViewer, monsterViewer, tileViewer, spikeViewer, treeViewer, rockViewer, orbViewer);
+    }
+
+    // Loads every level viewer on this thread
+    public void loadAll() throws IOException {
+        for (Lazy<?> viewer : levelViewers())
+            viewer.load();
+    }
+
+    // Loads each level viewer as a task of its own, so their sprites are decoded side by side
+    public CompletableFuture<Void> preload(Executor executor) {
+        List<Lazy<?>> viewers = levelViewers();
+        CompletableFuture<?>[] loads = new CompletableFuture<?>[viewers.size()];
+        for (int i = 0; i < loads.length; i++)
+            loads[i] = CompletableFuture.runAsync(viewers.get(i)::get, executor);
+        return CompletableFuture.allOf(loads);
+    }
+
+    public boolean isLoaded() {
+        for (Lazy<?> viewer : levelViewers())
+            if (!viewer.isLoaded())
+                return false;
+        return true;
+    }
+
     public ParticleViewer getParticleViewer() {
         return particleViewer;
     }
 
     public KnightViewer getPlayerViewer() {
-        return playerViewer;
+        return playerViewer.get();
     }
 
     public SpikeViewer getSpikeViewer() {
-        return spikeViewer;
+        return spikeViewer.get();
     }
 
     public TreeViewer getTreeViewer() {
-        return treeViewer;
+        return treeViewer.get();
     }
-    public OrbViewer getOrbViewer(){return orbViewer;}
-    public RockViewer getRockViewer(){return rockViewer;}
+    public OrbViewer getOrbViewer(){return orbViewer.get();}
+    public RockViewer getRockViewer(){return rockViewer.get();}
     public TileViewer getTileViewer() {
-        return tileViewer;
+        return tileViewer.get();
     }
 
     public TextViewer getTextViewer() {
@@ -75,5 +110,43 @@ public class ViewerProvider {
         return logoViewer;
     }
 
-    public MonsterViewer getMonsterViewer() {return monsterViewer;}
-}
\ No newline at end of file
+    public MonsterViewer getMonsterViewer() {return monsterViewer.get();}
+
+    private interface ViewerFactory<T> {
+        T create() throws IOException;
+    }
+
+    // Created once, by whichever thread asks first; the others wait for it
+    private static class Lazy<T> {
+        private final ViewerFactory<T> factory;
+        private volatile T value;
+
+        Lazy(ViewerFactory<T> factory) {
+            this.factory = factory;
+        }
+
+        T load() throws IOException {
+            T viewer = value;
+            if (viewer == null) {
+                synchronized (this) {
+                    viewer = value;
+                    if (viewer == null)
+                        value = viewer = factory.create();
+                }
+            }
+            return viewer;
+        }
+
+        T get() {
+            try {
+                return load();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        boolean isLoaded() {
+            return value != null;
+        }
+    }
+}
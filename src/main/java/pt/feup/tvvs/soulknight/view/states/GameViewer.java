@@ -1,6 +1,7 @@
 package pt.feup.tvvs.soulknight.view.states;
 
 import pt.feup.tvvs.soulknight.gui.GUI;
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
 import pt.feup.tvvs.soulknight.model.game.elements.Element;
 import pt.feup.tvvs.soulknight.model.game.scene.Scene;
 import pt.feup.tvvs.soulknight.view.elements.*;
@@ -14,7 +15,6 @@ import pt.feup.tvvs.soulknight.view.elements.spike.SpikeViewer;
 import pt.feup.tvvs.soulknight.view.elements.tile.TileViewer;
 import pt.feup.tvvs.soulknight.view.elements.tree.TreeViewer;
 import pt.feup.tvvs.soulknight.view.sprites.ViewerProvider;
-import pt.feup.tvvs.soulknight.view.text.GameTextViewer;
 import pt.feup.tvvs.soulknight.view.text.TextViewer;
 import com.googlecode.lanterna.TextColor;
 
@@ -42,7 +42,7 @@ public class GameViewer extends ScreenViewer<Scene> {
 
         super(model);
 
-        this.textViewer = new GameTextViewer();
+        this.textViewer = viewerProvider.getTextViewer();
 
         this.particleViewer = viewerProvider.getParticleViewer();
 
@@ -64,28 +64,42 @@ public class GameViewer extends ScreenViewer<Scene> {
 
     @Override
     public void draw(GUI gui, long time) throws IOException {
+        FrameProfiler profiler = FrameProfiler.orDisabled(gui.getProfiler());
+        long start = profiler.begin();
+
         gui.cls();
 
         dynamicGradientBackground(gui, time);
+        start = profiler.end(FrameProfiler.Phase.BACKGROUND, start);
 
         drawElements(gui, getModel().getParticles(), this.particleViewer, time);
         drawElements(gui, getModel().getDoubleJumpParticles(), this.particleViewer, time);
         drawElements(gui, getModel().getJumpParticles(), this.particleViewer, time);
         drawElements(gui, getModel().getRespawnParticles(), this.particleViewer, time);
         drawElements(gui, getModel().getDashParticles(), this.particleViewer, time);
+        start = profiler.end(FrameProfiler.Phase.PARTICLE_LAYER, start);
 
         drawElements(gui, getModel().getSpikes(), this.spikeViewer, 0);
+        start = profiler.end(FrameProfiler.Phase.SPIKE_LAYER, start);
         drawElements(gui, getModel().getTiles(), this.tileViewer, 0);
+        start = profiler.end(FrameProfiler.Phase.TILE_LAYER, start);
         drawElements(gui, getModel().getTrees(), this.treeViewer, 0);
+        start = profiler.end(FrameProfiler.Phase.TREE_LAYER, start);
         drawElements(gui, getModel().getOrbs(), this.orbViewer, 0);
+        start = profiler.end(FrameProfiler.Phase.ORB_LAYER, start);
         drawElements(gui, getModel().getRocks(), this.rockViewer, 0);
+        start = profiler.end(FrameProfiler.Phase.ROCK_LAYER, start);
 
         drawElement(gui, this.knightViewer, getModel().getPlayer(), time);
+        start = profiler.end(FrameProfiler.Phase.KNIGHT_LAYER, start);
         drawElements(gui, getModel().getMonsters(), this.monsterViewer, time);
+        start = profiler.end(FrameProfiler.Phase.MONSTER_LAYER, start);
 
         PlayerStatsViewer.drawPlayerStats(gui, time, getModel(), this.textViewer);
+        start = profiler.end(FrameProfiler.Phase.STATS_LAYER, start);
 
         gui.flush();
+        profiler.end(FrameProfiler.Phase.FLUSH, start);
     }
 
     <T extends Element> void drawElements(GUI gui, List<T> elements, ElementViewer<T> viewer, long time) throws IOException {
@@ -1,6 +1,9 @@
 package pt.feup.tvvs.soulknight.view.states;
 
 import pt.feup.tvvs.soulknight.gui.GUI;
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
+import pt.feup.tvvs.soulknight.metrics.InputLatency;
+import pt.feup.tvvs.soulknight.metrics.RollingHistogram;
 import pt.feup.tvvs.soulknight.model.game.scene.Scene;
 import pt.feup.tvvs.soulknight.view.text.TextViewer;
 import com.googlecode.lanterna.TextColor;
@@ -8,6 +11,16 @@ import com.googlecode.lanterna.TextColor;
 import java.io.IOException;
 
 public class PlayerStatsViewer{
+    private static final FrameProfiler.Phase[] PHASES = FrameProfiler.Phase.values();
+    private static final int PROFILER_TOP = 22;
+    private static final int PROFILER_ROW_HEIGHT = 6;
+    private static final int PROFILER_BAR_X = 32;
+    private static final int PROFILER_BAR_WIDTH = 60;
+
+    private static final TextColor.RGB BAR_MEAN_COLOR = new TextColor.RGB(0, 225, 75);
+    private static final TextColor.RGB BAR_P99_COLOR = new TextColor.RGB(0, 90, 30);
+    private static final TextColor.RGB BAR_OVER_BUDGET_COLOR = new TextColor.RGB(225, 40, 40);
+
     public static void drawPlayerStats(GUI gui, long time, Scene scene, TextViewer textViewer) throws IOException {
         // Fetch the player details
         var player = scene.getPlayer();
@@ -25,5 +38,53 @@ public class PlayerStatsViewer{
         textViewer.draw(fps, 4, 16, color, gui);
         textViewer.draw(orbs, 160, 8, color, gui);
 
+        FrameProfiler profiler = FrameProfiler.orDisabled(gui.getProfiler());
+        if (profiler.isOverlayVisible()) {
+            drawInputLatency(gui, profiler.getInputLatency(), textViewer, color);
+            drawProfiler(gui, profiler, textViewer, color);
+        }
+    }
+
+    // One row per phase: a bar scaled to the frame budget (dark up to p99, bright up to the mean)
+    // followed by min, mean and p99 in microseconds
+    static void drawProfiler(GUI gui, FrameProfiler profiler, TextViewer textViewer, TextColor.RGB color) {
+        textViewer.draw("phase", 4, PROFILER_TOP, color, gui);
+        textViewer.draw("min", 96, PROFILER_TOP, color, gui);
+        textViewer.draw("mean", 124, PROFILER_TOP, color, gui);
+        textViewer.draw("p99", 152, PROFILER_TOP, color, gui);
+
+        long budget = Math.max(1, profiler.getFrameBudgetNanos());
+        int y = PROFILER_TOP + PROFILER_ROW_HEIGHT;
+        for (FrameProfiler.Phase phase : PHASES) {
+            RollingHistogram histogram = profiler.getHistogram(phase);
+            long mean = histogram.getMean();
+            long p99 = histogram.getPercentile(0.99);
+
+            textViewer.draw(phase.getLabel(), 4, y, color, gui);
+
+            int p99Width = barWidth(p99, budget);
+            int meanWidth = barWidth(mean, budget);
+            if (p99Width > 0)
+                gui.drawRectangle(PROFILER_BAR_X, y + 1, p99Width, 3, BAR_P99_COLOR);
+            if (meanWidth > 0)
+                gui.drawRectangle(PROFILER_BAR_X, y + 1, meanWidth, 3, p99 > budget ? BAR_OVER_BUDGET_COLOR : BAR_MEAN_COLOR);
+
+            textViewer.draw(Long.toString(histogram.getMin() / 1000), 96, y, color, gui);
+            textViewer.draw(Long.toString(mean / 1000), 124, y, color, gui);
+            textViewer.draw(Long.toString(p99 / 1000), 152, y, color, gui);
+
+            y += PROFILER_ROW_HEIGHT;
+        }
+    }
+
+    // Key press to refreshed screen, next to the fps counter
+    static void drawInputLatency(GUI gui, InputLatency latency, TextViewer textViewer, TextColor.RGB color) {
+        RollingHistogram displayed = latency.getHistogram(InputLatency.Stage.DISPLAYED);
+        textViewer.draw("lag " + displayed.getPercentile(0.50) / 1_000_000 + " p99 "
+                + displayed.getPercentile(0.99) / 1_000_000 + " ms", 48, 16, color, gui);
+    }
+
+    private static int barWidth(long nanos, long budget) {
+        return (int) Math.min(PROFILER_BAR_WIDTH, nanos * PROFILER_BAR_WIDTH / budget);
     }
 }
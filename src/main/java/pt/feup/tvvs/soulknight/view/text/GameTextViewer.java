@@ -1,12 +1,12 @@
 package pt.feup.tvvs.soulknight.view.text;
 
+import pt.feup.tvvs.soulknight.assets.AssetBundle;
 import pt.feup.tvvs.soulknight.gui.GUI;
+import pt.feup.tvvs.soulknight.view.sprites.Sprite;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
 import com.googlecode.lanterna.TextColor;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
 import java.io.*;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,7 +16,10 @@ public class GameTextViewer implements TextViewer {
     private static final int charHeight = 5;
     private static final int spacing = 1;
 
-    private final BufferedImage fontImage;
+    private static final String FONT_IMAGE = "fonts/font.png";
+    private static final String FONT_MAP = "fonts/font-map.txt";
+
+    private final Sprite fontImage;
     private final Map<Character, CharPosition> charMap;
 
     public static class CharPosition {
@@ -39,23 +42,25 @@ public class GameTextViewer implements TextViewer {
     }
 
     public GameTextViewer() throws IOException {
-        URL fontImageResource = getClass().getClassLoader().getResource("fonts/font.png");
-        if (fontImageResource == null) {
-            throw new FileNotFoundException("Font image file not found in resources!");
-        }
-        this.fontImage = ImageIO.read(fontImageResource);
+        this(new Sprite(FONT_IMAGE), GameTextViewer.class.getClassLoader().getResourceAsStream(FONT_MAP));
+    }
 
-        URL fontMapResource = getClass().getClassLoader().getResource("fonts/font-map.txt");
-        if (fontMapResource == null) {
+    // The font bitmap from the sprite loader and its map from the asset bundle, when there is one
+    public GameTextViewer(SpriteLoader spriteLoader) throws IOException {
+        this(spriteLoader.get(FONT_IMAGE), AssetBundle.openResource(FONT_MAP));
+    }
+
+    private GameTextViewer(Sprite fontImage, InputStream fontMap) throws IOException {
+        if (fontMap == null) {
             throw new FileNotFoundException("Font map file not found in resources!");
         }
-
-        this.charMap = parseCharMap(fontMapResource);
+        this.fontImage = fontImage;
+        this.charMap = parseCharMap(fontMap);
     }
 
-    private Map<Character, CharPosition> parseCharMap(URL resource) throws IOException {
+    private Map<Character, CharPosition> parseCharMap(InputStream resource) throws IOException {
         Map<Character, CharPosition> charMap = new HashMap<>();
-        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(resource, StandardCharsets.UTF_8))) {
             int y = 0;
             for (String line; (line = bufferedReader.readLine()) != null; y++) {
                 for (int x = 0; x < line.length(); x++) {
@@ -83,7 +88,7 @@ public class GameTextViewer implements TextViewer {
         int imgY = position.col() * (charHeight + 1);
         for (int dy = 0; dy < charHeight; dy++) {
             for (int dx = 0; dx < charWidth; dx++) {
-                if (fontImage.getRGB(imgX + dx, imgY + dy) != COLOR_WHITE)
+                if (fontImage.getARGB(imgX + dx, imgY + dy) != COLOR_WHITE)
                     gui.drawPixel((int) (x + dx), (int) (y + dy), (TextColor.RGB) foregroundColor);
             }
         }
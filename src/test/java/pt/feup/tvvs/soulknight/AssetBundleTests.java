@@ -0,0 +1,109 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.assets.AssetBundle;
+import pt.feup.tvvs.soulknight.assets.AssetBundler;
+import pt.feup.tvvs.soulknight.gui.BufferedImageGUI;
+import pt.feup.tvvs.soulknight.model.game.scene.LevelBinary;
+import pt.feup.tvvs.soulknight.view.sprites.Sprite;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteAtlas;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AssetBundleTests {
+    private static final Path LEVELS = Paths.get("target/classes/levels");
+
+    private static int[] drawn(Sprite sprite) {
+        BufferedImage buffer = new BufferedImage(sprite.getWidth(), sprite.getHeight(), BufferedImage.TYPE_INT_ARGB);
+        sprite.draw(new BufferedImageGUI(buffer), 0, 0);
+        return buffer.getRGB(0, 0, sprite.getWidth(), sprite.getHeight(), null, 0, sprite.getWidth());
+    }
+
+    @Test
+    void mappedAtlasDrawsLikeTheImages(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve(AssetBundle.RESOURCE);
+        AssetBundler.bundle(LEVELS, file);
+        AssetBundle bundle = AssetBundle.map(file);
+        assertTrue(bundle.isMapped());
+
+        ByteBuffer page = bundle.get(SpriteAtlas.PAGE_ENTRY);
+        assertTrue(page.isDirect());
+        SpriteAtlas mapped = SpriteAtlas.read(bundle.get(SpriteAtlas.INDEX_ENTRY), page.asIntBuffer());
+        SpriteAtlas decoded = SpriteAtlas.build(SpriteAtlas.findSprites(SpriteAtlas.DEFAULT_ROOTS));
+
+        assertEquals(decoded.getSprites().keySet(), mapped.getSprites().keySet());
+        assertEquals(decoded.getBytes(), mapped.getBytes());
+        for (String path : decoded.getSprites().keySet())
+            assertArrayEquals(drawn(decoded.get(path)), drawn(mapped.get(path)), path);
+    }
+
+    @Test
+    void bundledLevelsMatchTheCompiledOnes(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve(AssetBundle.RESOURCE);
+        AssetBundler.bundle(LEVELS, file);
+        AssetBundle bundle = AssetBundle.map(file);
+
+        for (int id = 0; id < 4; id++) {
+            String name = "level" + id + LevelBinary.EXTENSION;
+            assertEquals(LevelBinary.map(id, LEVELS.resolve(name)), LevelBinary.read(id, bundle.get("levels/" + name)),
+                    name);
+        }
+        assertTrue(bundle.contains(AssetBundler.FONT_MAP));
+        assertNull(bundle.get("levels/missing" + LevelBinary.EXTENSION));
+    }
+
+    @Test
+    void bundleOlderThanItsSourcesIsNotCurrent(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve(AssetBundle.RESOURCE);
+        AssetBundler.bundle(LEVELS, file);
+        assertTrue(AssetBundle.map(file).isCurrent());
+
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        byte[] sources = AssetBundle.writeSources(Arrays.asList(AssetBundler.FONT_MAP));
+        sources[sources.length - 1] ^= 1;   // as if font-map.txt had been edited since
+        entries.put(AssetBundle.SOURCES_ENTRY, sources);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AssetBundle.write(entries, out);
+        assertFalse(AssetBundle.read(ByteBuffer.wrap(out.toByteArray())).isCurrent());
+
+        entries.clear();
+        out.reset();
+        AssetBundle.write(entries, out);
+        assertFalse(AssetBundle.read(ByteBuffer.wrap(out.toByteArray())).isCurrent());
+    }
+
+    @Test
+    void corruptBundleIsRejected() throws IOException {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("a", new byte[]{1, 2, 3});
+        entries.put("b", new byte[]{4, 5, 6, 7, 8});
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AssetBundle.write(entries, out);
+        byte[] bytes = out.toByteArray();
+
+        AssetBundle bundle = AssetBundle.read(ByteBuffer.wrap(bytes));
+        ByteBuffer b = bundle.get("b");
+        assertEquals(0, bundle.get("a").position());
+        assertEquals(5, b.remaining());
+        assertEquals(4, b.get());
+        assertTrue(b.isReadOnly());
+
+        assertThrows(IOException.class, () -> AssetBundle.read(ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 3))));
+        assertThrows(IOException.class, () -> AssetBundle.read(ByteBuffer.wrap(Arrays.copyOf(bytes, 12))));
+        bytes[0] = 'X';
+        assertThrows(IOException.class, () -> AssetBundle.read(ByteBuffer.wrap(bytes)));
+    }
+}
@@ -0,0 +1,172 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.sound.AudioMixer;
+import pt.feup.tvvs.soulknight.sound.AudioRequestQueue;
+import pt.feup.tvvs.soulknight.sound.MemoryAudioOutput;
+import pt.feup.tvvs.soulknight.sound.SoundEffect;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.ByteArrayInputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class AudioMixerTests {
+
+    private static final int BLOCK_BYTES = AudioMixer.BLOCK_FRAMES * 2;
+
+    private static boolean silent(short[] samples, int from, int to) {
+        for (int i = from; i < to; i++)
+            if (samples[i] != 0)
+                return false;
+        return true;
+    }
+
+    @Test
+    void effectIsMixedUntilItEnds() throws Exception {
+        MemoryAudioOutput output = new MemoryAudioOutput(AudioMixer.FORMAT, 200 * BLOCK_BYTES);
+        AudioMixer mixer = new AudioMixer(output, null);
+
+        mixer.mix();
+        mixer.play(SoundEffect.ORB);
+        for (int i = 0; i < 40; i++)
+            mixer.mix();
+
+        short[] samples = output.getSamples();
+        assertTrue(silent(samples, 0, AudioMixer.BLOCK_FRAMES));
+        assertFalse(silent(samples, AudioMixer.BLOCK_FRAMES, 2 * AudioMixer.BLOCK_FRAMES));
+        // 160 ms at 44.1 kHz is under 14 blocks
+        assertTrue(silent(samples, 16 * AudioMixer.BLOCK_FRAMES, samples.length));
+        assertEquals(0, mixer.getActiveVoices());
+    }
+
+    @Test
+    void busyVoicesAreStolenOldestFirst() throws Exception {
+        AudioMixer mixer = new AudioMixer(new MemoryAudioOutput(AudioMixer.FORMAT, 0), null);
+
+        for (int i = 0; i < AudioMixer.VOICES; i++)
+            mixer.play(SoundEffect.DEATH);
+        mixer.mix();
+        mixer.play(SoundEffect.JUMP);
+        mixer.play(SoundEffect.JUMP);
+        mixer.mix();
+
+        assertEquals(AudioMixer.VOICES, mixer.getActiveVoices());
+        assertEquals(2, mixer.getStolenVoices());
+    }
+
+    @Test
+    void playingNeverBlocksTheGameThread() throws Exception {
+        AudioMixer mixer = new AudioMixer(new MemoryAudioOutput(AudioMixer.FORMAT, 0), null);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++)
+            mixer.play(SoundEffect.HIT);
+        long elapsed = System.nanoTime() - start;
+
+        assertTrue(mixer.getDroppedRequests() > 0);
+        assertTrue(elapsed < 100_000_000L, "took " + elapsed + " ns");
+    }
+
+    // A quarter second tone, shorter than what the tests below mix
+    private static Path writeTone(Path wav, AudioFormat format) throws Exception {
+        int frames = (int) format.getFrameRate() / 4;
+        byte[] pcm = new byte[frames * format.getFrameSize()];
+        for (int i = 0; i < frames; i++) {
+            short sample = (short) (Math.sin(i / 10.0) * 8_000);
+            for (int channel = 0; channel < format.getChannels(); channel++) {
+                int at = i * format.getFrameSize() + channel * 2;
+                pcm[at] = (byte) sample;
+                pcm[at + 1] = (byte) (sample >> 8);
+            }
+        }
+        AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(pcm), format, frames),
+                AudioFileFormat.Type.WAVE, wav.toFile());
+        return wav;
+    }
+
+    private static MemoryAudioOutput streamMusic(AudioMixer mixer, MemoryAudioOutput output, int blocks) {
+        mixer.startMusic();
+        for (int i = 0; i < blocks; i++)
+            mixer.mix();
+
+        assertTrue(mixer.isMusicOn());
+        short[] samples = output.getSamples();
+        for (int block = 0; block < blocks; block++)
+            assertFalse(silent(samples, block * AudioMixer.BLOCK_FRAMES, (block + 1) * AudioMixer.BLOCK_FRAMES),
+                    "block " + block);
+        return output;
+    }
+
+    @Test
+    void musicIsStreamedAndLoops(@TempDir Path dir) throws Exception {
+        Path wav = writeTone(dir.resolve("music.wav"), AudioMixer.FORMAT);
+
+        MemoryAudioOutput output = new MemoryAudioOutput(AudioMixer.FORMAT, 100 * BLOCK_BYTES);
+        AudioMixer mixer = new AudioMixer(output, wav.toUri().toURL());
+        streamMusic(mixer, output, 100);
+
+        mixer.stopMusic();
+        output.clear();
+        mixer.mix();
+        assertTrue(silent(output.getSamples(), 0, AudioMixer.BLOCK_FRAMES));
+    }
+
+    @Test
+    void musicInAnotherFormatIsConverted(@TempDir Path dir) throws Exception {
+        Path wav = writeTone(dir.resolve("music.wav"), new AudioFormat(48_000, 16, 2, true, false));
+
+        MemoryAudioOutput output = new MemoryAudioOutput(AudioMixer.FORMAT, 50 * BLOCK_BYTES);
+        streamMusic(new AudioMixer(output, wav.toUri().toURL()), output, 50);
+    }
+
+    @Test
+    void bundledMusicIsStreamed() throws Exception {
+        URL music = getClass().getClassLoader().getResource(AudioMixer.MUSIC);
+        assumeTrue(music != null, AudioMixer.MUSIC + " is not in this checkout");
+
+        MemoryAudioOutput output = new MemoryAudioOutput(AudioMixer.FORMAT, 50 * BLOCK_BYTES);
+        streamMusic(new AudioMixer(output, music), output, 50);
+    }
+
+    @Test
+    void unreadableMusicFailsWhenTheMixerIsMade(@TempDir Path dir) throws Exception {
+        Path notAudio = Files.writeString(dir.resolve("music.wav"), "not a wave file");
+
+        assertThrows(UnsupportedAudioFileException.class,
+                () -> new AudioMixer(new MemoryAudioOutput(AudioMixer.FORMAT, 0), notAudio.toUri().toURL()));
+    }
+
+    @Test
+    void requestsCrossThreadsInOrder() throws Exception {
+        AudioRequestQueue queue = new AudioRequestQueue(16);
+        int count = 5_000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++)
+                while (!queue.offer(i))
+                    Thread.yield();
+        });
+        producer.start();
+
+        int expected = 0;
+        while (expected < count) {
+            int request = queue.poll();
+            if (request == AudioRequestQueue.EMPTY)
+                Thread.yield();
+            else
+                assertEquals(expected++, request);
+        }
+        producer.join();
+        assertEquals(AudioRequestQueue.EMPTY, queue.poll());
+    }
+}
@@ -0,0 +1,69 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderTests {
+
+    @TempDir
+    Path tempDir;
+
+    private List<RecordedEvent> record(String eventName, ThrowingRunnable action) throws Exception {
+        Path file = tempDir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventName);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(eventName))
+                .collect(Collectors.toList());
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+
+    @Test
+    void levelLoadEmitsEvent() throws Exception {
+        List<RecordedEvent> events = record("pt.feup.tvvs.soulknight.LevelLoad",
+                () -> new SceneLoader(1).createScene(new Knight(0, 0, 50, 10, 1)));
+
+        assertEquals(1, events.size());
+        assertEquals(1, events.get(0).getInt("sceneId"));
+        assertTrue(events.get(0).getInt("lines") > 0);
+    }
+
+    @Test
+    void profilerPhasesEmitControllerAndViewerEvents() throws Exception {
+        FrameProfiler profiler = new FrameProfiler(1_000_000);
+        List<RecordedEvent> controllerEvents = record("pt.feup.tvvs.soulknight.Controller", () -> {
+            profiler.beginFrame(42, 2);
+            long start = profiler.begin();
+            start = profiler.end(FrameProfiler.Phase.PLAYER, start);
+            profiler.end(FrameProfiler.Phase.TILE_LAYER, start);
+            profiler.endFrame();
+        });
+
+        assertEquals(1, controllerEvents.size());
+        RecordedEvent event = controllerEvents.get(0);
+        assertEquals("PLAYER", event.getString("phase"));
+        assertEquals(42, event.getLong("tick"));
+        assertEquals(2, event.getInt("sceneId"));
+    }
+}
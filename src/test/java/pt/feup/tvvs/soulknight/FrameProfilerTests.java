@@ -0,0 +1,152 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.gui.BufferedImageGUI;
+import pt.feup.tvvs.soulknight.gui.GUI;
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
+import pt.feup.tvvs.soulknight.metrics.RollingHistogram;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+import pt.feup.tvvs.soulknight.view.sprites.GameSpriteLoader;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteAtlas;
+import pt.feup.tvvs.soulknight.view.sprites.ViewerProvider;
+import pt.feup.tvvs.soulknight.view.states.GameViewer;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class FrameProfilerTests {
+
+    // ---------- RollingHistogram ----------
+
+    @Test
+    void emptyHistogramReportsZero() {
+        RollingHistogram histogram = new RollingHistogram(4);
+
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    void histogramComputesMinMeanAndPercentile() {
+        RollingHistogram histogram = new RollingHistogram(100);
+        for (int value = 1; value <= 100; value++)
+            histogram.record(value);
+
+        assertEquals(1, histogram.getMin());
+        assertEquals(50, histogram.getMean());
+        assertEquals(99, histogram.getPercentile(0.99));
+        assertEquals(100, histogram.getMax());
+    }
+
+    @Test
+    void histogramOnlyKeepsTheLastSamples() {
+        RollingHistogram histogram = new RollingHistogram(3);
+        histogram.record(1000);
+        histogram.record(1);
+        histogram.record(2);
+        histogram.record(3);
+
+        assertEquals(3, histogram.getCount());
+        assertEquals(3, histogram.getMax());
+        assertEquals(2, histogram.getMean());
+    }
+
+    @Test
+    void percentilesFollowNewSamples() {
+        RollingHistogram histogram = new RollingHistogram(4);
+        histogram.record(10);
+        histogram.record(20);
+        assertEquals(20, histogram.getPercentile(0.99));
+        assertEquals(10, histogram.getPercentile(0.50));
+
+        histogram.record(40);
+        assertEquals(40, histogram.getPercentile(0.99));
+        histogram.reset();
+        assertEquals(0, histogram.getPercentile(0.99));
+    }
+
+    @Test
+    void histogramRejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new RollingHistogram(0));
+    }
+
+    // ---------- FrameProfiler ----------
+
+    @Test
+    void phaseTimesAreSummedWithinAFrame() {
+        FrameProfiler profiler = new FrameProfiler(1_000_000);
+        profiler.record(FrameProfiler.Phase.PARTICLE_LAYER, 100);
+        profiler.record(FrameProfiler.Phase.PARTICLE_LAYER, 50);
+        profiler.endFrame();
+
+        RollingHistogram histogram = profiler.getHistogram(FrameProfiler.Phase.PARTICLE_LAYER);
+        assertEquals(1, histogram.getCount());
+        assertEquals(150, histogram.getMean());
+    }
+
+    @Test
+    void phasesNotEnteredDuringAFrameAreNotRecorded() {
+        FrameProfiler profiler = new FrameProfiler(1_000_000);
+        profiler.record(FrameProfiler.Phase.INPUT, 10);
+        profiler.endFrame();
+
+        assertEquals(1, profiler.getHistogram(FrameProfiler.Phase.INPUT).getCount());
+        assertEquals(0, profiler.getHistogram(FrameProfiler.Phase.PLAYER).getCount());
+    }
+
+    @Test
+    void endReturnsTheTimestampForTheNextPhase() {
+        FrameProfiler profiler = new FrameProfiler(1_000_000);
+        long start = profiler.begin();
+        long next = profiler.end(FrameProfiler.Phase.INPUT, start);
+        profiler.endFrame();
+
+        assertTrue(next >= start);
+        assertEquals(next - start, profiler.getHistogram(FrameProfiler.Phase.INPUT).getMean());
+    }
+
+    @Test
+    void overlayToggles() {
+        FrameProfiler profiler = new FrameProfiler(1_000_000);
+        assertFalse(profiler.isOverlayVisible());
+
+        profiler.toggleOverlay();
+        assertTrue(profiler.isOverlayVisible());
+
+        profiler.toggleOverlay();
+        assertFalse(profiler.isOverlayVisible());
+    }
+
+    // ---------- Disabled profiler ----------
+
+    @Test
+    void disabledProfilerRecordsNothing() {
+        FrameProfiler profiler = FrameProfiler.DISABLED;
+        long start = profiler.begin();
+        profiler.end(FrameProfiler.Phase.INPUT, start);
+        profiler.getInputLatency().beginTick(System.nanoTime());
+        profiler.endFrame();
+        profiler.toggleOverlay();
+
+        assertEquals(0, profiler.getHistogram(FrameProfiler.Phase.INPUT).getCount());
+        assertFalse(profiler.isOverlayVisible());
+        assertSame(FrameProfiler.DISABLED, FrameProfiler.orDisabled(null));
+    }
+
+    @Test
+    void gameScreenDrawsWithoutAProfiler() throws Exception {
+        Scene scene = new SceneLoader(0).createScene(new Knight(0, 0, 50, 10, 1), 1L);
+        GameViewer viewer = new GameViewer(scene, new ViewerProvider(new GameSpriteLoader(SpriteAtlas.load())));
+        BufferedImage image = new BufferedImage(Game.PIXEL_WIDTH, Game.PIXEL_HEIGHT,
+                BufferedImage.TYPE_INT_RGB);
+
+        viewer.draw(new BufferedImageGUI(image), 0);
+        viewer.draw(mock(GUI.class), 0);
+    }
+}
@@ -0,0 +1,107 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
+import pt.feup.tvvs.soulknight.metrics.GameMetrics;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+import pt.feup.tvvs.soulknight.view.sprites.GameSpriteLoader;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameMetricsTests {
+
+    private GameMetrics metrics;
+    private FrameProfiler profiler;
+    private GameSpriteLoader spriteLoader;
+    private Knight knight;
+    private Scene scene;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        metrics = new GameMetrics(30);
+        profiler = new FrameProfiler(33_000_000);
+        spriteLoader = new GameSpriteLoader();
+        knight = new Knight(0, 0, 50, 10, 1);
+        scene = new SceneLoader(0).createScene(knight);
+    }
+
+    @Test
+    void sampleReadsSceneAndCacheState() throws Exception {
+        spriteLoader.get("sprites/Tiles/ground_grass.png");
+        profiler.record(FrameProfiler.Phase.FRAME, 2_000_000);
+        profiler.endFrame();
+
+        metrics.sample(29, scene, profiler, spriteLoader);
+
+        assertEquals(29, metrics.getCurrentFps());
+        assertEquals(15, metrics.getRainParticles());
+        assertEquals(scene.getMonsters().size(), metrics.getEnemies());
+        assertEquals(1, metrics.getSpriteCacheSize());
+        assertTrue(metrics.getSpriteCacheBytes() > 0);
+        assertEquals(2.0, metrics.getTickP99Millis(), 1e-9);
+    }
+
+    @Test
+    void deathsAccumulateAcrossKnights() throws Exception {
+        knight.increaseDeaths();
+        metrics.sample(30, scene, profiler, spriteLoader);
+        knight.increaseDeaths();
+        metrics.sample(30, scene, profiler, spriteLoader);
+
+        Knight newKnight = new Knight(0, 0, 50, 10, 1);
+        newKnight.increaseDeaths();
+        metrics.sample(30, new SceneLoader(0).createScene(newKnight), profiler, spriteLoader);
+
+        assertEquals(3, metrics.getDeaths());
+    }
+
+    @Test
+    void resetIsAppliedOnNextSample() {
+        metrics.recordLevelLoad(5_000_000);
+        knight.increaseDeaths();
+        metrics.sample(30, scene, profiler, spriteLoader);
+
+        metrics.resetCounters();
+        assertEquals(1, metrics.getLevelLoads());
+
+        metrics.sample(30, scene, profiler, spriteLoader);
+        assertEquals(0, metrics.getLevelLoads());
+        assertEquals(0, metrics.getDeaths());
+        assertEquals(0.0, metrics.getMaxLevelLoadMillis());
+    }
+
+    @Test
+    void targetTickRateIsValidated() {
+        metrics.setTargetTickRate(60);
+        assertEquals(60, metrics.getTargetTickRate());
+
+        assertThrows(IllegalArgumentException.class, () -> metrics.setTargetTickRate(0));
+        assertThrows(IllegalArgumentException.class, () -> metrics.setTargetTickRate(GameMetrics.MAX_TICK_RATE + 1));
+    }
+
+    @Test
+    void attributesAndOperationsAreReachableThroughJmx() throws Exception {
+        MBeanServer server = MBeanServerFactory.newMBeanServer();
+        ObjectName name = metrics.register(server);
+        metrics.sample(30, scene, profiler, spriteLoader);
+
+        assertEquals(new ObjectName(GameMetrics.OBJECT_NAME), name);
+        assertEquals(30, server.getAttribute(name, "CurrentFps"));
+
+        server.setAttribute(name, new Attribute("TargetTickRate", 45));
+        assertEquals(45, metrics.getTargetTickRate());
+
+        server.invoke(name, "resetCounters", null, null);
+        metrics.sample(30, scene, profiler, spriteLoader);
+        assertEquals(0L, server.getAttribute(name, "Deaths"));
+    }
+}
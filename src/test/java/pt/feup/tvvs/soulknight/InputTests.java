@@ -0,0 +1,197 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.controller.game.PlayerController;
+import pt.feup.tvvs.soulknight.gui.ActionSet;
+import pt.feup.tvvs.soulknight.gui.GUI;
+import pt.feup.tvvs.soulknight.gui.KeyEventQueue;
+import pt.feup.tvvs.soulknight.gui.LanternaGUI;
+import pt.feup.tvvs.soulknight.gui.ScreenGenerator;
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
+import pt.feup.tvvs.soulknight.metrics.InputLatency;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+import com.googlecode.lanterna.screen.Screen;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.JPanel;
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.awt.event.KeyEvent.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class InputTests {
+
+    private final JPanel source = new JPanel();
+
+    private LanternaGUI createGUI() throws Exception {
+        ScreenGenerator generator = mock(ScreenGenerator.class);
+        when(generator.createScreen(any(), any(), any())).thenReturn(mock(Screen.class));
+        return new LanternaGUI(generator, "test");
+    }
+
+    private void press(LanternaGUI gui, int keyCode) {
+        gui.getKeyAdapter().keyPressed(new KeyEvent(source, KEY_PRESSED, 0, 0, keyCode, CHAR_UNDEFINED));
+    }
+
+    private void release(LanternaGUI gui, int keyCode) {
+        gui.getKeyAdapter().keyReleased(new KeyEvent(source, KEY_RELEASED, 0, 0, keyCode, CHAR_UNDEFINED));
+    }
+
+    private ActionSet poll(LanternaGUI gui) {
+        ActionSet actions = new ActionSet();
+        gui.pollActions(actions);
+        return actions;
+    }
+
+    // ---------- KeyEventQueue ----------
+
+    @Test
+    void queueDrainsEventsInArrivalOrder() {
+        KeyEventQueue queue = new KeyEventQueue(4);
+        queue.offer(VK_RIGHT, true, 10);
+        queue.offer(VK_SPACE, true, 20);
+        queue.offer(VK_SPACE, false, 30);
+
+        List<String> events = new ArrayList<>();
+        int drained = queue.drain((keyCode, pressed, nanos) -> events.add(keyCode + ":" + pressed + "@" + nanos));
+
+        assertEquals(3, drained);
+        assertEquals(List.of(VK_RIGHT + ":true@10", VK_SPACE + ":true@20", VK_SPACE + ":false@30"), events);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void fullQueueDropsAndCountsNewEvents() {
+        KeyEventQueue queue = new KeyEventQueue(3);
+        assertEquals(4, queue.capacity());
+
+        for (int i = 0; i < 4; i++)
+            assertTrue(queue.offer(i, true, i));
+        assertFalse(queue.offer(99, true, 99));
+
+        assertEquals(1, queue.getDropped());
+        assertEquals(4, queue.drain((keyCode, pressed, nanos) -> assertNotEquals(99, keyCode)));
+        assertTrue(queue.offer(5, true, 5));
+    }
+
+    @Test
+    void queueHandsEveryEventAcrossThreadsInOrder() throws Exception {
+        int events = 50_000;
+        KeyEventQueue queue = new KeyEventQueue(64);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < events; i++)
+                while (!queue.offer(i, (i & 1) == 0, i))
+                    Thread.yield();
+        });
+        producer.start();
+
+        long[] expected = {0};
+        KeyEventQueue.Listener check = (keyCode, pressed, nanos) -> {
+            assertEquals(expected[0], keyCode);
+            assertEquals(expected[0], nanos);
+            assertEquals((keyCode & 1) == 0, pressed);
+            expected[0]++;
+        };
+        while (expected[0] < events) {
+            if (queue.drain(check) == 0)
+                Thread.yield();
+        }
+        producer.join();
+        assertEquals(0, queue.size());
+    }
+
+    // ---------- LanternaGUI ----------
+
+    @Test
+    void tapWhileHoldingKeepsBothActions() throws Exception {
+        LanternaGUI gui = createGUI();
+
+        press(gui, VK_RIGHT);
+        press(gui, VK_SPACE);
+        release(gui, VK_SPACE);
+        assertEquals(ActionSet.of(GUI.ACTION.RIGHT, GUI.ACTION.JUMP), poll(gui));
+
+        assertEquals(ActionSet.of(GUI.ACTION.RIGHT), poll(gui));
+
+        release(gui, VK_RIGHT);
+        assertTrue(poll(gui).isEmpty());
+    }
+
+    @Test
+    void keysPressedAndReleasedWithinATickAreNotLost() throws Exception {
+        LanternaGUI gui = createGUI();
+
+        press(gui, VK_LEFT);
+        release(gui, VK_LEFT);
+        press(gui, VK_ENTER);
+        release(gui, VK_ENTER);
+
+        assertEquals(ActionSet.of(GUI.ACTION.LEFT, GUI.ACTION.SELECT), poll(gui));
+        assertTrue(poll(gui).isEmpty());
+    }
+
+    @Test
+    void keyPressIsTimedUntilTheScreenRefreshes() throws Exception {
+        LanternaGUI gui = createGUI();
+        FrameProfiler profiler = new FrameProfiler(1_000_000);
+        gui.setProfiler(profiler);
+        InputLatency latency = profiler.getInputLatency();
+
+        long before = System.nanoTime();
+        press(gui, VK_SPACE);
+        ActionSet actions = poll(gui);
+        assertTrue(actions.getInputNanos() >= before);
+
+        latency.beginTick(actions.getInputNanos());
+        gui.flush();
+        latency.endTick();
+
+        // Nothing new pressed: the held-down tick takes no sample
+        latency.beginTick(poll(gui).getInputNanos());
+        gui.flush();
+        latency.endTick();
+
+        for (InputLatency.Stage stage : new InputLatency.Stage[]{InputLatency.Stage.POLLED,
+                InputLatency.Stage.DRAWN, InputLatency.Stage.DISPLAYED})
+            assertEquals(1, latency.getHistogram(stage).getCount(), stage.name());
+        assertEquals(0, latency.getHistogram(InputLatency.Stage.APPLIED).getCount());
+        assertTrue(latency.getHistogram(InputLatency.Stage.DISPLAYED).getMin()
+                >= latency.getHistogram(InputLatency.Stage.POLLED).getMin());
+    }
+
+    // ---------- ActionSet ----------
+
+    @Test
+    void primaryPrefersOneShotActionsOverHeldMovement() {
+        assertEquals(GUI.ACTION.JUMP, ActionSet.of(GUI.ACTION.RIGHT, GUI.ACTION.JUMP).primary());
+        assertEquals(GUI.ACTION.LEFT, ActionSet.of(GUI.ACTION.LEFT).primary());
+        assertEquals(GUI.ACTION.NULL, ActionSet.of(GUI.ACTION.NULL).primary());
+        assertEquals("RIGHT+JUMP", ActionSet.of(GUI.ACTION.JUMP, GUI.ACTION.RIGHT).toString());
+    }
+
+    // ---------- PlayerController ----------
+
+    @Test
+    void runningJumpMovesAndJumpsOnTheSameTick() throws Exception {
+        Knight knight = new Knight(0, 0, 50, 10, 1);
+        Scene scene = new SceneLoader(0).createScene(knight, 1L);
+        PlayerController controller = new PlayerController(scene);
+        Game game = mock(Game.class);
+
+        for (int tick = 0; tick < 30; tick++)
+            controller.move(game, GUI.ACTION.NULL, tick);
+        double groundY = knight.getVelocity().y();
+
+        controller.move(game, ActionSet.of(GUI.ACTION.RIGHT, GUI.ACTION.JUMP), 30);
+
+        assertTrue(knight.isFacingRight());
+        assertTrue(knight.getVelocity().x() > 0, "velocity " + knight.getVelocity());
+        assertTrue(knight.getVelocity().y() < groundY, "velocity " + knight.getVelocity());
+    }
+}
@@ -0,0 +1,129 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.model.dataStructs.Position;
+import pt.feup.tvvs.soulknight.model.game.elements.enemies.Enemies;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.LevelPatch;
+import pt.feup.tvvs.soulknight.model.game.scene.LevelTemplate;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+import pt.feup.tvvs.soulknight.state.LevelHotReloader;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelHotReloaderTests {
+
+    private static final List<String> BEFORE = List.of(
+            "",
+            " P e  E   s  h   u",
+            "xxxxxxxxxxxxxxxxxxxxxx");
+
+    private static final List<String> AFTER = List.of(
+            "      m",
+            " P    E  ^s  h    u",
+            "xxxxxxxxxxxxxxxxxxxxxx  x");
+
+    @AfterEach
+    void evictTestLevels() {
+        for (int id = 42; id <= 45; id++)
+            SceneLoader.evictTemplate(id);
+    }
+
+    private static Scene scene(int id, List<String> lines) {
+        return new SceneLoader(LevelTemplate.parse(id, lines)).createScene(new Knight(0, 0, 50, 10, 1), 1L);
+    }
+
+    @Test
+    void onlyChangedCellsArePatched() {
+        Scene scene = scene(42, BEFORE);
+        Knight knight = scene.getPlayer();
+        knight.setPosition(new Position(30, 4));
+        Enemies sword = scene.getMonsters().get(0);
+        sword.setPosition(new Position(60, 8));
+        Object untouchedWall = scene.getTiles()[2][0];
+
+        LevelPatch patch = LevelPatch.diff(42, BEFORE, AFTER);
+        assertEquals(6, patch.size());
+        patch.apply(scene);
+
+        assertNull(scene.getOrbs()[1][3]);
+        assertNotNull(scene.getSpikes()[1][9]);
+        assertNotNull(scene.getTiles()[2][24]);
+        assertSame(untouchedWall, scene.getTiles()[2][0]);
+        assertEquals(2, scene.getMonsters().size());
+        assertSame(sword, scene.getMonsters().get(1));
+        assertEquals(60, sword.getPosition().x());
+        assertEquals(30, knight.getPosition().x());
+        assertEquals(4, knight.getPosition().y());
+        assertTrue(scene.getRevision() > 0);
+        assertEquals(LevelTemplate.parse(42, AFTER), scene.getTemplate());
+    }
+
+    @Test
+    void patchedSceneMatchesAFreshlyLoadedOne() {
+        Scene patched = scene(43, BEFORE);
+        LevelPatch.diff(43, BEFORE, AFTER).apply(patched);
+        Scene fresh = scene(43, AFTER);
+
+        for (int y = 0; y < patched.getHeight(); y++) {
+            for (int x = 0; x < patched.getWidth(); x++) {
+                assertEquals(fresh.getTiles()[y][x] == null, patched.getTiles()[y][x] == null);
+                assertEquals(fresh.getSpikes()[y][x] == null, patched.getSpikes()[y][x] == null);
+                assertEquals(fresh.getOrbs()[y][x] == null, patched.getOrbs()[y][x] == null);
+            }
+        }
+        assertEquals(fresh.getStartPosition().x(), patched.getStartPosition().x());
+    }
+
+    @Test
+    void reachedCheckpointsSurviveAnEdit() {
+        List<String> before = List.of(
+                "",
+                " P  c     c   u",
+                "xxxxxxxxxxxxxxxxxx");
+        List<String> after = List.of(
+                "",
+                " P  c   c     u",
+                "xxxxxxxxxxxxxxxxxx");
+        Scene scene = scene(45, before);
+        Knight knight = scene.getPlayer();
+        knight.setPosition(new Position(4 * 8, 8));
+        assertTrue(scene.reachCheckpoint());
+        knight.setPosition(new Position(10 * 8, 8));
+        assertTrue(scene.reachCheckpoint());
+
+        LevelPatch.diff(45, before, after).apply(scene);
+
+        knight.setPosition(new Position(4 * 8, 8));
+        assertFalse(scene.reachCheckpoint());
+        knight.setPosition(new Position(8 * 8, 8));
+        assertTrue(scene.reachCheckpoint());
+    }
+
+    @Test
+    void editedFileReachesTheRunningScene(@TempDir Path levels) throws Exception {
+        Path file = levels.resolve("level44.lvl");
+        Files.write(file, BEFORE, UTF_8);
+        Scene scene = scene(44, BEFORE);
+
+        try (LevelHotReloader reloader = new LevelHotReloader(levels)) {
+            Files.write(file, AFTER, UTF_8);
+            long deadline = System.nanoTime() + 10_000_000_000L;
+            while (reloader.apply(scene) == 0 && System.nanoTime() < deadline)
+                Thread.sleep(5);
+        }
+
+        assertNotNull(scene.getSpikes()[1][9]);
+        assertEquals(LevelTemplate.parse(44, AFTER), SceneLoader.getTemplate(44));
+    }
+}
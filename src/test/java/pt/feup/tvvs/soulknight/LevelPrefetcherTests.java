@@ -0,0 +1,68 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.gui.NullGUI;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+import pt.feup.tvvs.soulknight.sound.NullSoundPlayer;
+import pt.feup.tvvs.soulknight.state.GameState;
+import pt.feup.tvvs.soulknight.state.LevelPrefetcher;
+import pt.feup.tvvs.soulknight.view.sprites.GameSpriteLoader;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelPrefetcherTests {
+
+    private static final long FRAME_NANOS = TimeUnit.SECONDS.toNanos(1) / 30;
+
+    private static void awaitReady(LevelPrefetcher prefetcher, int sceneId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!prefetcher.isReady(sceneId) && System.nanoTime() < deadline)
+            Thread.sleep(5);
+        assertTrue(prefetcher.isReady(sceneId));
+    }
+
+    @Test
+    void startingALevelPrefetchesTheNextOne() throws Exception {
+        SceneLoader.clearCache();
+        Game game = new Game(new NullGUI(), new NullSoundPlayer(), new GameSpriteLoader(), 1L);
+        Knight knight = new Knight(0, 0, 50, 10, 1);
+
+        game.startLevel(0, knight);
+        awaitReady(game.getLevelPrefetcher(), 1);
+
+        long start = System.nanoTime();
+        game.startLevel(1, knight);
+        long transition = System.nanoTime() - start;
+
+        assertInstanceOf(GameState.class, game.getState());
+        assertEquals(1, ((Scene) game.getState().getModel()).getSceneID());
+        assertTrue(transition < FRAME_NANOS, "level transition took " + transition / 1_000_000.0 + " ms");
+    }
+
+    @Test
+    void levelThatWasNotPrefetchedIsLoadedOnTheSpot() throws Exception {
+        LevelPrefetcher prefetcher = new LevelPrefetcher(new GameSpriteLoader());
+        prefetcher.prefetch(2);
+
+        LevelPrefetcher.PreparedLevel level = prefetcher.take(3);
+
+        assertEquals(3, level.getTemplate().getId());
+        assertNotNull(level.getViewerProvider());
+        assertFalse(prefetcher.isReady(2));
+    }
+
+    @Test
+    void failedPrefetchReportsTheErrorWhenTaken() throws Exception {
+        LevelPrefetcher prefetcher = new LevelPrefetcher(new GameSpriteLoader());
+        prefetcher.prefetch(404);
+        awaitReady(prefetcher, 404);
+
+        assertThrows(FileNotFoundException.class, () -> prefetcher.take(404));
+    }
+}
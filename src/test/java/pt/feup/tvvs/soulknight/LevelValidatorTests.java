@@ -0,0 +1,104 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.validation.LevelReport;
+import pt.feup.tvvs.soulknight.validation.LevelValidator;
+import pt.feup.tvvs.soulknight.validation.MovementModel;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelValidatorTests {
+
+    private static final long MAX_MILLIS_PER_LEVEL = 200;
+
+    private static LevelValidator validator;
+
+    @BeforeAll
+    static void buildMovementModel() {
+        validator = new LevelValidator(new MovementModel());
+    }
+
+    @Test
+    void everyLevelIsValidatedQuickly() throws Exception {
+        List<LevelReport> reports = validator.validateResources("levels");
+
+        assertEquals(List.of("level0.lvl", "level1.lvl", "level2.lvl", "level3.lvl", "level5.lvl",
+                        "levelJumpTest.lvl", "levelKnight.lvl"),
+                reports.stream().map(LevelReport::getName).collect(Collectors.toList()));
+        for (LevelReport report : reports) {
+            if (report.getName().matches("level\\d+\\.lvl")) {
+                assertTrue(report.isValid(), report.toString());
+                assertEquals(LevelValidator.REQUIRED_ORBS, report.getReachableOrbs(), report.toString());
+            } else {
+                // Sandboxes for trying out movement, with no way out
+                assertEquals(List.of("no exit 'u'"), report.getErrors(), report.toString());
+            }
+            assertTrue(report.getDurationNanos() / 1_000_000 < MAX_MILLIS_PER_LEVEL, report.toString());
+        }
+    }
+
+    @Test
+    void walledOffExitIsReported() {
+        LevelReport report = validator.validate("walled", List.of(
+                "            x",
+                "            x",
+                "            x",
+                "            x",
+                "            x",
+                "            x",
+                "            x",
+                "            x",
+                "            x",
+                "            x",
+                " P  e s h   x         u",
+                "xxxxxxxxxxxxxxxxxxxxxxxxxxxx"));
+
+        assertFalse(report.isValid());
+        assertTrue(report.getErrors().contains("the exit cannot be reached from 'P'"), report.toString());
+        // Orbs only count when the knight can still leave with them
+        assertEquals(0, report.getReachableOrbs());
+        assertTrue(report.getWarnings().contains("orb at (4, 10) strands the knight away from the exit"),
+                report.toString());
+        assertFalse(report.getDeadZones().isEmpty());
+    }
+
+    @Test
+    void orbsBehindSpikesAndUnreachableSpikesAreReported() {
+        LevelReport report = validator.validate("spiky", List.of(
+                "                          ^",
+                "",
+                "",
+                "",
+                "",
+                "",
+                "",
+                "",
+                "",
+                "",
+                "h",
+                "^^^^^^",
+                "x",
+                " P  e s            u",
+                "xxxxxxxxxxxxxxxxxxxxxxxxxxxx"));
+
+        assertFalse(report.isValid());
+        assertEquals(2, report.getReachableOrbs());
+        assertTrue(report.getWarnings().contains("orb at (0, 10) cannot be reached"), report.toString());
+        // The lone spike up in the corner and the one boxed in under the orb
+        assertEquals(2, report.getUnreachableSpikes().size());
+        assertTrue(report.getUnreachableSpikes().stream().anyMatch(p -> p.x() == 26 && p.y() == 0));
+        assertTrue(report.getUnreachableSpikes().stream().anyMatch(p -> p.x() == 0 && p.y() == 11));
+    }
+
+    @Test
+    void missingStartAndExitAreErrors() {
+        LevelReport report = validator.validate("empty", List.of("xxxx"));
+
+        assertEquals(List.of("no knight start 'P'", "no exit 'u'"), report.getErrors());
+    }
+}
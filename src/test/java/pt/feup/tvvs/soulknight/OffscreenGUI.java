@@ -0,0 +1,49 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.gui.BufferedImageGUI;
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
+import com.googlecode.lanterna.TextColor;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BufferedImageGUI} with the stats overlay hooks the game viewer needs, for headless tests and benchmarks.
+ */
+public class OffscreenGUI extends BufferedImageGUI {
+    private int fps;
+    private FrameProfiler profiler = new FrameProfiler(TimeUnit.SECONDS.toNanos(1) / 30);
+
+    public OffscreenGUI(BufferedImage buffer) {
+        super(buffer);
+    }
+
+    public OffscreenGUI() {
+        this(new BufferedImage(Game.PIXEL_WIDTH, Game.PIXEL_HEIGHT, BufferedImage.TYPE_INT_ARGB));
+    }
+
+    @Override
+    public int getFPS() {
+        return fps;
+    }
+
+    @Override
+    public void setFPS(int fps) {
+        this.fps = fps;
+    }
+
+    @Override
+    public FrameProfiler getProfiler() {
+        return FrameProfiler.orDisabled(profiler);
+    }
+
+    @Override
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void drawHitBox(int x, int y, int width, int height, TextColor.RGB color) {
+        drawRectangle(x, y, width, height, color);
+    }
+}
@@ -0,0 +1,310 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.assets.AssetBundle;
+import pt.feup.tvvs.soulknight.assets.AssetBundler;
+import pt.feup.tvvs.soulknight.controller.game.EnemieController;
+import pt.feup.tvvs.soulknight.controller.game.ParticleController;
+import pt.feup.tvvs.soulknight.controller.game.PlayerController;
+import pt.feup.tvvs.soulknight.controller.game.SceneController;
+import pt.feup.tvvs.soulknight.gui.GUI;
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.RewindBuffer;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+import pt.feup.tvvs.soulknight.view.sprites.GameSpriteLoader;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteAtlas;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
+import pt.feup.tvvs.soulknight.view.sprites.ViewerProvider;
+import pt.feup.tvvs.soulknight.view.states.GameViewer;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.io.File;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Headless cost checks for the hot paths of a game tick. Only run with {@code mvn test -Pperformance}.
+ * Every budget can be overridden on the command line, e.g. {@code -Dperf.sceneTickMicros=8000}.
+ */
+@Tag("performance")
+class PerformanceTests {
+
+    private static final int WARMUP_TICKS = Integer.getInteger("perf.warmupTicks", 200);
+    private static final int TICKS = Integer.getInteger("perf.ticks", 600);
+
+    private static final long SCENE_TICK_MICROS = Long.getLong("perf.sceneTickMicros", 12_000);
+    private static final long SCENE_TICK_BYTES = Long.getLong("perf.sceneTickBytes", 512 * 1024);
+    private static final long FRAME_MICROS = Long.getLong("perf.frameMicros", 16_000);
+    private static final long FRAME_BYTES = Long.getLong("perf.frameBytes", 4 * 1024 * 1024);
+    private static final long REWIND_CAPTURE_MICROS = Long.getLong("perf.rewindCaptureMicros", 200);
+    private static final long REWIND_CAPTURE_BYTES = Long.getLong("perf.rewindCaptureBytes", 0);
+    private static final long LEVEL_LOAD_MICROS = Long.getLong("perf.levelLoadMicros", 30_000);
+    private static final long LEVEL_LOAD_BYTES = Long.getLong("perf.levelLoadBytes", 4 * 1024 * 1024);
+    private static final long ASSET_LOAD_MILLIS = Long.getLong("perf.assetLoadMillis", 250);
+
+    private static final GUI.ACTION[] SCRIPT = scriptedActions();
+
+    private static com.sun.management.ThreadMXBean threadBean;
+    private static SpriteLoader spriteLoader;
+
+    private Game game;
+
+    @BeforeAll
+    static void setUpThreadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "Per-thread allocation counters unavailable");
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported(), "Per-thread allocation counters unavailable");
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        spriteLoader = new GameSpriteLoader();
+    }
+
+    @BeforeEach
+    void setUpGame() {
+        game = mock(Game.class);
+        when(game.getNumberOfLevels()).thenReturn(4);
+        when(game.getSpriteLoader()).thenReturn(spriteLoader);
+        when(game.getProfiler()).thenReturn(new FrameProfiler(FRAME_MICROS * 1_000));
+    }
+
+    // ---------- Helpers ----------
+
+    private static GUI.ACTION[] scriptedActions() {
+        GUI.ACTION[] script = new GUI.ACTION[120];
+        Arrays.fill(script, 0, 40, GUI.ACTION.RIGHT);
+        Arrays.fill(script, 40, 60, GUI.ACTION.NULL);
+        Arrays.fill(script, 60, 100, GUI.ACTION.LEFT);
+        Arrays.fill(script, 100, 120, GUI.ACTION.NULL);
+        script[10] = GUI.ACTION.JUMP;
+        script[18] = GUI.ACTION.JUMP;
+        script[30] = GUI.ACTION.DASH;
+        script[75] = GUI.ACTION.JUMP;
+        script[90] = GUI.ACTION.DASH;
+        return script;
+    }
+
+    private Scene loadScene(int level) throws Exception {
+        return new SceneLoader(level).createScene(new Knight(0, 0, 50, 10, 1));
+    }
+
+    private SceneController createController(Scene scene) {
+        return new SceneController(scene, new PlayerController(scene),
+                new ParticleController(scene), new EnemieController(scene));
+    }
+
+    private long allocatedBytes() {
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static long percentile(long[] sortedSamples, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedSamples.length) - 1;
+        return sortedSamples[Math.max(0, Math.min(sortedSamples.length - 1, index))];
+    }
+
+    private static long mean(long[] samples) {
+        long total = 0;
+        for (long sample : samples) total += sample;
+        return total / samples.length;
+    }
+
+    // The measurements go to the surefire report through the reporter and into the message of a failed budget
+    private static void assertWithinBudget(TestReporter reporter, String what, long[] nanos, long[] bytes,
+                                           long budgetMicros, long budgetBytes) {
+        Arrays.sort(nanos);
+        long p99Micros = percentile(nanos, 0.99) / 1_000;
+        long meanBytes = mean(bytes);
+        String measured = String.format("mean %d us, p99 %d us, max %d us, %d B/tick",
+                mean(nanos) / 1_000, p99Micros, nanos[nanos.length - 1] / 1_000, meanBytes);
+        reporter.publishEntry(what, measured);
+
+        assertTrue(p99Micros <= budgetMicros,
+                what + " p99 took " + p99Micros + " us, budget is " + budgetMicros + " us (" + measured + ")");
+        assertTrue(meanBytes <= budgetBytes,
+                what + " allocated " + meanBytes + " B per tick, budget is " + budgetBytes + " B (" + measured + ")");
+    }
+
+    // ---------- SceneController ----------
+
+    @Test
+    void sceneControllerTickStaysWithinBudget(TestReporter reporter) throws Exception {
+        Scene scene = loadScene(0);
+        SceneController controller = createController(scene);
+
+        for (int tick = 0; tick < WARMUP_TICKS; tick++)
+            controller.move(game, SCRIPT[tick % SCRIPT.length], tick);
+
+        long[] nanos = new long[TICKS];
+        long[] bytes = new long[TICKS];
+        for (int i = 0; i < TICKS; i++) {
+            long tick = WARMUP_TICKS + i;
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+
+            controller.move(game, SCRIPT[(int) (tick % SCRIPT.length)], tick);
+
+            nanos[i] = System.nanoTime() - start;
+            bytes[i] = allocatedBytes() - bytesBefore;
+        }
+
+        assertWithinBudget(reporter, "SceneController.move", nanos, bytes, SCENE_TICK_MICROS, SCENE_TICK_BYTES);
+    }
+
+    // ---------- RewindBuffer ----------
+
+    @Test
+    void rewindCaptureAllocatesNothing(TestReporter reporter) throws Exception {
+        Scene scene = loadScene(1);
+        SceneController controller = createController(scene);
+        RewindBuffer rewind = new RewindBuffer(scene);
+
+        for (int tick = 0; tick < WARMUP_TICKS; tick++) {
+            controller.move(game, SCRIPT[tick % SCRIPT.length], tick);
+            rewind.capture();
+        }
+
+        long[] nanos = new long[TICKS];
+        long[] bytes = new long[TICKS];
+        for (int i = 0; i < TICKS; i++) {
+            long tick = WARMUP_TICKS + i;
+            controller.move(game, SCRIPT[(int) (tick % SCRIPT.length)], tick);
+
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+
+            rewind.capture();
+
+            nanos[i] = System.nanoTime() - start;
+            bytes[i] = allocatedBytes() - bytesBefore;
+        }
+
+        assertWithinBudget(reporter, "RewindBuffer.capture", nanos, bytes, REWIND_CAPTURE_MICROS, REWIND_CAPTURE_BYTES);
+    }
+
+    // ---------- GameViewer ----------
+
+    @Test
+    void gameViewerFrameStaysWithinBudget(TestReporter reporter) throws Exception {
+        Scene scene = loadScene(0);
+        SceneController controller = createController(scene);
+        GameViewer viewer = new GameViewer(scene, new ViewerProvider(spriteLoader));
+        GUI gui = new OffscreenGUI();
+
+        for (int tick = 0; tick < WARMUP_TICKS; tick++) {
+            controller.move(game, SCRIPT[tick % SCRIPT.length], tick);
+            viewer.draw(gui, tick);
+        }
+
+        long[] nanos = new long[TICKS];
+        long[] bytes = new long[TICKS];
+        for (int i = 0; i < TICKS; i++) {
+            long tick = WARMUP_TICKS + i;
+            controller.move(game, SCRIPT[(int) (tick % SCRIPT.length)], tick);
+
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+
+            viewer.draw(gui, tick);
+
+            nanos[i] = System.nanoTime() - start;
+            bytes[i] = allocatedBytes() - bytesBefore;
+        }
+
+        assertWithinBudget(reporter, "GameViewer.draw", nanos, bytes, FRAME_MICROS, FRAME_BYTES);
+    }
+
+    // ---------- SceneLoader ----------
+
+    @Test
+    void sceneLoaderStaysWithinBudget(TestReporter reporter) throws Exception {
+        int levels = 4;
+        int rounds = Math.max(1, TICKS / 20);
+
+        for (int i = 0; i < Math.max(1, WARMUP_TICKS / 20); i++)
+            loadScene(i % levels);
+
+        long[] nanos = new long[rounds * levels];
+        long[] bytes = new long[rounds * levels];
+        for (int i = 0; i < nanos.length; i++) {
+            long bytesBefore = allocatedBytes();
+            long start = System.nanoTime();
+
+            Scene scene = loadScene(i % levels);
+
+            nanos[i] = System.nanoTime() - start;
+            bytes[i] = allocatedBytes() - bytesBefore;
+            assertNotNull(scene.getPlayer());
+        }
+
+        assertWithinBudget(reporter, "SceneLoader.createScene", nanos, bytes, LEVEL_LOAD_MICROS, LEVEL_LOAD_BYTES);
+    }
+
+    // ---------- Startup ----------
+
+    // Loads the game classes again in a loader of their own, so the assets load cold, and notes every
+    // resource they look up
+    private static class RecordingClassLoader extends URLClassLoader {
+        final List<String> lookedUp = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingClassLoader() throws MalformedURLException {
+            super(classPath(), ClassLoader.getPlatformClassLoader());
+        }
+
+        private static URL[] classPath() throws MalformedURLException {
+            String[] entries = System.getProperty("java.class.path").split(File.pathSeparator);
+            URL[] urls = new URL[entries.length];
+            for (int i = 0; i < entries.length; i++)
+                urls[i] = new File(entries[i]).toURI().toURL();
+            return urls;
+        }
+
+        @Override
+        public URL findResource(String name) {
+            lookedUp.add(name);
+            return super.findResource(name);
+        }
+    }
+
+    @Test
+    void coldAssetLoadingReadsOnlyTheBundle(TestReporter reporter) throws Exception {
+        try (RecordingClassLoader loader = new RecordingClassLoader()) {
+            long start = System.nanoTime();
+
+            Object atlas = loader.loadClass(SpriteAtlas.class.getName()).getMethod("load").invoke(null);
+            try (InputStream fontMap = (InputStream) loader.loadClass(AssetBundle.class.getName())
+                    .getMethod("openResource", String.class).invoke(null, AssetBundler.FONT_MAP)) {
+                assertTrue(fontMap.readAllBytes().length > 0);
+            }
+            assertNotNull(loader.loadClass(SceneLoader.class.getName())
+                    .getMethod("getTemplate", int.class).invoke(null, 0));
+
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            reporter.publishEntry("cold asset loading", millis + " ms");
+            List<String> sources = loader.lookedUp.stream()
+                    .filter(name -> name.endsWith(".png") || name.endsWith(".lvl") || name.equals(AssetBundler.FONT_MAP))
+                    .collect(Collectors.toList());
+            assertTrue(loader.lookedUp.contains(AssetBundle.RESOURCE), loader.lookedUp.toString());
+            assertEquals(List.of(), sources, "opened sources besides the bundle");
+            assertTrue((int) atlas.getClass().getMethod("size").invoke(atlas) > 0);
+            assertTrue(millis <= ASSET_LOAD_MILLIS,
+                    "cold asset loading took " + millis + " ms, budget is " + ASSET_LOAD_MILLIS + " ms");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.gui.LanternaGUI;
+import pt.feup.tvvs.soulknight.gui.LanternaScreenGenerator;
+import pt.feup.tvvs.soulknight.gui.RescalableGUI;
+import pt.feup.tvvs.soulknight.gui.ScreenGenerator;
+import com.googlecode.lanterna.TerminalSize;
+import com.googlecode.lanterna.screen.Screen;
+import com.googlecode.lanterna.terminal.swing.AWTTerminalFontConfiguration;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.*;
+
+class ResolutionTests {
+
+    @Test
+    void fontIsReadOnceAndEachSizeDerivedOnce() throws Exception {
+        LanternaScreenGenerator generator = new LanternaScreenGenerator(new TerminalSize(160, 90), new Rectangle(1280, 720));
+
+        AWTTerminalFontConfiguration small = generator.getFontConfiguration(4);
+        AWTTerminalFontConfiguration large = generator.getFontConfiguration(8);
+
+        assertSame(small, generator.getFontConfiguration(4));
+        assertSame(large, generator.getFontConfiguration(8));
+        assertNotSame(small, large);
+        assertTrue(large.getFontHeight() > small.getFontHeight());
+        assertEquals(1, generator.getFontLoads());
+    }
+
+    @Test
+    void switchKeepsTheWindowWhenTheScreenCanBeRescaled() throws Exception {
+        Screen first = mock(Screen.class);
+        Screen rescaled = mock(Screen.class);
+        ScreenGenerator generator = mock(ScreenGenerator.class);
+        when(generator.createScreen(any(), any(), any())).thenReturn(first);
+        when(generator.rescaleScreen(same(first), any(), any())).thenReturn(rescaled);
+
+        LanternaGUI gui = new LanternaGUI(generator, "test");
+        gui.setResolutionScale(RescalableGUI.ResolutionScale.WXGA);
+        gui.cls();
+
+        verify(generator, times(1)).createScreen(any(), any(), any());
+        verify(first, never()).close();
+        verify(rescaled).startScreen();
+        verify(rescaled).clear();
+        assertEquals(RescalableGUI.ResolutionScale.WXGA, gui.getResolutionScale());
+    }
+
+    @Test
+    void switchOpensANewScreenWhenItCannotBeRescaled() throws Exception {
+        Screen first = mock(Screen.class);
+        Screen second = mock(Screen.class);
+        ScreenGenerator generator = mock(ScreenGenerator.class);
+        when(generator.createScreen(any(), any(), any())).thenReturn(first, second);
+
+        LanternaGUI gui = new LanternaGUI(generator, "test");
+        gui.setResolutionScale(RescalableGUI.ResolutionScale.WXGA);
+
+        verify(first).close();
+        verify(second).startScreen();
+        verify(generator, times(2)).createScreen(any(), any(), any());
+    }
+}
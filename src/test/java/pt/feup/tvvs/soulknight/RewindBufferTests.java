@@ -0,0 +1,115 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.controller.game.EnemieController;
+import pt.feup.tvvs.soulknight.controller.game.ParticleController;
+import pt.feup.tvvs.soulknight.controller.game.PlayerController;
+import pt.feup.tvvs.soulknight.controller.game.SceneController;
+import pt.feup.tvvs.soulknight.gui.ActionSet;
+import pt.feup.tvvs.soulknight.gui.GUI;
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
+import pt.feup.tvvs.soulknight.model.dataStructs.Position;
+import pt.feup.tvvs.soulknight.model.game.elements.enemies.Enemies;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.scene.LevelTemplate;
+import pt.feup.tvvs.soulknight.model.game.scene.RewindBuffer;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RewindBufferTests {
+
+    private static Scene scene() throws Exception {
+        return new SceneLoader(1).createScene(new Knight(0, 0, 50, 10, 1), 11L);
+    }
+
+    // Knight x, y, orbs left in the level and every monster's x, y
+    private static double[] state(Scene scene) {
+        List<Enemies> monsters = scene.getMonsters();
+        double[] state = new double[3 + 2 * monsters.size()];
+        state[0] = scene.getPlayer().getPosition().x();
+        state[1] = scene.getPlayer().getPosition().y();
+        for (int y = 0; y < scene.getOrbs().length; y++)
+            for (int x = 0; x < scene.getOrbs()[y].length; x++)
+                if (scene.getOrbs()[y][x] != null)
+                    state[2]++;
+        for (int m = 0; m < monsters.size(); m++) {
+            state[3 + 2 * m] = monsters.get(m).getPosition().x();
+            state[4 + 2 * m] = monsters.get(m).getPosition().y();
+        }
+        return state;
+    }
+
+    private static void tick(Scene scene, int t) {
+        scene.getPlayer().setPosition(new Position(10 + t * 1.37, 40 + Math.sin(t) * 3.1));
+        for (Enemies monster : scene.getMonsters())
+            monster.setPosition(monster.moveMonster());
+        if (t == 20) {
+            LevelTemplate.Cells orbs = scene.getTemplate().get(LevelTemplate.Layer.ORB);
+            scene.getOrbs()[orbs.getY(0)][orbs.getX(0)] = null;
+        }
+    }
+
+    @Test
+    void steppingBackReplaysEveryRecordedFrame() throws Exception {
+        Scene scene = scene();
+        RewindBuffer rewind = new RewindBuffer(scene, 60, 8);
+        List<double[]> recorded = new ArrayList<>();
+        recorded.add(state(scene));
+        for (int t = 1; t < 45; t++) {
+            tick(scene, t);
+            rewind.capture();
+            recorded.add(state(scene));
+        }
+
+        for (int t = recorded.size() - 2; t >= 0; t--) {
+            assertTrue(rewind.stepBack());
+            assertArrayEquals(recorded.get(t), state(scene), 1e-3, "frame " + t);
+        }
+        assertFalse(rewind.stepBack());
+    }
+
+    @Test
+    void onlyTheConfiguredNumberOfFramesIsKept() throws Exception {
+        Scene scene = scene();
+        RewindBuffer rewind = new RewindBuffer(scene, 30, 10);
+        long bytes = rewind.getMemoryBytes();
+        for (int t = 1; t <= 100; t++) {
+            tick(scene, t);
+            rewind.capture();
+        }
+
+        assertEquals(30, rewind.size());
+        assertEquals(bytes, rewind.getMemoryBytes());
+        int steps = 0;
+        while (rewind.stepBack())
+            steps++;
+        assertEquals(29, steps);
+        assertEquals(10 + 71 * 1.37, scene.getPlayer().getPosition().x(), 1e-3);
+    }
+
+    @Test
+    void holdingRewindStepsTheSceneBack() throws Exception {
+        Scene scene = scene();
+        SceneController controller = new SceneController(scene, new PlayerController(scene),
+                new ParticleController(scene), new EnemieController(scene), new RewindBuffer(scene));
+        Game game = mock(Game.class);
+        when(game.getNumberOfLevels()).thenReturn(4);
+        when(game.getProfiler()).thenReturn(new FrameProfiler(33_000_000));
+
+        double startX = scene.getPlayer().getPosition().x();
+        for (int t = 0; t < 20; t++)
+            controller.move(game, ActionSet.of(GUI.ACTION.RIGHT), t * 40L);
+        assertTrue(scene.getPlayer().getPosition().x() > startX);
+
+        for (int t = 0; t < 20; t++)
+            controller.move(game, ActionSet.of(GUI.ACTION.REWIND), 800 + t * 40L);
+        assertEquals(startX, scene.getPlayer().getPosition().x(), 1e-3);
+    }
+}
@@ -0,0 +1,158 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.elements.enemies.Enemies;
+import pt.feup.tvvs.soulknight.model.game.scene.LevelBinary;
+import pt.feup.tvvs.soulknight.model.game.scene.LevelCompiler;
+import pt.feup.tvvs.soulknight.model.game.scene.LevelTemplate;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SceneLoaderTests {
+
+    @Test
+    void templateIsParsedOnceAndReused() throws Exception {
+        SceneLoader.clearCache();
+        LevelTemplate first = new SceneLoader(1).getTemplate();
+
+        assertSame(first, new SceneLoader(1).getTemplate());
+        SceneLoader.clearCache();
+        LevelTemplate reread = new SceneLoader(1).getTemplate();
+        assertNotSame(first, reread);
+        assertEquals(first, reread);
+    }
+
+    @Test
+    void scenesFromTheSameTemplateDoNotShareState() throws Exception {
+        SceneLoader loader = new SceneLoader(0);
+        Scene first = loader.createScene(new Knight(0, 0, 50, 10, 1), 7L);
+        Scene second = loader.createScene(new Knight(0, 0, 50, 10, 1), 7L);
+
+        assertNotSame(first.getOrbs(), second.getOrbs());
+        assertNotSame(first.getMonsters().get(0), second.getMonsters().get(0));
+        assertEquals(first.getMonsters().size(), second.getMonsters().size());
+        assertEquals(first.getStartPosition().x(), second.getStartPosition().x());
+    }
+
+    @Test
+    void singlePassSortsEveryCharacterIntoItsLayer() {
+        LevelTemplate template = LevelTemplate.parse(9, List.of(
+                "xP e",
+                "^tRm u"));
+
+        assertEquals(6, template.getWidth());
+        assertEquals(2, template.getLineCount());
+        assertEquals(1, template.getStartX());
+        assertEquals(5, template.getEndX());
+        assertEquals(1, template.get(LevelTemplate.Layer.SOLID).size());
+        assertEquals('^', template.get(LevelTemplate.Layer.SPIKE).getType(0));
+        assertEquals(1, template.get(LevelTemplate.Layer.TREE).getX(0));
+        assertEquals(2, template.get(LevelTemplate.Layer.ROCK).getX(0));
+        assertEquals('e', template.get(LevelTemplate.Layer.ORB).getType(0));
+        assertEquals(1, template.get(LevelTemplate.Layer.MONSTER).getY(0));
+    }
+
+    @Test
+    void missingLevelIsReported() {
+        assertThrows(FileNotFoundException.class, () -> new SceneLoader(404));
+    }
+
+    // ---------- Compiled levels ----------
+
+    private static LevelTemplate parseText(int id) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                SceneLoaderTests.class.getClassLoader().getResourceAsStream("levels/level" + id + ".lvl"), UTF_8))) {
+            return LevelTemplate.parse(id, reader);
+        }
+    }
+
+    // Every object of every layer with its position and character, in a fixed order
+    private static String describe(Scene scene) {
+        StringBuilder builder = new StringBuilder();
+        for (int y = 0; y < scene.getHeight(); y++) {
+            for (int x = 0; x < scene.getWidth(); x++) {
+                if (scene.getTiles()[y][x] != null)
+                    builder.append("tile ").append(x).append(',').append(y).append(scene.getTiles()[y][x].getCharacter()).append('\n');
+                if (scene.getSpikes()[y][x] != null)
+                    builder.append("spike ").append(x).append(',').append(y).append(scene.getSpikes()[y][x].getCharacter()).append('\n');
+                if (scene.getTrees()[y][x] != null)
+                    builder.append("tree ").append(x).append(',').append(y).append(scene.getTrees()[y][x].getChar()).append('\n');
+                if (scene.getRocks()[y][x] != null)
+                    builder.append("rock ").append(x).append(',').append(y).append(scene.getRocks()[y][x].getChar()).append('\n');
+                if (scene.getOrbs()[y][x] != null)
+                    builder.append("orb ").append(x).append(',').append(y).append(scene.getOrbs()[y][x].getChar()).append('\n');
+            }
+        }
+        for (Enemies monster : scene.getMonsters())
+            builder.append("monster ").append(monster.getPosition().x()).append(',').append(monster.getPosition().y())
+                    .append(monster.getChar()).append('\n');
+        builder.append("start ").append(scene.getStartPosition().x()).append(',').append(scene.getStartPosition().y());
+        return builder.toString();
+    }
+
+    @Test
+    void compiledLevelsBuildTheSameScenesAsTheTextFiles(@TempDir Path dir) throws Exception {
+        Path levels = Path.of(getClass().getClassLoader().getResource("levels").toURI());
+        assertTrue(LevelCompiler.compileAll(levels, dir) >= 4);
+
+        for (int id = 0; id < 4; id++) {
+            LevelTemplate text = parseText(id);
+            LevelTemplate compiled = LevelBinary.map(id, dir.resolve("level" + id + LevelBinary.EXTENSION));
+            assertEquals(text, compiled, "level " + id);
+
+            Scene fromText = new SceneLoader(text).createScene(new Knight(0, 0, 50, 10, 1), 3L);
+            Scene fromCompiled = new SceneLoader(compiled).createScene(new Knight(0, 0, 50, 10, 1), 3L);
+            assertEquals(describe(fromText), describe(fromCompiled), "level " + id);
+        }
+    }
+
+    @Test
+    void loaderReadsTheLevelsCompiledByTheBuild() throws Exception {
+        SceneLoader.clearCache();
+        assertNotNull(getClass().getClassLoader().getResource("levels/level2" + LevelBinary.EXTENSION));
+        assertEquals(parseText(2), new SceneLoader(2).getTemplate());
+    }
+
+    @Test
+    void compiledLevelOlderThanItsTextIsNotUsed(@TempDir Path dir) throws Exception {
+        Path level = dir.resolve("level0.lvl");
+        Files.copy(getClass().getClassLoader().getResourceAsStream("levels/level0.lvl"), level);
+        Path compiled = dir.resolve("level0" + LevelBinary.EXTENSION);
+        LevelCompiler.compile(level, compiled);
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(compiled));
+        assertTrue(LevelBinary.isCompiledFrom(buffer, LevelBinary.hash(Files.readAllBytes(level))));
+
+        Files.write(level, "x".getBytes(UTF_8), StandardOpenOption.APPEND);
+        assertFalse(LevelBinary.isCompiledFrom(buffer, LevelBinary.hash(Files.readAllBytes(level))));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    void corruptCompiledLevelIsRejected() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        LevelBinary.write(parseText(0), out);
+        byte[] bytes = out.toByteArray();
+
+        assertThrows(IOException.class, () -> LevelBinary.read(0, ByteBuffer.wrap(bytes, 0, bytes.length - 3).slice()));
+        bytes[0] = 'X';
+        assertThrows(IOException.class, () -> LevelBinary.read(0, ByteBuffer.wrap(bytes)));
+    }
+}
@@ -0,0 +1,117 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.model.dataStructs.Position;
+import pt.feup.tvvs.soulknight.model.dataStructs.Vector;
+import pt.feup.tvvs.soulknight.model.game.elements.enemies.Enemies;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.FallingState;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.KnightState;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.RespawnState;
+import pt.feup.tvvs.soulknight.model.game.scene.LevelTemplate;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneLoader;
+import pt.feup.tvvs.soulknight.model.game.scene.SceneSnapshot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SceneSnapshotTests {
+
+    private static final List<String> LEVEL = List.of(
+            "",
+            " P e  c  s  h   u",
+            "xxxxxxxxxxxxxxxxxxxxxx");
+
+    private static Scene scene() {
+        return new SceneLoader(LevelTemplate.parse(0, LEVEL)).createScene(new Knight(0, 0, 50, 10, 1), 3L);
+    }
+
+    private static void collect(Scene scene, int tileX, int tileY) {
+        scene.getOrbs()[tileY][tileX].benefit(scene.getPlayer());
+        scene.getOrbs()[tileY][tileX] = null;
+        scene.getPlayer().addOrbs();
+    }
+
+    private static KnightState respawn(Knight knight) throws Exception {
+        knight.setState(new RespawnState(knight, 0));
+        return knight.getState().getNextState();
+    }
+
+    @Test
+    void respawnPutsCollectedOrbsBackWithoutReloading() throws Exception {
+        Scene scene = scene();
+        Knight knight = scene.getPlayer();
+        collect(scene, 3, 1);
+        collect(scene, 9, 1);
+        knight.setPosition(new Position(100, 8));
+        knight.setHP(0);
+
+        assertInstanceOf(FallingState.class, respawn(knight));
+        assertNotNull(scene.getOrbs()[1][3]);
+        assertNotNull(scene.getOrbs()[1][9]);
+        assertEquals(0, knight.getOrbs());
+        assertEquals(50, knight.getHP());
+        assertEquals(1, knight.getNumberOfDeaths());
+        assertEquals(scene.getStartPosition().x(), knight.getPosition().x());
+        assertEquals(scene.getStartPosition().y(), knight.getPosition().y());
+    }
+
+    @Test
+    void respawnWithoutACheckpointPutsTheOrbsBack() throws Exception {
+        Scene scene = scene();
+        scene.setCheckpoint(null);
+        Knight knight = scene.getPlayer();
+        collect(scene, 3, 1);
+        collect(scene, 9, 1);
+        knight.setPosition(new Position(100, 8));
+
+        assertInstanceOf(FallingState.class, respawn(knight));
+        assertNotNull(scene.getOrbs()[1][3]);
+        assertNotNull(scene.getOrbs()[1][9]);
+        assertEquals(0, knight.getOrbs());
+        assertEquals(1, knight.getNumberOfDeaths());
+        assertEquals(scene.getStartPosition().x(), knight.getPosition().x());
+    }
+
+    @Test
+    void checkpointKeepsTheOrbsTakenBeforeIt() throws Exception {
+        Scene scene = scene();
+        Knight knight = scene.getPlayer();
+        collect(scene, 3, 1);
+        knight.setPosition(new Position(6 * 8, 8));
+
+        assertTrue(scene.reachCheckpoint());
+        assertFalse(scene.reachCheckpoint());
+
+        collect(scene, 9, 1);
+        knight.setPosition(new Position(120, 8));
+        respawn(knight);
+
+        assertNull(scene.getOrbs()[1][3]);
+        assertNotNull(scene.getOrbs()[1][9]);
+        assertEquals(1, knight.getOrbs());
+        assertEquals(6 * 8, knight.getPosition().x());
+    }
+
+    @Test
+    void fullRestoreMovesMonstersBack() throws Exception {
+        Scene scene = new SceneLoader(1).createScene(new Knight(0, 0, 50, 10, 1), 5L);
+        SceneSnapshot snapshot = SceneSnapshot.capture(scene);
+        Enemies monster = scene.getMonsters().get(0);
+        Position before = monster.getPosition();
+
+        monster.setPosition(new Position(before.x() + 40, before.y() + 3));
+        monster.setVelocity(new Vector(-9, 9));
+        scene.getPlayer().setEnergy(0);
+        snapshot.restore(scene);
+
+        assertEquals(before.x(), monster.getPosition().x());
+        assertEquals(before.y(), monster.getPosition().y());
+        assertNotEquals(-9, monster.getVelocity().x());
+        assertEquals(snapshot.getKnightPosition().x(), scene.getPlayer().getPosition().x());
+        assertNotEquals(0, scene.getPlayer().getEnergy());
+    }
+}
@@ -0,0 +1,72 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.gui.ActionSet;
+import pt.feup.tvvs.soulknight.gui.GUI;
+import pt.feup.tvvs.soulknight.gui.NullGUI;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.model.menu.Particle;
+import pt.feup.tvvs.soulknight.sound.NullSoundPlayer;
+import pt.feup.tvvs.soulknight.state.GameState;
+import pt.feup.tvvs.soulknight.state.MainMenuState;
+import pt.feup.tvvs.soulknight.state.SettingsMenuState;
+import pt.feup.tvvs.soulknight.view.elements.knight.KnightViewer;
+import pt.feup.tvvs.soulknight.view.sprites.GameSpriteLoader;
+import pt.feup.tvvs.soulknight.view.sprites.Sprite;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteLoader;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScreenTransitionTests {
+
+    @Test
+    void quittingALevelShowsTheSameMainMenuAgain() throws Exception {
+        Game game = new Game(new NullGUI(), new NullSoundPlayer(), new GameSpriteLoader(), 1L);
+        MainMenuState menu = (MainMenuState) game.getState();
+        Particle particle = menu.getModel().getParticles().get(0);
+        menu.getModel().nextOption();
+
+        game.startLevel(0, new Knight(0, 0, 50, 10, 1));
+        assertInstanceOf(GameState.class, game.getState());
+        game.getState().step(game, ActionSet.of(GUI.ACTION.QUIT), 1);
+
+        assertSame(menu, game.getState());
+        assertTrue(menu.getModel().isSelectedStart());
+        assertSame(particle, menu.getModel().getParticles().get(0));
+    }
+
+    @Test
+    void settingsMenuIsBuiltOnce() throws Exception {
+        Game game = new Game(new NullGUI(), new NullSoundPlayer(), new GameSpriteLoader(), 1L);
+
+        SettingsMenuState settings = game.getSettingsMenuState();
+        settings.getModel().nextOption();
+
+        assertSame(settings, game.getSettingsMenuState());
+        assertTrue(settings.getModel().isSelected(0));
+        assertSame(game.getViewerProvider(), game.getLevelPrefetcher().take(0).getViewerProvider());
+    }
+
+    @Test
+    void knightAnimationsComeFromTheSpriteLoader() throws Exception {
+        GameSpriteLoader cache = new GameSpriteLoader();
+        List<String> requested = new ArrayList<>();
+        SpriteLoader spriteLoader = path -> {
+            requested.add(path);
+            return cache.get(path);
+        };
+
+        new KnightViewer(spriteLoader);
+        int sprites = cache.getCacheSize();
+        new KnightViewer(spriteLoader);
+
+        assertTrue(requested.contains("sprites/Knight/Idle/pixil-frame-0-reversed.png"));
+        assertEquals(sprites, cache.getCacheSize());
+        Sprite idle = cache.get("sprites/Knight/Idle/pixil-frame-0.png");
+        assertSame(idle, spriteLoader.get("sprites/Knight/Idle/pixil-frame-0.png"));
+    }
+}
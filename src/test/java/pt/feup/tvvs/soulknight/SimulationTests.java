@@ -0,0 +1,256 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.gui.ActionSet;
+import pt.feup.tvvs.soulknight.gui.GUI;
+import pt.feup.tvvs.soulknight.gui.NullGUI;
+import pt.feup.tvvs.soulknight.gui.RecordingGUI;
+import pt.feup.tvvs.soulknight.model.dataStructs.Position;
+import pt.feup.tvvs.soulknight.model.game.elements.Element;
+import pt.feup.tvvs.soulknight.model.game.scene.Scene;
+import pt.feup.tvvs.soulknight.model.game.elements.knight.Knight;
+import pt.feup.tvvs.soulknight.simulation.ActionSource;
+import pt.feup.tvvs.soulknight.simulation.HeadlessSimulation;
+import pt.feup.tvvs.soulknight.simulation.InputRecording;
+import pt.feup.tvvs.soulknight.simulation.ParallelSimulation;
+import pt.feup.tvvs.soulknight.simulation.ScriptedActionSource;
+import pt.feup.tvvs.soulknight.sound.NullSoundPlayer;
+import pt.feup.tvvs.soulknight.state.GameState;
+import pt.feup.tvvs.soulknight.state.State;
+import pt.feup.tvvs.soulknight.view.sprites.GameSpriteLoader;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulationTests {
+
+    // ---------- ScriptedActionSource ----------
+
+    @Test
+    void scriptExpandsRepeatCountsAndLoops() {
+        ScriptedActionSource source = ScriptedActionSource.parse("right*2, jump  LEFT+dash");
+
+        assertEquals(4, source.length());
+        assertEquals(ActionSet.of(GUI.ACTION.RIGHT), next(source, 0));
+        assertEquals(ActionSet.of(GUI.ACTION.RIGHT), next(source, 1));
+        assertEquals(ActionSet.of(GUI.ACTION.JUMP), next(source, 2));
+        assertEquals(ActionSet.of(GUI.ACTION.LEFT, GUI.ACTION.DASH), next(source, 3));
+        assertEquals(ActionSet.of(GUI.ACTION.RIGHT), next(source, 4));
+    }
+
+    private static ActionSet next(ActionSource source, long tick) {
+        ActionSet actions = new ActionSet();
+        source.next(tick, actions);
+        return actions;
+    }
+
+    @Test
+    void scriptRejectsUnknownActionsAndBadCounts() {
+        assertThrows(IllegalArgumentException.class, () -> ScriptedActionSource.parse("FLY"));
+        assertThrows(IllegalArgumentException.class, () -> ScriptedActionSource.parse("RIGHT*0"));
+        assertThrows(IllegalArgumentException.class, () -> ScriptedActionSource.parse("RIGHT*x"));
+        assertThrows(IllegalArgumentException.class, () -> ScriptedActionSource.parse("+RIGHT"));
+        assertThrows(IllegalArgumentException.class, () -> ScriptedActionSource.parse("  "));
+    }
+
+    // ---------- HeadlessSimulation ----------
+
+    @Test
+    void runsRequestedNumberOfTicks() throws Exception {
+        HeadlessSimulation.Result result = new HeadlessSimulation(0,
+                ScriptedActionSource.parse(HeadlessSimulation.DEFAULT_SCRIPT), 2_000, 1L).run();
+
+        assertEquals(2_000, result.getTicks());
+        assertEquals(0, result.getSceneId());
+        assertTrue(result.getTicksPerSecond() > 0);
+    }
+
+    @Test
+    void quitEndsTheRunEarly() throws Exception {
+        HeadlessSimulation.Result result = new HeadlessSimulation(1,
+                ScriptedActionSource.parse("NULL*5 QUIT"), 1_000, 1L).run();
+
+        assertEquals(6, result.getTicks());
+        assertEquals(-1, result.getSceneId());
+    }
+
+    // ---------- Seeded runs ----------
+
+    private static HeadlessSimulation.Result simulate(long seed) throws Exception {
+        return new HeadlessSimulation(0, ScriptedActionSource.parse(HeadlessSimulation.DEFAULT_SCRIPT), 1_500, seed).run();
+    }
+
+    private static List<Position> positions(Scene scene) {
+        List<Position> positions = new ArrayList<>();
+        positions.add(scene.getPlayer().getPosition());
+        for (List<? extends Element> elements : List.of(scene.getParticles(), scene.getMonsters(),
+                scene.getJumpParticles(), scene.getDoubleJumpParticles(), scene.getDashParticles(), scene.getRespawnParticles()))
+            for (Element element : elements)
+                positions.add(element.getPosition());
+        return positions;
+    }
+
+    @Test
+    void sameSeedReplaysTickForTick() throws Exception {
+        HeadlessSimulation.Result first = simulate(42);
+        HeadlessSimulation.Result second = simulate(42);
+
+        assertEquals(first.getKnight().getHP(), second.getKnight().getHP());
+        assertEquals(first.getKnight().getNumberOfDeaths(), second.getKnight().getNumberOfDeaths());
+        assertEquals(first.getKnight().getVelocity(), second.getKnight().getVelocity());
+        assertEquals(positions(first.getKnight().getScene()), positions(second.getKnight().getScene()));
+    }
+
+    @Test
+    void differentSeedsDiverge() throws Exception {
+        HeadlessSimulation.Result first = simulate(1);
+        HeadlessSimulation.Result second = simulate(2);
+
+        assertNotEquals(positions(first.getKnight().getScene()), positions(second.getKnight().getScene()));
+    }
+
+    private static List<Position> menuParticles(long seed) throws Exception {
+        Game game = new Game(new NullGUI(), new NullSoundPlayer(), new GameSpriteLoader(), seed);
+        State<?> menu = game.getMainMenuState();
+        for (long tick = 0; tick < 30; tick++)
+            menu.step(game, new ActionSet(), tick);
+        List<Position> positions = new ArrayList<>();
+        for (pt.feup.tvvs.soulknight.model.menu.Particle particle : game.getMainMenuState().getModel().getParticles())
+            positions.add(particle.getPosition());
+        for (pt.feup.tvvs.soulknight.model.menu.Particle particle : game.getSettingsMenuState().getModel().getParticles())
+            positions.add(particle.getPosition());
+        return positions;
+    }
+
+    @Test
+    void menusDrawFromTheGameSeed() throws Exception {
+        assertEquals(menuParticles(42), menuParticles(42));
+        assertNotEquals(menuParticles(1), menuParticles(2));
+    }
+
+    // ---------- Input recording ----------
+
+    @Test
+    void recordingRoundTripsThroughBinaryFormat() throws IOException {
+        ScriptedActionSource script = ScriptedActionSource.parse(HeadlessSimulation.DEFAULT_SCRIPT);
+        InputRecording.Recorder recorder = new InputRecording.Recorder(-7L);
+        for (int tick = 0; tick < 1_000; tick++)
+            recorder.record(next(script, tick));
+        InputRecording recording = recorder.finish();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        recording.write(out);
+        InputRecording read = InputRecording.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(-7L, read.getSeed());
+        assertEquals(1_000, read.getTicks());
+        assertEquals(recording.getEventCount(), read.getEventCount());
+        for (int tick = 0; tick < 1_000; tick++)
+            assertEquals(next(script, tick), next(read, tick), "tick " + tick);
+        assertTrue(next(read, 1_000).isEmpty());
+        assertTrue(out.size() < 1_000 * 2, "recording took " + out.size() + " bytes");
+    }
+
+    @Test
+    void readingSomethingElseFails() {
+        assertThrows(IOException.class, () -> InputRecording.read(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5})));
+    }
+
+    @Test
+    void replayEndsWithTheRecordedKnight(@TempDir Path directory) throws Exception {
+        // A "live" session: the main menu and a level, drawn every tick through a recording GUI
+        ScriptedActionSource script = ScriptedActionSource.parse(HeadlessSimulation.DEFAULT_SCRIPT);
+        NullGUI keyboard = new NullGUI() {
+            private long tick;
+
+            @Override
+            public void pollActions(ActionSet actions) {
+                long current = tick++;
+                if (current > 10)
+                    script.next(current, actions);
+                else
+                    actions.set(current == 10 ? ACTION.SELECT : ACTION.NULL);
+            }
+        };
+        Path file = directory.resolve("session.skir");
+        RecordingGUI gui = new RecordingGUI(keyboard, 1234L, file);
+        Game game = new Game(gui, new NullSoundPlayer(), new GameSpriteLoader(), 1234L);
+
+        State<?> state = game.getState();
+        for (int tick = 0; tick < 900 && state != null; tick++) {
+            state.move(game, gui, tick);
+            state = game.getState();
+        }
+        gui.close();
+        assertInstanceOf(GameState.class, state);
+        Knight played = ((Scene) state.getModel()).getPlayer();
+
+        HeadlessSimulation.Result replayed = HeadlessSimulation.replay(InputRecording.read(file));
+        Knight knight = replayed.getKnight();
+
+        assertEquals(900, replayed.getTicks());
+        assertEquals(played.getPosition(), knight.getPosition());
+        assertEquals(played.getVelocity(), knight.getVelocity());
+        assertEquals(played.getHP(), knight.getHP());
+        assertEquals(played.getOrbs(), knight.getOrbs());
+        assertEquals(played.getNumberOfDeaths(), knight.getNumberOfDeaths());
+    }
+
+    // ---------- ParallelSimulation ----------
+
+    @Test
+    void parallelInstancesMatchTheSameRunsDoneOneByOne() throws Exception {
+        ScriptedActionSource script = ScriptedActionSource.parse(HeadlessSimulation.DEFAULT_SCRIPT);
+        ParallelSimulation.Result batch = new ParallelSimulation(6, 0, script, 600, 99L).run(3);
+
+        assertEquals(6, batch.getInstances().size());
+        assertEquals(6 * 600, batch.getTotalTicks());
+        assertTrue(batch.getTicksPerSecond() > 0);
+
+        ParallelSimulation.Result serial = new ParallelSimulation(6, 0, script, 600, 99L).run(1);
+        for (int i = 0; i < 6; i++) {
+            Knight parallel = batch.getInstances().get(i).getKnight();
+            Knight alone = serial.getInstances().get(i).getKnight();
+            assertEquals(positions(alone.getScene()), positions(parallel.getScene()), "instance " + i);
+            assertEquals(alone.getHP(), parallel.getHP(), "instance " + i);
+        }
+    }
+
+    @Test
+    void instancesBeyondTheThreadCountWait() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger mostRunning = new AtomicInteger();
+        ActionSource overlapping = (tick, actions) -> {
+            actions.clear();
+            if (tick == 0) {
+                mostRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);   // lets every instance that may start do so meanwhile
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            } else if (tick == 49) {
+                running.decrementAndGet();
+            }
+        };
+
+        ExecutorService unbounded = Executors.newCachedThreadPool();
+        try {
+            new ParallelSimulation(6, 0, overlapping, 50, 99L).run(unbounded, 2);
+        } finally {
+            unbounded.shutdownNow();
+        }
+        assertEquals(2, mostRunning.get());
+    }
+}
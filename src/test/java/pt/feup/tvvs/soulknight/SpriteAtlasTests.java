@@ -0,0 +1,87 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.gui.BufferedImageGUI;
+import pt.feup.tvvs.soulknight.view.sprites.GameSpriteLoader;
+import pt.feup.tvvs.soulknight.view.sprites.Sprite;
+import pt.feup.tvvs.soulknight.view.sprites.SpriteAtlas;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpriteAtlasTests {
+
+    private static SpriteAtlas atlas;
+
+    @BeforeAll
+    static void loadAtlas() throws IOException {
+        atlas = SpriteAtlas.load();
+    }
+
+    private static int[] drawn(Sprite sprite, int width, int height) {
+        BufferedImage buffer = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        sprite.draw(new BufferedImageGUI(buffer), 0, 0);
+        return buffer.getRGB(0, 0, width, height, null, 0, width);
+    }
+
+    // What drawing the PNG pixel by pixel puts on screen: every pixel that is not fully transparent, opaque
+    private static int[] expected(BufferedImage image) {
+        int[] pixels = new int[image.getWidth() * image.getHeight()];
+        for (int y = 0; y < image.getHeight(); y++)
+            for (int x = 0; x < image.getWidth(); x++) {
+                int argb = image.getRGB(x, y);
+                if (argb >>> 24 != 0)
+                    pixels[y * image.getWidth() + x] = 0xFF000000 | argb;
+            }
+        return pixels;
+    }
+
+    @Test
+    void everySpriteDrawsLikeItsImage() throws IOException {
+        List<String> paths = SpriteAtlas.findSprites(SpriteAtlas.DEFAULT_ROOTS);
+        assertEquals(paths.size(), atlas.size());
+        assertTrue(paths.contains("icon/gameIcon.png"));
+
+        for (String path : paths) {
+            BufferedImage image = ImageIO.read(getClass().getClassLoader().getResource(path));
+            Sprite sprite = atlas.get(path);
+            assertEquals(image.getWidth(), sprite.getWidth(), path);
+            assertEquals(image.getHeight(), sprite.getHeight(), path);
+            assertArrayEquals(expected(image), drawn(sprite, image.getWidth(), image.getHeight()), path);
+        }
+    }
+
+    @Test
+    void mirroredAndTrimmedSpritesTakeLessThanTheirImages() throws IOException {
+        long imageBytes = 0;
+        for (Sprite sprite : atlas.getSprites().values())
+            imageBytes += (long) sprite.getWidth() * sprite.getHeight() * Integer.BYTES;
+
+        assertTrue(atlas.getSharedCount() > 0);
+        assertTrue(atlas.getBytes() < imageBytes, atlas.getBytes() + " >= " + imageBytes);
+        assertEquals(Integer.bitCount(atlas.getWidth()), 1);
+
+        GameSpriteLoader spriteLoader = new GameSpriteLoader(atlas);
+        assertSame(atlas.get("sprites/Tiles/ground_grass.png"), spriteLoader.get("sprites/Tiles/ground_grass.png"));
+        assertEquals(atlas.getBytes(), spriteLoader.getCacheBytes());
+    }
+
+    @Test
+    void reversedSpriteThatIsNotAMirrorKeepsItsOwnPixels() throws IOException {
+        SpriteAtlas pair = SpriteAtlas.build(Arrays.asList(
+                "sprites/Knight/movement/walking/running-intermediate-0.png",
+                "sprites/Knight/movement/walking/running-intermediate-0-reversed.png"));
+
+        assertEquals(0, pair.getSharedCount());
+        Sprite reversed = pair.get("sprites/Knight/movement/walking/running-intermediate-0-reversed.png");
+        Sprite standalone = new Sprite("sprites/Knight/movement/walking/running-intermediate-0-reversed.png");
+        assertArrayEquals(drawn(standalone, 14, 14), drawn(reversed, 14, 14));
+    }
+}
@@ -0,0 +1,68 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.metrics.StartupTimeline;
+import pt.feup.tvvs.soulknight.view.sprites.GameSpriteLoader;
+import pt.feup.tvvs.soulknight.view.sprites.ViewerProvider;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupTimelineTests {
+
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void phasesAreReportedInOrderWithTheTimeToFirstFrame() {
+        StartupTimeline timeline = new StartupTimeline(0);
+        timeline.record("gui", 5 * MS, 40 * MS);
+        timeline.record("audio", 2 * MS, 20 * MS);
+
+        assertTrue(timeline.markFirstFrame(50 * MS));
+        assertFalse(timeline.markFirstFrame(90 * MS));
+
+        List<StartupTimeline.Phase> phases = timeline.getPhases();
+        assertEquals("audio", phases.get(0).getName());
+        assertEquals(35 * MS, phases.get(1).getDurationNanos());
+        assertEquals(50 * MS, timeline.getTimeToFirstFrameNanos());
+        String report = timeline.report();
+        assertTrue(report.indexOf("audio") < report.indexOf("gui"), report);
+        assertTrue(report.contains("Time to first frame: 50.0 ms"), report);
+    }
+
+    @Test
+    void timedTaskIsRecordedOnItsThread() throws Exception {
+        StartupTimeline timeline = new StartupTimeline();
+
+        assertEquals(42, timeline.time("answer", () -> 42));
+
+        StartupTimeline.Phase phase = timeline.getPhases().get(0);
+        assertEquals(Thread.currentThread().getName(), phase.getThread());
+        assertTrue(phase.getStartNanos() > 0);
+        assertEquals(-1, timeline.getTimeToFirstFrameNanos());
+    }
+
+    @Test
+    void levelViewersLoadOnlyWhenAskedFor() throws Exception {
+        GameSpriteLoader spriteLoader = new GameSpriteLoader();
+        ViewerProvider viewerProvider = new ViewerProvider(spriteLoader);
+        int menuSprites = spriteLoader.getCacheSize();
+
+        assertFalse(viewerProvider.isLoaded());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            viewerProvider.preload(executor).get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(viewerProvider.isLoaded());
+        assertTrue(spriteLoader.getCacheSize() > menuSprites);
+        assertSame(viewerProvider.getPlayerViewer(), viewerProvider.getPlayerViewer());
+    }
+}
@@ -0,0 +1,114 @@
+package pt.feup.tvvs.soulknight;
+
+import pt.feup.tvvs.soulknight.metrics.FrameProfiler;
+import pt.feup.tvvs.soulknight.metrics.TraceRecorder;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceRecorderTests {
+
+    @TempDir
+    Path tempDir;
+
+    private TraceRecorder recorder;
+    private FrameProfiler profiler;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new TraceRecorder(2, tempDir);
+        profiler = new FrameProfiler(33_000_000);
+        profiler.setTraceRecorder(recorder);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        recorder.close();
+    }
+
+    private void runFrame(long tick) {
+        profiler.beginFrame(tick, 0);
+        long frame = profiler.begin();
+        long scene = profiler.begin();
+        profiler.end(FrameProfiler.Phase.PLAYER, profiler.begin());
+        profiler.end(FrameProfiler.Phase.SCENE, scene);
+        profiler.end(FrameProfiler.Phase.FLUSH, profiler.begin());
+        profiler.end(FrameProfiler.Phase.FRAME, frame);
+        profiler.endFrame();
+    }
+
+    private String awaitTrace() throws Exception {
+        for (int i = 0; i < 500 && !recorder.isIdle(); i++)
+            Thread.sleep(10);
+        assertTrue(recorder.isIdle(), "Trace was not written in time");
+        assertNotNull(recorder.getLastTrace());
+        return Files.readString(recorder.getLastTrace(), UTF_8);
+    }
+
+    private static int occurrences(String text, String pattern) {
+        int count = 0;
+        for (int index = text.indexOf(pattern); index >= 0; index = text.indexOf(pattern, index + 1))
+            count++;
+        return count;
+    }
+
+    @Test
+    void nothingIsRecordedUntilCaptureIsRequested() {
+        runFrame(0);
+
+        assertTrue(recorder.isIdle());
+        assertNull(recorder.getLastTrace());
+    }
+
+    @Test
+    void captureWritesChromeTraceForRequestedFrames() throws Exception {
+        assertTrue(profiler.captureTrace());
+        runFrame(10);
+        runFrame(11);
+        runFrame(12);
+
+        String trace = awaitTrace();
+
+        assertTrue(trace.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+        assertEquals(8, occurrences(trace, "\"ph\":\"X\""));
+        assertEquals(2, occurrences(trace, "\"name\":\"State.move\""));
+        assertEquals(2, occurrences(trace, "\"name\":\"SceneController.move\""));
+        assertEquals(4, occurrences(trace, "\"tick\":10}"));
+        assertEquals(4, occurrences(trace, "\"tick\":11}"));
+        assertFalse(trace.contains("\"tick\":12}"));
+    }
+
+    @Test
+    void captureIsIgnoredWhileAlreadyCapturing() {
+        assertTrue(recorder.capture());
+        assertFalse(recorder.capture());
+        assertTrue(recorder.isCapturing());
+    }
+
+    @Test
+    void oldestSpansAreOverwrittenWhenFull() throws Exception {
+        TraceRecorder small = new TraceRecorder(1, tempDir);
+        profiler.setTraceRecorder(small);
+        small.capture();
+
+        profiler.beginFrame(0, 0);
+        for (int i = 0; i < TraceRecorder.MAX_SPANS_PER_FRAME + 5; i++)
+            profiler.end(FrameProfiler.Phase.PARTICLE_LAYER, profiler.begin());
+        profiler.endFrame();
+
+        for (int i = 0; i < 500 && !small.isIdle(); i++)
+            Thread.sleep(10);
+        String trace = Files.readString(small.getLastTrace(), UTF_8);
+        small.close();
+
+        assertEquals(TraceRecorder.MAX_SPANS_PER_FRAME, occurrences(trace, "\"ph\":\"X\""));
+    }
+}